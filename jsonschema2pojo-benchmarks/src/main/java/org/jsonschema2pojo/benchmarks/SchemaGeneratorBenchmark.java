@@ -0,0 +1,86 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import org.jsonschema2pojo.SchemaGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Measures how long {@link SchemaGenerator} takes to infer a schema from a
+ * large example document. The time to read the example is measured separately
+ * from the time to infer the schema from content that has already been read.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchemaGeneratorBenchmark {
+
+    @Param({ "1000", "50000" })
+    public int records;
+
+    private SyntheticCorpus corpus;
+    private URL example;
+    private JsonNode exampleContent;
+
+    @Setup
+    public void writeCorpus() throws IOException {
+        corpus = new SyntheticCorpus();
+        example = corpus.largeExample(records);
+        try (InputStream content = example.openStream()) {
+            exampleContent = new ObjectMapper().readTree(content);
+        }
+    }
+
+    @TearDown
+    public void deleteCorpus() throws IOException {
+        corpus.close();
+    }
+
+    @Benchmark
+    public ObjectNode schemaFromExampleUrl() {
+        return new SchemaGenerator().schemaFromExample(example);
+    }
+
+    @Benchmark
+    public ObjectNode schemaFromExampleContent() {
+        return new SchemaGenerator().schemaFromExample(exampleContent);
+    }
+
+}
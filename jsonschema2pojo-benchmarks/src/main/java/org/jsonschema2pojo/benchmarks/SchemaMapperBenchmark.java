@@ -0,0 +1,115 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.benchmarks;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jsonschema2pojo.SchemaMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sun.codemodel.JCodeModel;
+
+/**
+ * Measures {@link SchemaMapper#generate(JCodeModel, String, String, URL)} for
+ * corpora that stress different parts of generation. Each invocation uses a
+ * new mapper (and so a new schema store), like a generation run does.
+ * <p>
+ * Where a corpus has more than one schema, results are per schema.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchemaMapperBenchmark {
+
+    static final int WIDE_OBJECT_PROPERTIES = 2000;
+    static final int REF_CHAIN_DEPTH = 200;
+    static final int ENUM_VALUES = 5000;
+    static final int SMALL_FILES = 2000;
+
+    private static final String PACKAGE_NAME = "com.example";
+
+    private SyntheticCorpus corpus;
+    private URL wideObject;
+    private URL refChain;
+    private URL largeEnum;
+    private List<URL> smallFiles;
+
+    @Setup
+    public void writeCorpus() {
+        corpus = new SyntheticCorpus();
+        wideObject = corpus.wideObject(WIDE_OBJECT_PROPERTIES);
+        refChain = corpus.refChain(REF_CHAIN_DEPTH);
+        largeEnum = corpus.largeEnum(ENUM_VALUES);
+        smallFiles = corpus.smallFiles(SMALL_FILES);
+    }
+
+    @TearDown
+    public void deleteCorpus() throws IOException {
+        corpus.close();
+    }
+
+    @Benchmark
+    public JCodeModel wideObject() {
+        JCodeModel codeModel = new JCodeModel();
+        new SchemaMapper().generate(codeModel, "WideObject", PACKAGE_NAME, wideObject);
+        return codeModel;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REF_CHAIN_DEPTH)
+    public JCodeModel refChain() {
+        JCodeModel codeModel = new JCodeModel();
+        new SchemaMapper().generate(codeModel, "Link", PACKAGE_NAME, refChain);
+        return codeModel;
+    }
+
+    @Benchmark
+    public JCodeModel largeEnum() {
+        JCodeModel codeModel = new JCodeModel();
+        new SchemaMapper().generate(codeModel, "LargeEnum", PACKAGE_NAME, largeEnum);
+        return codeModel;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SMALL_FILES)
+    public JCodeModel smallFiles() {
+        JCodeModel codeModel = new JCodeModel();
+        SchemaMapper mapper = new SchemaMapper();
+        for (int i = 0; i < smallFiles.size(); i++) {
+            mapper.generate(codeModel, "Small" + i, PACKAGE_NAME, smallFiles.get(i));
+        }
+        return codeModel;
+    }
+
+}
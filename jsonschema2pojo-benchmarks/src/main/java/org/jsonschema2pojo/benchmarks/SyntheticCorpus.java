@@ -0,0 +1,197 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Writes generated schema documents and examples to a temporary directory.
+ * The documents are the same on every run, so results can be compared
+ * between builds.
+ */
+public class SyntheticCorpus implements AutoCloseable {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final JsonNodeFactory NODE_FACTORY = JsonNodeFactory.instance;
+
+    private static final String[] PROPERTY_TYPES = { "string", "integer", "number", "boolean" };
+
+    private final Path directory;
+
+    public SyntheticCorpus() {
+        try {
+            this.directory = Files.createTempDirectory("jsonschema2pojo-benchmarks");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return a single object schema with the given number of properties, of
+     *         every simple type, some with formats and defaults
+     */
+    public URL wideObject(int properties) {
+        ObjectNode schema = objectSchema();
+        ObjectNode propertiesNode = (ObjectNode) schema.get("properties");
+        for (int i = 0; i < properties; i++) {
+            ObjectNode property = propertiesNode.putObject("property_" + i);
+            property.put("type", PROPERTY_TYPES[i % PROPERTY_TYPES.length]);
+            if (i % 10 == 0) {
+                property.put("description", "Property number " + i);
+            }
+            if (i % 7 == 0 && i % PROPERTY_TYPES.length == 0) {
+                property.put("format", "date-time");
+            }
+        }
+        return write("wide/wideObject.json", schema);
+    }
+
+    /**
+     * @return the first of a chain of schemas, each in its own file and
+     *         referencing the next one with $ref
+     */
+    public URL refChain(int depth) {
+        URL first = null;
+        for (int i = 0; i < depth; i++) {
+            ObjectNode schema = objectSchema();
+            ObjectNode properties = (ObjectNode) schema.get("properties");
+            properties.putObject("name").put("type", "string");
+            properties.putObject("level").put("type", "integer");
+            if (i + 1 < depth) {
+                properties.putObject("next").put("$ref", "link" + (i + 1) + ".json");
+            }
+            URL url = write("chain/link" + i + ".json", schema);
+            first = first == null ? url : first;
+        }
+        return first;
+    }
+
+    /**
+     * @return a string enum schema with the given number of values, in a mix
+     *         of styles that exercise constant naming
+     */
+    public URL largeEnum(int values) {
+        ObjectNode schema = NODE_FACTORY.objectNode();
+        schema.put("type", "string");
+        ArrayNode enumValues = schema.putArray("enum");
+        for (int i = 0; i < values; i++) {
+            switch (i % 4) {
+                case 0: enumValues.add("value" + i); break;
+                case 1: enumValues.add("Value With Spaces " + i); break;
+                case 2: enumValues.add("value-with-dashes-" + i); break;
+                default: enumValues.add("VALUE_" + i); break;
+            }
+        }
+        return write("enum/largeEnum.json", schema);
+    }
+
+    /**
+     * @return the given number of small object schemas, each in its own file,
+     *         that all reference one shared schema
+     */
+    public List<URL> smallFiles(int files) {
+        ObjectNode shared = objectSchema();
+        ((ObjectNode) shared.get("properties")).putObject("id").put("type", "string");
+        write("small/common/identifier.json", shared);
+
+        List<URL> urls = new ArrayList<>(files);
+        for (int i = 0; i < files; i++) {
+            ObjectNode schema = objectSchema();
+            ObjectNode properties = (ObjectNode) schema.get("properties");
+            properties.putObject("name").put("type", "string");
+            properties.putObject("count").put("type", "integer");
+            properties.putObject("tags").put("type", "array").putObject("items").put("type", "string");
+            properties.putObject("identifier").put("$ref", "common/identifier.json");
+            urls.add(write("small/small" + i + ".json", schema));
+        }
+        return urls;
+    }
+
+    /**
+     * @return an example document (not a schema) holding an array of the given
+     *         number of records, each with nested objects and arrays
+     */
+    public URL largeExample(int records) {
+        ObjectNode example = NODE_FACTORY.objectNode();
+        example.put("generated", "2020-01-01T00:00:00Z");
+        ArrayNode items = example.putArray("records");
+        for (int i = 0; i < records; i++) {
+            ObjectNode item = items.addObject();
+            item.put("id", i);
+            item.put("name", "record " + i);
+            item.put("price", i * 1.5);
+            item.put("active", i % 2 == 0);
+            ObjectNode address = item.putObject("address");
+            address.put("street", i + " Main Street");
+            address.put("postcode", "AB" + i);
+            ArrayNode tags = item.putArray("tags");
+            tags.add("tag" + (i % 10));
+            tags.add("tag" + (i % 7));
+            ObjectNode extra = item.putObject("extra_" + (i % 20));
+            extra.put("value", i);
+        }
+        return write("examples/largeExample.json", example);
+    }
+
+    private static ObjectNode objectSchema() {
+        ObjectNode schema = NODE_FACTORY.objectNode();
+        schema.put("type", "object");
+        schema.putObject("properties");
+        return schema;
+    }
+
+    private URL write(String path, ObjectNode content) {
+        File file = directory.resolve(path).toFile();
+        file.getParentFile().mkdirs();
+        try {
+            OBJECT_MAPPER.writeValue(file, content);
+            return file.toURI().toURL();
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deletes the corpus.
+     */
+    @Override
+    public void close() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+}
@@ -35,6 +35,7 @@ import org.jsonschema2pojo.Annotator;
 import org.jsonschema2pojo.GenerationConfig;
 import org.jsonschema2pojo.InclusionLevel;
 import org.jsonschema2pojo.NoopAnnotator;
+import org.jsonschema2pojo.OutputFormat;
 import org.jsonschema2pojo.SourceSortOrder;
 import org.jsonschema2pojo.SourceType;
 import org.jsonschema2pojo.cli.CommandLineLogger.LogLevelValidator;
@@ -248,6 +249,57 @@ public class Arguments implements GenerationConfig {
     @Parameter(names = { "--useJakartaValidation" }, description = "Whether to use annotations from jakarta.validation package instead of javax.validation package when adding JSR-303/349 annotations to generated Java types")
     private boolean useJakartaValidation = false;
 
+    @Parameter(names = { "--parallelism" }, description = "The number of threads used to read source files, generate types and write the generated source files. Sources connected by $ref are generated together, so the generated types are the same for any value")
+    private int parallelism = 1;
+
+    @Parameter(names = { "--incremental" }, description = "Keep a manifest of the inputs and outputs of each run in the target directory, and only generate again the sources whose schemas (or referenced schemas) have changed since the previous run")
+    private boolean incrementalGeneration = false;
+
+    @Parameter(names = { "--write-only-changed-files" }, description = "Leave generated files untouched when their content hasn't changed. When used with -r, only files that are no longer generated are deleted (instead of emptying the target directory)")
+    private boolean writeOnlyChangedFiles = false;
+
+    @Parameter(names = { "--remote-cache-directory" }, description = "A directory in which documents fetched from http/https URIs are cached between runs. Cached documents are revalidated with a conditional request, and used if the server can't be reached")
+    private File remoteCacheDirectory;
+
+    @Parameter(names = { "--offline" }, description = "Resolve http/https documents only from the remote cache, without making any network requests")
+    private boolean offline = false;
+
+    @Parameter(names = { "--remote-timeout" }, description = "The connect and read timeout, in milliseconds, used when fetching http/https documents. A value of 0 means no timeout")
+    private int remoteTimeout = 0;
+
+    @Parameter(names = { "--profile-report" }, description = "Write a profile of the generation run to this file, as JSON: the time spent and memory allocated by each phase, source schema, rule and schema store operation. A summary of the slowest operations is also logged")
+    private File profileReport;
+
+    @Parameter(names = { "--streaming" }, description = "Generate and write types for one group of sources at a time, where a group holds the sources that are connected by $ref, releasing each group once it has been written. Memory use is bounded by the largest group rather than by every source")
+    private boolean streamingGeneration = false;
+
+    @Parameter(names = { "--shard-count" }, description = "Divide the sources into this number of shards, each generated by a separate run with a different --shard-index. Sources that are connected by $ref are generated by the same shard. The target directories of every shard are combined with --merge-shards")
+    private int shardCount = 1;
+
+    @Parameter(names = { "--shard-index" }, description = "The (zero-based) index of the shard to generate, when --shard-count is greater than 1")
+    private int shardIndex = 0;
+
+    @Parameter(names = { "--merge-shards" }, description = "Copy the types generated by every shard of a run into the target directory, instead of generating types. The source directories are the target directories of the shards")
+    private boolean mergeShards = false;
+
+    @Parameter(names = { "--output-format" }, description = "The form in which generated types are written to the target directory. Available options are: SOURCES (Java source files), CLASSES (class files, compiled in memory) and JAR (a jar of class files named " + OutputFormat.JAR_FILE_NAME + ", compiled in memory)")
+    private OutputFormat outputFormat = OutputFormat.SOURCES;
+
+    @Parameter(names = { "--write-sources" }, description = "Also write the generated sources when types are compiled: alongside the class files, or as a jar of sources named " + OutputFormat.SOURCES_JAR_FILE_NAME + " alongside the jar of class files")
+    private boolean writeSources = false;
+
+    @Parameter(names = { "--daemon" }, description = "Start a daemon that keeps running and generates types for each invocation made with --use-daemon, instead of generating types. The daemon listens on the --daemon-socket file until it's stopped with --stop-daemon", help = true)
+    private boolean daemon = false;
+
+    @Parameter(names = { "--use-daemon" }, description = "Send this invocation to the daemon listening on the --daemon-socket file, and print its output. Types are generated by this process if no daemon is listening")
+    private boolean useDaemon = false;
+
+    @Parameter(names = { "--stop-daemon" }, description = "Stop the daemon listening on the --daemon-socket file and exit", help = true)
+    private boolean stopDaemon = false;
+
+    @Parameter(names = { "--daemon-socket" }, description = "The Unix domain socket file used by --daemon, --use-daemon and --stop-daemon")
+    private File daemonSocket = new File(System.getProperty("user.home"), ".jsonschema2pojo/daemon.sock");
+
     @Parameter(names = { "-v", "--version"}, description = "Print version information", help = true)
     private boolean printVersion = false;
 
@@ -487,6 +539,22 @@ public class Arguments implements GenerationConfig {
         return printLogLevels;
     }
 
+    public boolean isDaemon() {
+        return daemon;
+    }
+
+    public boolean isUseDaemon() {
+        return useDaemon;
+    }
+
+    public boolean isStopDaemon() {
+        return stopDaemon;
+    }
+
+    public File getDaemonSocket() {
+        return daemonSocket;
+    }
+
     @Override
     public boolean isIncludeRequiredPropertiesConstructor() { return includeRequiredPropertiesConstructor; }
 
@@ -617,4 +685,68 @@ public class Arguments implements GenerationConfig {
     public boolean isUseJakartaValidation() {
         return useJakartaValidation;
     }
+
+    @Override
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public boolean isIncrementalGeneration() {
+        return incrementalGeneration;
+    }
+
+    @Override
+    public boolean isWriteOnlyChangedFiles() {
+        return writeOnlyChangedFiles;
+    }
+
+    @Override
+    public File getRemoteCacheDirectory() {
+        return remoteCacheDirectory;
+    }
+
+    @Override
+    public boolean isOffline() {
+        return offline;
+    }
+
+    @Override
+    public int getRemoteTimeout() {
+        return remoteTimeout;
+    }
+
+    @Override
+    public File getProfileReport() {
+        return profileReport;
+    }
+
+    @Override
+    public boolean isStreamingGeneration() {
+        return streamingGeneration;
+    }
+
+    @Override
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    @Override
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    public boolean isMergeShards() {
+        return mergeShards;
+    }
+
+    @Override
+    public OutputFormat getOutputFormat() {
+        return outputFormat;
+    }
+
+    @Override
+    public boolean isWriteSources() {
+        return writeSources;
+    }
 }
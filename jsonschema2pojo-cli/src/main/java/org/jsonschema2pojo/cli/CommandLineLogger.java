@@ -16,6 +16,7 @@
 
 package org.jsonschema2pojo.cli;
 
+import java.io.PrintStream;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -36,8 +37,22 @@ public class CommandLineLogger extends AbstractRuleLogger {
 
   private final int logLevel;
 
+  private final PrintStream out;
+
+  private final PrintStream err;
+
   public CommandLineLogger(String logLevel) {
+    this(logLevel, System.out, System.err);
+  }
+
+  /**
+   * Creates a logger that writes messages to the given streams instead of
+   * {@link System#out} and {@link System#err}.
+   */
+  public CommandLineLogger(String logLevel, PrintStream out, PrintStream err) {
     this.logLevel = LogLevel.fromValue(logLevel).levelInt();
+    this.out = out;
+    this.err = err;
   }
 
   @Override
@@ -68,37 +83,37 @@ public class CommandLineLogger extends AbstractRuleLogger {
   public void printLogLevels() {
     Set<String> levelNames = LogLevel.getLevelNames();
     String levelNamesJoined = levelNames.stream().collect(Collectors.joining(", "));
-    System.out.println("Available Log Levels: " + levelNamesJoined);
+    out.println("Available Log Levels: " + levelNamesJoined);
   }
 
   @Override
   protected void doDebug(String msg) {
-    System.out.println(msg);
+    out.println(msg);
   }
 
   @Override
   protected void doError(String msg, Throwable e) {
-    System.err.println(msg);
+    err.println(msg);
     if(e != null) {
-      e.printStackTrace(System.err);
+      e.printStackTrace(err);
     }
   }
 
   @Override
   protected void doInfo(String msg) {
-    System.out.print(msg);
+    out.print(msg);
   }
 
   @Override
   protected void doTrace(String msg) {
-    System.out.print(msg);
+    out.print(msg);
   }
 
   @Override
   protected void doWarn(String msg, Throwable e) {
-    System.err.println(msg);
+    err.println(msg);
     if(e != null) {
-      e.printStackTrace(System.err);
+      e.printStackTrace(err);
     }
   }
 
@@ -0,0 +1,227 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.cli;
+
+import static java.nio.charset.StandardCharsets.*;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import org.jsonschema2pojo.Jsonschema2Pojo;
+
+/**
+ * A long-running process that generates types for invocations of the command
+ * line interface made with <code>--use-daemon</code> (see
+ * {@link GenerationDaemonClient}). Invocations don't pay for starting a JVM,
+ * loading classes and warming up the JIT compiler each time.
+ * <p>
+ * The daemon listens on a Unix domain socket, which only the current user can
+ * connect to. Each request carries the command line arguments of an
+ * invocation, and the daemon sends back what the invocation would have
+ * printed, followed by its exit status. Requests are handled one at a time,
+ * with the classpath of the daemon.
+ */
+public class GenerationDaemon {
+
+    static final String GENERATE = "generate";
+    static final String STOP = "stop";
+
+    static final int OUT = 1;
+    static final int ERR = 2;
+    static final int EXIT = 3;
+
+    private static final int EXIT_ERROR = 1;
+
+    private final Path socket;
+
+    private final CommandLineLogger logger;
+
+    private volatile boolean stopped;
+
+    /**
+     * @param socket
+     *            the socket file to listen on
+     * @param logger
+     *            the logger used for messages about the daemon itself
+     */
+    public GenerationDaemon(Path socket, CommandLineLogger logger) {
+        this.socket = socket.toAbsolutePath();
+        this.logger = logger;
+    }
+
+    /**
+     * Handles requests until a client asks the daemon to stop.
+     *
+     * @throws IOException
+     *             if the socket can't be created, or another daemon is
+     *             already listening on it
+     */
+    public void run() throws IOException {
+        createSocketDirectory();
+        if (new GenerationDaemonClient(socket).isListening()) {
+            throw new IOException("A daemon is already listening on " + socket);
+        }
+        Files.deleteIfExists(socket);
+
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            restrictToOwner(socket, "rw-------");
+            logger.info(String.format("Listening on %s%n", socket));
+
+            while (!stopped) {
+                try (SocketChannel channel = server.accept()) {
+                    handle(channel);
+                } catch (IOException e) {
+                    logger.warn("Unable to complete a request: " + e.getMessage());
+                }
+            }
+        } finally {
+            Files.deleteIfExists(socket);
+        }
+        logger.info(String.format("Stopped%n"));
+    }
+
+    private void handle(SocketChannel channel) throws IOException {
+        DataInputStream in = new DataInputStream(Channels.newInputStream(channel));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+
+        String command = in.readUTF();
+        String[] args = new String[in.readInt()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = in.readUTF();
+        }
+
+        PrintStream stdout = new PrintStream(new FrameOutputStream(out, OUT), false, UTF_8);
+        PrintStream stderr = new PrintStream(new FrameOutputStream(out, ERR), false, UTF_8);
+        int status = 0;
+
+        if (STOP.equals(command)) {
+            stopped = true;
+        } else if (GENERATE.equals(command)) {
+            status = generate(args, stdout, stderr);
+        } else {
+            stderr.println("Unknown request: " + command);
+            status = EXIT_ERROR;
+        }
+
+        stdout.flush();
+        stderr.flush();
+        synchronized (out) {
+            out.writeByte(EXIT);
+            out.writeInt(status);
+            out.flush();
+        }
+    }
+
+    private int generate(String[] args, PrintStream stdout, PrintStream stderr) {
+        try {
+            Arguments arguments = new DaemonArguments().parse(args);
+            Jsonschema2Pojo.generate(arguments, new CommandLineLogger(arguments.getLogLevel(), stdout, stderr));
+            return 0;
+        } catch (ExitException e) {
+            return e.status;
+        } catch (Exception e) {
+            e.printStackTrace(stderr);
+            return EXIT_ERROR;
+        }
+    }
+
+    private void createSocketDirectory() throws IOException {
+        Path directory = socket.getParent();
+        if (!Files.isDirectory(directory)) {
+            Files.createDirectories(directory);
+            restrictToOwner(directory, "rwx------");
+        }
+    }
+
+    private static void restrictToOwner(Path path, String permissions) throws IOException {
+        try {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString(permissions));
+        } catch (UnsupportedOperationException e) {
+            // not a POSIX file system, access is governed by the file system's own rules
+        }
+    }
+
+    /**
+     * Arguments that have already been checked by the client, that must not
+     * stop the daemon if they ask to exit.
+     */
+    private static class DaemonArguments extends Arguments {
+        @Override
+        protected void exit(int status) {
+            throw new ExitException(status);
+        }
+    }
+
+    private static class ExitException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        ExitException(int status) {
+            this.status = status;
+        }
+    }
+
+    /**
+     * Writes each chunk of output as a frame, so that output and error can
+     * share the connection.
+     */
+    private static class FrameOutputStream extends OutputStream {
+        private final DataOutputStream out;
+        private final int type;
+
+        FrameOutputStream(DataOutputStream out, int type) {
+            this.out = out;
+            this.type = type;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            synchronized (out) {
+                out.writeByte(type);
+                out.writeInt(len);
+                out.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            synchronized (out) {
+                out.flush();
+            }
+        }
+    }
+
+}
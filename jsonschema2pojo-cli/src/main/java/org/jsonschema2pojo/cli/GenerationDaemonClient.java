@@ -0,0 +1,182 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.cli;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.Field;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jsonschema2pojo.URLProtocol;
+import org.jsonschema2pojo.util.URLUtil;
+
+import com.beust.jcommander.Parameter;
+
+/**
+ * Sends invocations of the command line interface to a
+ * {@link GenerationDaemon}, and prints what the daemon sends back.
+ */
+public class GenerationDaemonClient {
+
+    private final Path socket;
+
+    /**
+     * @param socket
+     *            the socket file the daemon listens on
+     */
+    public GenerationDaemonClient(Path socket) {
+        this.socket = socket;
+    }
+
+    /**
+     * Asks the daemon to generate types for the given command line arguments.
+     * Relative paths are resolved against the working directory of this
+     * process, since the daemon may have been started elsewhere.
+     *
+     * @param args
+     *            the command line arguments, as checked by {@link Arguments}
+     * @param out
+     *            the stream that output from the daemon is printed to
+     * @param err
+     *            the stream that errors from the daemon are printed to
+     * @return the exit status of the invocation, or <code>null</code> if no
+     *         daemon is listening on the socket
+     * @throws IOException
+     *             if the connection to the daemon fails during the request
+     */
+    public Integer generate(String[] args, PrintStream out, PrintStream err) throws IOException {
+        return send(GenerationDaemon.GENERATE, resolvePaths(args, new File("").getAbsoluteFile()), out, err);
+    }
+
+    /**
+     * Asks the daemon to stop once it has handled the requests that it
+     * already accepted.
+     *
+     * @return the exit status of the request, or <code>null</code> if no
+     *         daemon is listening on the socket
+     * @throws IOException
+     *             if the connection to the daemon fails during the request
+     */
+    public Integer stop(PrintStream out, PrintStream err) throws IOException {
+        return send(GenerationDaemon.STOP, new String[0], out, err);
+    }
+
+    boolean isListening() {
+        try (SocketChannel channel = connect()) {
+            return channel != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private SocketChannel connect() {
+        try {
+            return SocketChannel.open(UnixDomainSocketAddress.of(socket));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private Integer send(String command, String[] args, PrintStream out, PrintStream err) throws IOException {
+        SocketChannel channel = connect();
+        if (channel == null) {
+            return null;
+        }
+
+        try (channel) {
+            DataOutputStream request = new DataOutputStream(Channels.newOutputStream(channel));
+            request.writeUTF(command);
+            request.writeInt(args.length);
+            for (String arg : args) {
+                request.writeUTF(arg);
+            }
+            request.flush();
+
+            DataInputStream response = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            while (true) {
+                int type;
+                try {
+                    type = response.readByte();
+                } catch (EOFException e) {
+                    throw new IOException("The daemon closed the connection before the request completed", e);
+                }
+                if (type == GenerationDaemon.EXIT) {
+                    out.flush();
+                    err.flush();
+                    return response.readInt();
+                }
+                byte[] bytes = new byte[response.readInt()];
+                response.readFully(bytes);
+                (type == GenerationDaemon.ERR ? err : out).write(bytes);
+            }
+        }
+    }
+
+    /**
+     * @return the arguments, with every relative path given for a file or
+     *         source option resolved against the working directory
+     */
+    static String[] resolvePaths(String[] args, File workingDirectory) {
+        Map<String, Boolean> pathOptions = pathOptions();
+        String[] resolved = args.clone();
+
+        for (int i = 0; i < args.length; i++) {
+            Boolean variableArity = pathOptions.get(args[i]);
+            if (variableArity == null) {
+                continue;
+            }
+            while (i + 1 < args.length && !args[i + 1].startsWith("-")) {
+                i++;
+                if (URLUtil.parseProtocol(args[i]) == URLProtocol.NO_PROTOCOL) {
+                    resolved[i] = new File(args[i]).isAbsolute() ? args[i] : new File(workingDirectory, args[i]).getPath();
+                }
+                if (!variableArity) {
+                    break;
+                }
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * @return the names of the options that take file paths, mapped to
+     *         whether they take more than one value
+     */
+    private static Map<String, Boolean> pathOptions() {
+        Map<String, Boolean> pathOptions = new HashMap<>();
+        for (Field field : Arguments.class.getDeclaredFields()) {
+            Parameter parameter = field.getAnnotation(Parameter.class);
+            if (parameter != null && (field.getType() == File.class || parameter.converter() == UrlConverter.class)) {
+                for (String name : parameter.names()) {
+                    pathOptions.put(name, parameter.variableArity());
+                }
+            }
+        }
+        return pathOptions;
+    }
+
+}
@@ -16,10 +16,17 @@
 
 package org.jsonschema2pojo.cli;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 
+import org.jsonschema2pojo.GenerationShard;
 import org.jsonschema2pojo.Jsonschema2Pojo;
+import org.jsonschema2pojo.util.URLUtil;
 
 /**
  * Main class, providing a command line interface for jsonschema2pojo.
@@ -51,6 +58,40 @@ public final class Jsonschema2PojoCLI {
             arguments.exit(0);
         }
 
+        if (arguments.isDaemon()) {
+            new GenerationDaemon(arguments.getDaemonSocket().toPath(), logger).run();
+            return;
+        }
+
+        GenerationDaemonClient client = new GenerationDaemonClient(arguments.getDaemonSocket().toPath());
+
+        if (arguments.isStopDaemon()) {
+            if (client.stop(System.out, System.err) == null) {
+                logger.info(String.format("No daemon is listening on %s%n", arguments.getDaemonSocket()));
+            }
+            return;
+        }
+
+        if (arguments.isMergeShards()) {
+            List<File> shardDirectories = new ArrayList<>();
+            for (Iterator<URL> sources = arguments.getSource(); sources.hasNext();) {
+                shardDirectories.add(URLUtil.getFileFromURL(sources.next()));
+            }
+            GenerationShard.merge(shardDirectories, arguments.getTargetDirectory());
+            return;
+        }
+
+        if (arguments.isUseDaemon()) {
+            Integer status = client.generate(args, System.out, System.err);
+            if (status != null) {
+                if (status != 0) {
+                    arguments.exit(status);
+                }
+                return;
+            }
+            logger.debug("No daemon is listening on " + arguments.getDaemonSocket() + ", generating types in this process");
+        }
+
         Jsonschema2Pojo.generate(arguments, logger);
     }
 }
@@ -27,6 +27,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 
 import org.jsonschema2pojo.InclusionLevel;
+import org.jsonschema2pojo.OutputFormat;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -105,6 +106,38 @@ public class ArgumentsTest {
         assertThat(args.getPropertyWordDelimiters(), is(new char[] { '-' }));
     }
 
+    @Test
+    public void parseRecognisesParallelism() {
+        ArgsForTest args = (ArgsForTest) new ArgsForTest().parse(new String[] {
+                "-s", "/home/source", "-t", "/home/target", "--parallelism", "4"
+        });
+
+        assertThat(args.didExit(), is(false));
+        assertThat(args.getParallelism(), is(4));
+    }
+
+    @Test
+    public void parseRecognisesShards() {
+        ArgsForTest args = (ArgsForTest) new ArgsForTest().parse(new String[] {
+                "-s", "/home/source", "-t", "/home/target", "--shard-count", "4", "--shard-index", "2"
+        });
+
+        assertThat(args.didExit(), is(false));
+        assertThat(args.getShardCount(), is(4));
+        assertThat(args.getShardIndex(), is(2));
+    }
+
+    @Test
+    public void parseRecognisesOutputFormat() {
+        ArgsForTest args = (ArgsForTest) new ArgsForTest().parse(new String[] {
+                "-s", "/home/source", "-t", "/home/target", "--output-format", "JAR", "--write-sources"
+        });
+
+        assertThat(args.didExit(), is(false));
+        assertThat(args.getOutputFormat(), is(OutputFormat.JAR));
+        assertThat(args.isWriteSources(), is(true));
+    }
+
     @Test
     public void allOptionalArgsCanBeOmittedAndDefaultsPrevail() {
         ArgsForTest args = (ArgsForTest) new ArgsForTest().parse(new String[] {
@@ -125,6 +158,33 @@ public class ArgumentsTest {
         assertThat(args.isIncludeDynamicGetters(), is(false));
         assertThat(args.isIncludeDynamicSetters(), is(false));
         assertThat(args.isIncludeDynamicBuilders(), is(false));
+        assertThat(args.getParallelism(), is(1));
+        assertThat(args.isIncrementalGeneration(), is(false));
+        assertThat(args.isWriteOnlyChangedFiles(), is(false));
+        assertThat(args.isOffline(), is(false));
+        assertThat(args.getRemoteCacheDirectory(), is(nullValue()));
+        assertThat(args.getProfileReport(), is(nullValue()));
+        assertThat(args.isStreamingGeneration(), is(false));
+        assertThat(args.getShardCount(), is(1));
+        assertThat(args.getShardIndex(), is(0));
+        assertThat(args.isMergeShards(), is(false));
+        assertThat(args.getOutputFormat(), is(OutputFormat.SOURCES));
+        assertThat(args.isWriteSources(), is(false));
+        assertThat(args.isDaemon(), is(false));
+        assertThat(args.isUseDaemon(), is(false));
+        assertThat(args.isStopDaemon(), is(false));
+        assertThat(args.getDaemonSocket(), is(new File(System.getProperty("user.home"), ".jsonschema2pojo/daemon.sock")));
+    }
+
+    @Test
+    public void daemonCanBeStartedWithoutSourceAndTarget() {
+        ArgsForTest args = (ArgsForTest) new ArgsForTest().parse(new String[] {
+                "--daemon", "--daemon-socket", "/tmp/js2p.sock"
+        });
+
+        assertThat(args.didExit(), is(false));
+        assertThat(args.isDaemon(), is(true));
+        assertThat(args.getDaemonSocket(), is(theFile("/tmp/js2p.sock")));
     }
 
     @Test
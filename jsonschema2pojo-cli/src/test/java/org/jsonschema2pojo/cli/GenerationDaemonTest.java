@@ -0,0 +1,120 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.cli;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GenerationDaemonTest {
+
+    @TempDir
+    public Path directory;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    private Path socket;
+    private GenerationDaemonClient client;
+    private Future<?> daemon;
+
+    @BeforeEach
+    public void startDaemon() throws Exception {
+        socket = directory.resolve("daemon.sock");
+        client = new GenerationDaemonClient(socket);
+        CommandLineLogger logger = new CommandLineLogger("off");
+        daemon = executor.submit(() -> {
+            new GenerationDaemon(socket, logger).run();
+            return null;
+        });
+        for (int i = 0; i < 500 && !client.isListening(); i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    @AfterEach
+    public void stopDaemon() throws Exception {
+        client.stop(new PrintStream(out), new PrintStream(err));
+        daemon.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+
+    @Test
+    public void daemonGeneratesTypes() throws IOException {
+        Path schema = Files.writeString(directory.resolve("address.json"), "{\"type\":\"object\",\"properties\":{\"street\":{\"type\":\"string\"}}}");
+        Path target = directory.resolve("target");
+
+        Integer status = generate("--source", schema.toString(), "--target", target.toString(), "--package", "com.example");
+
+        assertThat(status, is(0));
+        assertThat(Files.readString(target.resolve("com/example/Address.java")), containsString("private String street;"));
+    }
+
+    @Test
+    public void daemonSendsBackErrorsAndExitStatus() throws IOException {
+        Integer status = generate("--source", directory.resolve("missing.json").toString(), "--target", directory.toString());
+
+        assertThat(status, is(1));
+        assertThat(err.toString(StandardCharsets.UTF_8), containsString("missing.json"));
+    }
+
+    @Test
+    public void daemonStopsWhenAsked() throws Exception {
+        assertThat(client.stop(new PrintStream(out), new PrintStream(err)), is(0));
+
+        daemon.get(10, TimeUnit.SECONDS);
+        assertThat(client.isListening(), is(false));
+        assertThat(Files.exists(socket), is(false));
+        assertThat(client.stop(new PrintStream(out), new PrintStream(err)), is(nullValue()));
+    }
+
+    @Test
+    public void relativePathsAreResolvedAgainstWorkingDirectory() {
+        File workingDirectory = new File("/home/user/project");
+
+        String[] resolved = GenerationDaemonClient.resolvePaths(new String[] {
+                "-s", "schema/a.json", "/schema/b.json", "http://example.com/c.json", "-t", "target", "-p", "com.example"
+        }, workingDirectory);
+
+        assertThat(resolved, is(new String[] {
+                "-s", new File(workingDirectory, "schema/a.json").getPath(), "/schema/b.json", "http://example.com/c.json",
+                "-t", new File(workingDirectory, "target").getPath(), "-p", "com.example"
+        }));
+    }
+
+    private Integer generate(String... args) throws IOException {
+        return client.generate(args, new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+
+}
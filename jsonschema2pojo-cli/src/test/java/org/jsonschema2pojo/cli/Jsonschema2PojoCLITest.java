@@ -0,0 +1,49 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.cli;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class Jsonschema2PojoCLITest {
+
+    @TempDir
+    public Path directory;
+
+    @Test
+    public void typesAreCompiledWithDefaultTargetVersion() throws IOException {
+        Path source = directory.resolve("schema");
+        Files.createDirectories(source);
+        Files.writeString(source.resolve("address.json"), "{\"type\":\"object\",\"properties\":{\"street\":{\"type\":\"string\"}}}");
+        Path target = directory.resolve("target");
+
+        // the default target version (1.6) is older than the compiler supports
+        Jsonschema2PojoCLI.main(new String[] { "--source", source.toString(), "--target", target.toString(), "--package", "com.example",
+                "--output-format", "CLASSES", "-log", "off" });
+
+        assertThat(Files.isRegularFile(target.resolve("com/example/Address.class")), is(true));
+        assertThat(Files.exists(target.resolve("com/example/Address.java")), is(false));
+    }
+
+}
@@ -20,6 +20,7 @@ import static java.util.Arrays.*;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.net.URI;
 import java.util.HashSet;
 import java.util.Set;
@@ -39,17 +40,39 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 public class ContentResolver {
 
     private static final Set<String> CLASSPATH_SCHEMES = new HashSet<>(asList("classpath", "resource", "java"));
+    private static final Set<String> HTTP_SCHEMES = new HashSet<>(asList("http", "https"));
     
     private final ObjectMapper objectMapper;
+    private final RemoteContentCache remoteContentCache;
+    private final boolean offline;
+    private final int remoteTimeout;
 
     public ContentResolver() {
         this(null);
     }
 
     public ContentResolver(JsonFactory jsonFactory) {
+        this(jsonFactory, new DefaultGenerationConfig());
+    }
+
+    /**
+     * Create a content resolver that reads http/https documents as described
+     * by the 'remoteCacheDirectory', 'offline' and 'remoteTimeout' options of
+     * the given config.
+     *
+     * @param jsonFactory
+     *            the factory used to parse documents (or <code>null</code> to
+     *            parse JSON)
+     * @param config
+     *            the configuration options for this generation run
+     */
+    public ContentResolver(JsonFactory jsonFactory, GenerationConfig config) {
         this.objectMapper = new ObjectMapper(jsonFactory)
                 .enable(JsonParser.Feature.ALLOW_COMMENTS)
                 .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        this.remoteContentCache = config.getRemoteCacheDirectory() != null ? new RemoteContentCache(config.getRemoteCacheDirectory()) : null;
+        this.offline = config.isOffline();
+        this.remoteTimeout = config.getRemoteTimeout();
     }
 
     /**
@@ -73,6 +96,10 @@ public class ContentResolver {
             return resolveFromClasspath(uri);
         }
 
+        if (HTTP_SCHEMES.contains(uri.getScheme())) {
+            return resolveFromHttp(uri);
+        }
+
         try (InputStream in = uri.toURL().openStream()){
             return objectMapper.readTree(in);
         } catch (JsonProcessingException e) {
@@ -83,6 +110,66 @@ public class ContentResolver {
 
     }
 
+    /**
+     * Reads an http/https document. If a cache is configured, a cached copy is
+     * revalidated using a conditional request, and is used (even if it's
+     * stale) if the server can't be reached or responds with a server error.
+     * When offline, only the cache is used.
+     */
+    private JsonNode resolveFromHttp(URI uri) {
+
+        RemoteContentCache.Entry cached = remoteContentCache != null ? remoteContentCache.get(uri) : null;
+
+        if (offline) {
+            if (cached == null) {
+                throw new IllegalArgumentException("Document is not in the remote cache, can't resolve this while offline: " + uri);
+            }
+            return cached.getContent();
+        }
+
+        try {
+            HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection();
+            connection.setConnectTimeout(remoteTimeout);
+            connection.setReadTimeout(remoteTimeout);
+            if (cached != null && cached.getEtag() != null) {
+                connection.setRequestProperty("If-None-Match", cached.getEtag());
+            }
+            if (cached != null && cached.getLastModified() != null) {
+                connection.setRequestProperty("If-Modified-Since", cached.getLastModified());
+            }
+
+            int responseCode = connection.getResponseCode();
+            if (cached != null && responseCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                return cached.getContent();
+            }
+            if (responseCode >= 400 && responseCode < 500) {
+                // the document is gone (or we're not allowed to read it), so any cached copy shouldn't be used either
+                throw new IllegalArgumentException("Unrecognised URI, can't resolve this: " + uri + " (HTTP " + responseCode + ")");
+            }
+
+            JsonNode content;
+            try (InputStream in = connection.getInputStream()) {
+                content = objectMapper.readTree(in);
+            }
+
+            if (remoteContentCache != null) {
+                try {
+                    remoteContentCache.put(uri, new RemoteContentCache.Entry(content, connection.getHeaderField("ETag"), connection.getHeaderField("Last-Modified")));
+                } catch (IOException e) {
+                    // the document will be fetched again next time
+                }
+            }
+            return content;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Error parsing document: " + uri, e);
+        } catch (IOException e) {
+            if (cached != null) {
+                return cached.getContent();
+            }
+            throw new IllegalArgumentException("Unrecognised URI, can't resolve this: " + uri, e);
+        }
+    }
+
     private JsonNode resolveFromClasspath(URI uri) {
 
         String path = Strings.CS.removeStart(Strings.CS.removeStart(uri.toString(), uri.getScheme() + ":"), "/");
@@ -495,4 +495,100 @@ public class DefaultGenerationConfig implements GenerationConfig {
     public boolean isUseJakartaValidation() {
         return false;
     }
+
+    /**
+     * @return <code>1</code>
+     */
+    @Override
+    public int getParallelism() {
+        return 1;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isIncrementalGeneration() {
+        return false;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isWriteOnlyChangedFiles() {
+        return false;
+    }
+
+    /**
+     * @return <code>null</code>
+     */
+    @Override
+    public File getRemoteCacheDirectory() {
+        return null;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isOffline() {
+        return false;
+    }
+
+    /**
+     * @return <code>0</code>
+     */
+    @Override
+    public int getRemoteTimeout() {
+        return 0;
+    }
+
+    /**
+     * @return <code>null</code>
+     */
+    @Override
+    public File getProfileReport() {
+        return null;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isStreamingGeneration() {
+        return false;
+    }
+
+    /**
+     * @return <code>1</code>
+     */
+    @Override
+    public int getShardCount() {
+        return 1;
+    }
+
+    /**
+     * @return <code>0</code>
+     */
+    @Override
+    public int getShardIndex() {
+        return 0;
+    }
+
+    /**
+     * @return {@link OutputFormat#SOURCES}
+     */
+    @Override
+    public OutputFormat getOutputFormat() {
+        return OutputFormat.SOURCES;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isWriteSources() {
+        return false;
+    }
 }
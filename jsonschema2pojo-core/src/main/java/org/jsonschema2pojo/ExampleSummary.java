@@ -0,0 +1,180 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * What the schema inferred by {@link SchemaGenerator} depends on, for the
+ * example values read so far at one position in an example document.
+ * <p>
+ * Values are folded into a summary as they are read. Objects in the same
+ * array are merged property by property: objects are merged, arrays are
+ * concatenated, and any other value replaces the previous one unless it is
+ * <code>null</code>. An array is described by its first item, or by all of
+ * its objects when the first item is an object. Only these parts of a value
+ * are kept, so the memory used depends on the size of the schema rather than
+ * the size of the example.
+ */
+abstract class ExampleSummary {
+
+    /**
+     * Reads the value at the current token, and folds it into the given
+     * summary. The parser is left at the last token of the value.
+     *
+     * @param parser
+     *            a parser positioned at the first token of a value
+     * @param target
+     *            the summary of the values previously seen at the same
+     *            position, or <code>null</code> if there are none
+     * @return the summary of the values including this one (this may be the
+     *         target, updated in place)
+     */
+    static ExampleSummary read(JsonParser parser, ExampleSummary target) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null) {
+            throw new UnsupportedOperationException("Unsupported node of type='MISSING', the example has no content");
+        }
+
+        switch (token) {
+            case START_OBJECT:
+                ObjectSummary object = target instanceof ObjectSummary ? (ObjectSummary) target : new ObjectSummary();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.currentName();
+                    parser.nextToken();
+                    object.properties.put(name, read(parser, object.properties.get(name)));
+                }
+                return object;
+            case START_ARRAY:
+                ArraySummary array = target instanceof ArraySummary ? (ArraySummary) target : new ArraySummary();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    array.add(parser);
+                }
+                return array;
+            case VALUE_NULL:
+                return target != null ? target : ScalarSummary.NULL;
+            case VALUE_STRING:
+                return ScalarSummary.STRING;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return ScalarSummary.BOOLEAN;
+            case VALUE_NUMBER_INT:
+                switch (parser.getNumberType()) {
+                    case INT:
+                        return ScalarSummary.INTEGER;
+                    case LONG:
+                        return ScalarSummary.LONG;
+                    default:
+                        return ScalarSummary.NUMBER;
+                }
+            case VALUE_NUMBER_FLOAT:
+                return ScalarSummary.NUMBER;
+            default:
+                throw new UnsupportedOperationException("Unsupported token='%s' having value='%s'".formatted(token, parser.getText()));
+        }
+    }
+
+    /**
+     * @return the schema for the values that have been summarized
+     */
+    abstract ObjectNode toSchema(JsonNodeFactory nodeFactory);
+
+    private static final class ObjectSummary extends ExampleSummary {
+
+        private final Map<String, ExampleSummary> properties = new LinkedHashMap<>();
+
+        @Override
+        ObjectNode toSchema(JsonNodeFactory nodeFactory) {
+            ObjectNode schema = nodeFactory.objectNode();
+            schema.put("type", "object");
+
+            ObjectNode propertySchemas = schema.putObject("properties");
+            for (Map.Entry<String, ExampleSummary> property : properties.entrySet()) {
+                propertySchemas.set(property.getKey(), property.getValue().toSchema(nodeFactory));
+            }
+            return schema;
+        }
+
+    }
+
+    private static final class ArraySummary extends ExampleSummary {
+
+        /**
+         * The first item, or when that is an object, the merge of every
+         * object item.
+         */
+        private ExampleSummary items;
+
+        void add(JsonParser parser) throws IOException {
+            if (items == null) {
+                items = read(parser, null);
+            } else if (items instanceof ObjectSummary && parser.currentToken() == JsonToken.START_OBJECT) {
+                read(parser, items);
+            } else {
+                // the schema doesn't depend on this item
+                parser.skipChildren();
+            }
+        }
+
+        @Override
+        ObjectNode toSchema(JsonNodeFactory nodeFactory) {
+            ObjectNode schema = nodeFactory.objectNode();
+            schema.put("type", "array");
+            if (items != null) {
+                schema.set("items", items.toSchema(nodeFactory));
+            }
+            return schema;
+        }
+
+    }
+
+    private static class ScalarSummary extends ExampleSummary {
+
+        static final ScalarSummary NULL = new ScalarSummary(null);
+        static final ScalarSummary STRING = new ScalarSummary("string");
+        static final ScalarSummary BOOLEAN = new ScalarSummary("boolean");
+        static final ScalarSummary INTEGER = new ScalarSummary("integer");
+        static final ScalarSummary NUMBER = new ScalarSummary("number");
+        // longs are 'integers' in schema terms
+        static final ScalarSummary LONG = new ScalarSummary("integer") {
+            @Override
+            ObjectNode toSchema(JsonNodeFactory nodeFactory) {
+                return super.toSchema(nodeFactory).put("minimum", Long.MAX_VALUE);
+            }
+        };
+
+        private final String type;
+
+        private ScalarSummary(String type) {
+            this.type = type;
+        }
+
+        @Override
+        ObjectNode toSchema(JsonNodeFactory nodeFactory) {
+            return type == null ? nodeFactory.objectNode().putNull("type") : nodeFactory.objectNode().put("type", type);
+        }
+
+    }
+
+}
@@ -16,12 +16,21 @@
 
 package org.jsonschema2pojo;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 import com.sun.codemodel.JPackage;
 import com.sun.codemodel.util.UnicodeEscapeWriter;
@@ -30,18 +39,143 @@ import com.sun.codemodel.util.UnicodeEscapeWriter;
  * A writer that honours the given character encoding (workaround for an issue
  * with {@link com.sun.codemodel.util.EncoderFactory#createEncoder(String)} that
  * causes the given encoding to be ignored).
+ * <p>
+ * Optionally, files are only written if their content differs from the file
+ * already present in the target directory, so that unchanged files keep their
+ * modification time.
  */
 public class FileCodeWriterWithEncoding extends com.sun.codemodel.writer.FileCodeWriter {
 
+    private final File target;
+    private final boolean writeOnlyChangedFiles;
+    private final Set<File> generatedFiles = new HashSet<>();
+    private final boolean asciiCompatible;
+
     public FileCodeWriterWithEncoding(File target, String encoding) throws IOException {
+        this(target, encoding, false);
+    }
+
+    public FileCodeWriterWithEncoding(File target, String encoding, boolean writeOnlyChangedFiles) throws IOException {
         super(target, encoding);
+        this.target = target;
+        this.writeOnlyChangedFiles = writeOnlyChangedFiles;
+        this.asciiCompatible = isAsciiCompatible(Charset.forName(encoding));
+    }
+
+    @Override
+    public OutputStream openBinary(JPackage pkg, String fileName) throws IOException {
+        if (!writeOnlyChangedFiles) {
+            return super.openBinary(pkg, fileName);
+        }
+
+        final File directory = pkg.isUnnamed() ? target : new File(target, pkg.name().replace('.', File.separatorChar));
+        final File file = new File(directory, fileName);
+        generatedFiles.add(file);
+
+        return new ByteArrayOutputStream() {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    writeIfChanged(file, buf, count);
+                }
+            }
+        };
+    }
+
+    /**
+     * Gets the files produced by this writer. Only files opened when writing
+     * only changed files are recorded.
+     *
+     * @return the files that have been written, or would have been written if
+     *         their content had changed
+     */
+    public Set<File> getGeneratedFiles() {
+        return Collections.unmodifiableSet(generatedFiles);
+    }
+
+    private static void writeIfChanged(File file, byte[] content, int length) throws IOException {
+        if (file.isFile() && file.length() == length && Arrays.equals(Files.readAllBytes(file.toPath()), 0, length, content, 0, length)) {
+            return;
+        }
+
+        File directory = file.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException(directory + ": can't create directory");
+        }
+        try (OutputStream out = Files.newOutputStream(file.toPath())) {
+            out.write(content, 0, length);
+        }
     }
 
+    /**
+     * Opens a writer for a Java source file. The source is buffered and
+     * encoded when the writer is closed (see {@link #encode(CharSequence)}).
+     */
     @Override
-    public Writer openSource(JPackage pkg, String fileName) throws IOException {
-        final Writer bw = new OutputStreamWriter(openBinary(pkg, fileName), encoding);
+    public Writer openSource(final JPackage pkg, final String fileName) throws IOException {
+        return new StringWriter() {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    FileCodeWriterWithEncoding.this.write(pkg, fileName, encode(getBuffer()));
+                }
+            }
+        };
+    }
+
+    /**
+     * Writes a (previously encoded) file.
+     *
+     * @param pkg
+     *            the package of the file
+     * @param fileName
+     *            the name of the file
+     * @param content
+     *            the bytes to write
+     * @throws IOException
+     *             if the file can't be written
+     */
+    public void write(JPackage pkg, String fileName, byte[] content) throws IOException {
+        try (OutputStream out = openBinary(pkg, fileName)) {
+            out.write(content);
+        }
+    }
 
-        return new UnicodeEscapeWriter(bw) {
+    /**
+     * Encodes Java source using the output encoding of this writer. Control
+     * characters, and characters that can't be represented in the output
+     * encoding, are written as unicode escapes. This method may be called
+     * concurrently.
+     *
+     * @param source
+     *            the Java source to encode
+     * @return the encoded source
+     * @throws IOException
+     *             if the source can't be encoded
+     */
+    public byte[] encode(CharSequence source) throws IOException {
+        if (asciiCompatible && isPlainAscii(source)) {
+            // nothing to escape, and every char maps to the same single byte in the output encoding
+            return source.toString().getBytes(StandardCharsets.US_ASCII);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(source.length() + 64);
+        try (Writer writer = createEscapingWriter(new OutputStreamWriter(out, encoding))) {
+            // UnicodeEscapeWriter only escapes characters written via write(int) or write(char[], int, int)
+            char[] chars = source.toString().toCharArray();
+            writer.write(chars, 0, chars.length);
+        }
+        return out.toByteArray();
+    }
+
+    private Writer createEscapingWriter(Writer writer) {
+        return new UnicodeEscapeWriter(writer) {
             private final CharsetEncoder encoder = Charset.forName(encoding).newEncoder();
 
             @Override
@@ -59,4 +193,22 @@ public class FileCodeWriterWithEncoding extends com.sun.codemodel.writer.FileCod
         };
     }
 
+    private static boolean isPlainAscii(CharSequence source) {
+        for (int i = 0; i < source.length(); i++) {
+            char ch = source.charAt(i);
+            if (ch >= 0x80 || (ch < 0x20 && ch != '\t' && ch != '\r' && ch != '\n')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAsciiCompatible(Charset charset) {
+        byte[] ascii = new byte[0x80];
+        for (int i = 0; i < ascii.length; i++) {
+            ascii[i] = (byte) i;
+        }
+        return charset.canEncode() && Arrays.equals(new String(ascii, StandardCharsets.US_ASCII).getBytes(charset), ascii);
+    }
+
 }
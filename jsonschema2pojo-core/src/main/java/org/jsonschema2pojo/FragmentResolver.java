@@ -16,44 +16,170 @@
 
 package org.jsonschema2pojo;
 
-import static java.util.Arrays.*;
 import static org.apache.commons.lang3.StringUtils.*;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+/**
+ * Resolves fragment paths (JSON Pointers, or paths using other delimiters)
+ * against schema documents.
+ * <p>
+ * Paths are split and decoded once, and for every document the nodes found
+ * for each path (and each path prefix) are remembered. Resolving a path that
+ * was already resolved, or that extends a path that was already resolved,
+ * therefore only walks the new part of the path. Documents must not be
+ * modified once paths have been resolved against them.
+ * <p>
+ * A resolver may be used by several threads at once.
+ */
 public class FragmentResolver {
 
+    private static final int MAX_CACHED_PATHS = 10000;
+
+    private final Map<String, Map<String, CompiledPath>> compiledPaths = new ConcurrentHashMap<>();
+    private final Map<DocumentKey, Map<String, JsonNode>> documentIndexes = new ConcurrentHashMap<>();
+
     public JsonNode resolve(JsonNode tree, String path, String refFragmentPathDelimiters) {
 
-        return resolve(tree, new ArrayList<>(asList(split(path, refFragmentPathDelimiters))));
+        CompiledPath compiledPath = compile(path, refFragmentPathDelimiters);
+        if (compiledPath.size() == 0) {
+            return tree;
+        }
+
+        Map<String, JsonNode> index = documentIndexes.computeIfAbsent(new DocumentKey(tree), k -> new ConcurrentHashMap<>());
+
+        // start from the longest path prefix that has already been resolved
+        int resolved = compiledPath.size();
+        JsonNode node = index.get(compiledPath.getKey(resolved));
+        while (node == null && --resolved > 0) {
+            node = index.get(compiledPath.getKey(resolved));
+        }
+        if (resolved == 0) {
+            node = tree;
+        }
+
+        for (int i = resolved; i < compiledPath.size(); i++) {
+            node = step(node, compiledPath.getPart(i), compiledPath.getDecodedPart(i));
+            if (node != null) {
+                index.putIfAbsent(compiledPath.getKey(i + 1), node);
+            }
+        }
+
+        return node;
 
     }
 
-    private JsonNode resolve(JsonNode tree, List<String> path) {
+    /**
+     * Forgets all paths and documents seen by this resolver.
+     */
+    public void clearCache() {
+        compiledPaths.clear();
+        documentIndexes.clear();
+    }
 
-        if (path.isEmpty()) {
-            return tree;
+    private JsonNode step(JsonNode tree, String part, String decodedPart) {
+
+        if (tree.isArray()) {
+            try {
+                int index = Integer.parseInt(part);
+                return tree.get(index);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a valid array index: " + part);
+            }
+        }
+
+        if (tree.has(decodedPart)) {
+            return tree.get(decodedPart);
         } else {
-            String part = path.remove(0);
-
-            if (tree.isArray()) {
-                try {
-                    int index = Integer.parseInt(part);
-                    return resolve(tree.get(index), path);
-                } catch (NumberFormatException e) {
-                    throw new IllegalArgumentException("Not a valid array index: " + part);
-                }
+            throw new IllegalArgumentException("Path not present: " + decodedPart);
+        }
+
+    }
+
+    private CompiledPath compile(String path, String refFragmentPathDelimiters) {
+
+        Map<String, CompiledPath> pathsForDelimiters = compiledPaths.computeIfAbsent(refFragmentPathDelimiters, k -> new ConcurrentHashMap<>());
+
+        CompiledPath compiledPath = pathsForDelimiters.get(path);
+        if (compiledPath == null) {
+            if (pathsForDelimiters.size() >= MAX_CACHED_PATHS) {
+                pathsForDelimiters.clear();
             }
+            compiledPath = new CompiledPath(split(path, refFragmentPathDelimiters));
+            pathsForDelimiters.put(path, compiledPath);
+        }
+        return compiledPath;
+
+    }
+
+    /**
+     * A path split into its parts, with a key for each prefix of the path
+     * that is unambiguous whatever delimiters were used.
+     */
+    private static class CompiledPath {
+
+        private final String[] parts;
+        private final String[] decodedParts;
+        private final String key;
+        private final int[] keyEnds;
+
+        CompiledPath(String[] parts) {
+            this.parts = parts;
+            this.decodedParts = new String[parts.length];
+            this.keyEnds = new int[parts.length + 1];
 
-            String decodedPart = JsonPointerUtils.decodeReferenceToken(part);
-            if (tree.has(decodedPart)) {
-                return resolve(tree.get(decodedPart), path);
-            } else {
-                throw new IllegalArgumentException("Path not present: " + decodedPart);
+            StringBuilder key = new StringBuilder();
+            for (int i = 0; i < parts.length; i++) {
+                decodedParts[i] = JsonPointerUtils.decodeReferenceToken(parts[i]);
+                key.append('/').append(parts[i].replace("\\", "\\\\").replace("/", "\\/"));
+                keyEnds[i + 1] = key.length();
             }
+            this.key = key.toString();
+        }
+
+        int size() {
+            return parts.length;
+        }
+
+        String getPart(int i) {
+            return parts[i];
+        }
+
+        String getDecodedPart(int i) {
+            return decodedParts[i];
+        }
+
+        /**
+         * @return the key for the first <code>length</code> parts of this path
+         */
+        String getKey(int length) {
+            return length == parts.length ? key : key.substring(0, keyEnds[length]);
+        }
+
+    }
+
+    /**
+     * Identifies a document by identity (JsonNode equality compares content).
+     */
+    private static class DocumentKey {
+
+        private final JsonNode document;
+
+        DocumentKey(JsonNode document) {
+            this.document = document;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof DocumentKey && ((DocumentKey) other).document == document;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(document);
         }
 
     }
@@ -638,4 +638,158 @@ public interface GenerationConfig {
    */
   boolean isUseJakartaValidation();
 
+  /**
+   * Gets the 'parallelism' configuration option.
+   *
+   * @return The number of threads used to read source files, generate types
+   *         and write the generated source files. Sources that are connected
+   *         by <code>$ref</code> are generated together, in source order, on
+   *         one thread (with a rule factory and annotators of its own). If
+   *         types generated on different threads would have the same name,
+   *         all sources are generated again on a single thread, so the
+   *         generated code is the same for any value. A value of 1 does all
+   *         work on a single thread.
+   */
+  default int getParallelism() {
+    return 1;
+  }
+
+  /**
+   * Gets the 'incrementalGeneration' configuration option.
+   *
+   * @return Whether to keep a manifest of the inputs and outputs of each run
+   *         in the target directory, and use it to skip generation when no
+   *         source schema (or any schema they reference), and no configuration
+   *         option, has changed since the previous run. When only some sources
+   *         have changed, only those sources (and any sources that share
+   *         referenced schemas with them) are generated again.
+   */
+  default boolean isIncrementalGeneration() {
+    return false;
+  }
+
+  /**
+   * Gets the 'writeOnlyChangedFiles' configuration option.
+   *
+   * @return Whether to leave generated files untouched when their content is
+   *         the same as the file already present in the target directory, so
+   *         that they keep their modification time and aren't recompiled.
+   *         When combined with 'removeOldOutput', the target directory isn't
+   *         emptied before generation; instead, only the files that are no
+   *         longer generated are deleted afterwards.
+   */
+  default boolean isWriteOnlyChangedFiles() {
+    return false;
+  }
+
+  /**
+   * Gets the 'remoteCacheDirectory' configuration option.
+   *
+   * @return A directory in which documents fetched from http/https URIs (via
+   *         $ref) are cached between runs, or <code>null</code> if they
+   *         shouldn't be cached. Cached documents are revalidated with a
+   *         conditional request, and are used if the server can't be reached.
+   */
+  default File getRemoteCacheDirectory() {
+    return null;
+  }
+
+  /**
+   * Gets the 'offline' configuration option.
+   *
+   * @return Whether to resolve http/https documents only from the remote
+   *         cache (see {@link #getRemoteCacheDirectory()}), without making any
+   *         network requests.
+   */
+  default boolean isOffline() {
+    return false;
+  }
+
+  /**
+   * Gets the 'remoteTimeout' configuration option.
+   *
+   * @return The connect and read timeout, in milliseconds, used when fetching
+   *         http/https documents. A value of 0 means no timeout.
+   */
+  default int getRemoteTimeout() {
+    return 0;
+  }
+
+  /**
+   * Gets the 'profileReport' configuration option.
+   *
+   * @return The file that a profile of the generation run is written to, as
+   *         JSON: the time spent and memory allocated by each phase, source
+   *         schema, rule and schema store operation. A summary of the slowest
+   *         operations is also logged. Profiling is disabled when this is
+   *         <code>null</code>.
+   */
+  default File getProfileReport() {
+    return null;
+  }
+
+  /**
+   * Gets the 'streamingGeneration' configuration option.
+   *
+   * @return Whether to generate and write types for one group of sources at
+   *         a time, where a group holds the sources that are connected by
+   *         $ref, releasing the types and schemas of each group once they have
+   *         been written. This bounds memory use by the largest group rather
+   *         than by every source. When unrelated sources produce types with
+   *         the same name, the names chosen to keep them unique may differ
+   *         from a run without this option.
+   */
+  default boolean isStreamingGeneration() {
+    return false;
+  }
+
+  /**
+   * Gets the 'shardCount' configuration option.
+   *
+   * @return The number of shards that the sources are divided into, where
+   *         each shard is generated by a separate run (see
+   *         {@link #getShardIndex()}) and the target directories of every
+   *         shard are combined afterwards using
+   *         {@link GenerationShard#merge(java.util.List, File)}. Sources that are
+   *         connected by $ref are always generated by the same shard. A value
+   *         of 1 (the default) generates every source in a single run.
+   */
+  default int getShardCount() {
+    return 1;
+  }
+
+  /**
+   * Gets the 'shardIndex' configuration option.
+   *
+   * @return The (zero-based) index of the shard to generate, when
+   *         {@link #getShardCount()} is greater than 1.
+   */
+  default int getShardIndex() {
+    return 0;
+  }
+
+  /**
+   * Gets the 'outputFormat' configuration option.
+   *
+   * @return The form in which generated types are written to the target
+   *         directory: as Java sources (the default), or compiled in memory
+   *         to class files or a jar (see {@link OutputFormat}). Compiled
+   *         types are always generated from every source, and can't be
+   *         generated in groups or shards.
+   */
+  default OutputFormat getOutputFormat() {
+    return OutputFormat.SOURCES;
+  }
+
+  /**
+   * Gets the 'writeSources' configuration option.
+   *
+   * @return Whether to also write the generated sources when types are
+   *         compiled (see {@link #getOutputFormat()}): alongside the class
+   *         files, or as a jar of sources alongside the jar of class files.
+   */
+  default boolean isWriteSources() {
+    return false;
+  }
+
 }
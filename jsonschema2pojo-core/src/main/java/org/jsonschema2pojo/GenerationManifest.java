@@ -0,0 +1,551 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import static org.apache.commons.lang3.StringUtils.*;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.Strings;
+import org.jsonschema2pojo.exception.GenerationException;
+import org.jsonschema2pojo.util.URLUtil;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * A record of the inputs and outputs of a previous generation run, kept in
+ * the target directory so that later runs can skip sources that haven't
+ * changed.
+ * <p>
+ * The manifest holds a hash of the generation config (and of the classpath
+ * that existing Java types are resolved from), a hash of every
+ * document that was read (each source and every document it references via
+ * $ref, directly or transitively) and, for every source, a hash of the
+ * source together with all the documents it depends on and the list of files
+ * generated for that source. The documents and the $ref links between them
+ * are kept as a {@link ReferenceGraph}.
+ */
+public class GenerationManifest {
+
+    /**
+     * The name of the manifest file written to the target directory.
+     */
+    public static final String FILE_NAME = ".jsonschema2pojo-manifest.json";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    // options that don't affect the generated code
+    private static final Set<String> IGNORED_CONFIG_OPTIONS = new HashSet<>(Arrays.asList("getSource", "getParallelism", "isWriteOnlyChangedFiles",
+            "getRemoteCacheDirectory", "isOffline", "getRemoteTimeout", "getProfileReport"));
+
+    private final String configHash;
+    private final ReferenceGraph referenceGraph;
+    private final Map<String, Source> sources;
+
+    private GenerationManifest(String configHash, ReferenceGraph referenceGraph, Map<String, Source> sources) {
+        this.configHash = configHash;
+        this.referenceGraph = referenceGraph;
+        this.sources = sources;
+    }
+
+    /**
+     * Calculates a manifest for the given sources. Documents are only read if
+     * they are not local files, or if their size or modification time differs
+     * from the previous manifest.
+     *
+     * @param config
+     *            the configuration for this generation run
+     * @param contentResolver
+     *            the resolver used to read documents
+     * @param sourceUrls
+     *            the source files for this generation run, in the order they
+     *            are processed
+     * @param previous
+     *            the manifest of the previous run, or <code>null</code>
+     * @return a manifest describing the current state of the sources (with no
+     *         outputs recorded yet)
+     */
+    public static GenerationManifest create(GenerationConfig config, ContentResolver contentResolver, List<URL> sourceUrls, GenerationManifest previous) {
+
+        boolean followReferences = config.getSourceType() == SourceType.JSONSCHEMA || config.getSourceType() == SourceType.YAMLSCHEMA;
+        ReferenceGraph referenceGraph = ReferenceGraph.build(contentResolver, sourceUrls, followReferences, previous != null ? previous.referenceGraph : null);
+        Map<String, Source> sources = new LinkedHashMap<>();
+
+        for (URL sourceUrl : sourceUrls) {
+            String id = sourceUrl.toString();
+            Set<String> dependencies = followReferences ? referenceGraph.getDependencies(id) : new TreeSet<>(Collections.singleton(id));
+
+            MessageDigest digest = ReferenceGraph.newDigest();
+            for (String dependency : dependencies) {
+                digest.update(dependency.getBytes(StandardCharsets.UTF_8));
+                digest.update(referenceGraph.getHash(dependency).getBytes(StandardCharsets.UTF_8));
+            }
+            sources.put(id, new Source(HexFormat.of().formatHex(digest.digest()), dependencies, new TreeSet<>()));
+        }
+
+        return new GenerationManifest(hashConfig(config), referenceGraph, sources);
+    }
+
+    /**
+     * Reads the manifest left in the given directory by a previous run.
+     *
+     * @param targetDirectory
+     *            the target directory of the previous run
+     * @return the manifest, or <code>null</code> if there is no (readable)
+     *         manifest in the directory
+     */
+    public static GenerationManifest read(File targetDirectory) {
+
+        File file = new File(targetDirectory, FILE_NAME);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try {
+            JsonNode root = OBJECT_MAPPER.readTree(file);
+
+            Map<String, Source> sources = new LinkedHashMap<>();
+            for (Map.Entry<String, JsonNode> field : root.path("sources").properties()) {
+                JsonNode source = field.getValue();
+                sources.put(field.getKey(), new Source(source.path("hash").asText(),
+                        new TreeSet<>(toStrings(source.path("dependencies"))), new TreeSet<>(toStrings(source.path("outputs")))));
+            }
+
+            return new GenerationManifest(root.path("configHash").asText(), ReferenceGraph.read(root.path("documents")), sources);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes this manifest to the given directory.
+     *
+     * @param targetDirectory
+     *            the target directory of the current run
+     * @throws IOException
+     *             if the manifest can't be written
+     */
+    public void write(File targetDirectory) throws IOException {
+
+        ObjectNode root = OBJECT_MAPPER.createObjectNode();
+        root.put("configHash", configHash);
+
+        referenceGraph.write(root.putObject("documents"));
+
+        ObjectNode sourcesNode = root.putObject("sources");
+        for (Map.Entry<String, Source> entry : sources.entrySet()) {
+            ObjectNode sourceNode = sourcesNode.putObject(entry.getKey());
+            sourceNode.put("hash", entry.getValue().hash);
+            toArray(sourceNode.putArray("dependencies"), entry.getValue().dependencies);
+            toArray(sourceNode.putArray("outputs"), entry.getValue().outputs);
+        }
+
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(new File(targetDirectory, FILE_NAME), root);
+    }
+
+    /**
+     * Finds the sources that must be generated again, given the manifest of
+     * the previous run.
+     * <p>
+     * A source is affected if its own content, or the content of any document
+     * it depends on, has changed, or if any of its outputs are missing. Since
+     * the name chosen for a type depends on which source reaches it first,
+     * sources that share a dependency with an affected source are affected
+     * too.
+     *
+     * @param previous
+     *            the manifest of the previous run, or <code>null</code>
+     * @param targetDirectory
+     *            the target directory of the previous run
+     * @return the ids of the sources to generate again (empty if all outputs
+     *         are up to date), or <code>null</code> if all sources must be
+     *         generated again because the previous run can't be reused
+     */
+    public Set<String> getAffectedSources(GenerationManifest previous, File targetDirectory) {
+
+        if (previous == null || !configHash.equals(previous.configHash) || !previous.sources.keySet().containsAll(sources.keySet())
+                || !sources.keySet().containsAll(previous.sources.keySet())) {
+            return null;
+        }
+
+        Set<String> affected = new HashSet<>();
+        for (Map.Entry<String, Source> entry : sources.entrySet()) {
+            Source previousSource = previous.sources.get(entry.getKey());
+            if (!entry.getValue().hash.equals(previousSource.hash) || !outputsExist(previousSource, targetDirectory)) {
+                affected.add(entry.getKey());
+            }
+        }
+
+        boolean changed = !affected.isEmpty();
+        while (changed) {
+            Set<String> affectedDependencies = new HashSet<>();
+            for (String id : affected) {
+                affectedDependencies.addAll(sources.get(id).dependencies);
+                affectedDependencies.addAll(previous.sources.get(id).dependencies);
+            }
+            changed = false;
+            for (Map.Entry<String, Source> entry : sources.entrySet()) {
+                if (!affected.contains(entry.getKey()) && !disjoint(entry.getValue().dependencies, affectedDependencies)) {
+                    affected.add(entry.getKey());
+                    changed = true;
+                }
+            }
+        }
+
+        return affected;
+    }
+
+    /**
+     * @return the ids (URLs, as strings) of every document that was read for
+     *         this manifest: the sources and every document they reference
+     */
+    public Set<String> getDocuments() {
+        return referenceGraph.getDocuments();
+    }
+
+    /**
+     * @return the $ref links between the documents that were read for this
+     *         manifest
+     */
+    public ReferenceGraph getReferenceGraph() {
+        return referenceGraph;
+    }
+
+    /**
+     * Finds the sources whose generated types may change when the given
+     * documents change: the sources that depend on any of them.
+     *
+     * @param changedDocuments
+     *            ids (URLs, as strings) of changed documents
+     * @return the ids of the affected sources, in the order they are processed
+     */
+    public Set<String> getSourcesAffectedBy(Collection<String> changedDocuments) {
+        Set<String> changed = new HashSet<>(changedDocuments);
+        Set<String> affected = new LinkedHashSet<>();
+        for (Map.Entry<String, Source> entry : sources.entrySet()) {
+            if (!disjoint(entry.getValue().dependencies, changed)) {
+                affected.add(entry.getKey());
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * Finds the generated files that may change when the given documents
+     * change: the files recorded for every source that depends on any of
+     * them.
+     *
+     * @param changedDocuments
+     *            ids (URLs, as strings) of changed documents
+     * @return paths of the affected files, relative to the target directory
+     */
+    public Set<String> getOutputsAffectedBy(Collection<String> changedDocuments) {
+        Set<String> outputs = new TreeSet<>();
+        for (String sourceId : getSourcesAffectedBy(changedDocuments)) {
+            outputs.addAll(sources.get(sourceId).outputs);
+        }
+        return outputs;
+    }
+
+    /**
+     * Records the files generated for a source during this run.
+     *
+     * @param sourceId
+     *            the source id (the source URL, as a string)
+     * @param outputs
+     *            paths of the generated files, relative to the target
+     *            directory
+     */
+    public void addOutputs(String sourceId, Collection<String> outputs) {
+        sources.get(sourceId).outputs.addAll(outputs);
+    }
+
+    /**
+     * Copies the outputs recorded by the previous run for every source that
+     * is not generated again.
+     *
+     * @param previous
+     *            the manifest of the previous run
+     * @param affectedSources
+     *            the sources that are generated in this run
+     */
+    public void keepOutputs(GenerationManifest previous, Collection<String> affectedSources) {
+        for (String sourceId : sources.keySet()) {
+            if (!affectedSources.contains(sourceId)) {
+                addOutputs(sourceId, previous.sources.get(sourceId).outputs);
+            }
+        }
+    }
+
+    /**
+     * Forgets all recorded outputs.
+     */
+    public void clearOutputs() {
+        for (Source source : sources.values()) {
+            source.outputs.clear();
+        }
+    }
+
+    /**
+     * Checks whether the files generated for the affected sources could be
+     * different in a run that generates all sources. This happens when a
+     * generated type takes a name that belongs to a source that was not
+     * generated again, or when a type is no longer generated and a source that
+     * was not generated again holds a type whose name was made unique by
+     * adding a suffix to that name.
+     *
+     * @param previous
+     *            the manifest of the previous run
+     * @param affectedSources
+     *            the sources that were generated in this run
+     * @return true if all sources should be generated again
+     */
+    public boolean hasConflictingOutputs(GenerationManifest previous, Collection<String> affectedSources) {
+
+        Set<String> keptOutputs = new HashSet<>();
+        for (Map.Entry<String, Source> entry : sources.entrySet()) {
+            if (!affectedSources.contains(entry.getKey())) {
+                keptOutputs.addAll(entry.getValue().outputs);
+            }
+        }
+
+        for (String sourceId : affectedSources) {
+            if (!disjoint(sources.get(sourceId).outputs, keptOutputs)) {
+                return true;
+            }
+        }
+
+        for (String obsoleteOutput : getObsoleteOutputs(previous, affectedSources)) {
+            String uniqueNamePrefix = Strings.CS.removeEnd(obsoleteOutput, ".java") + "__";
+            for (String keptOutput : keptOutputs) {
+                if (keptOutput.startsWith(uniqueNamePrefix) && isNumeric(Strings.CS.removeEnd(keptOutput.substring(uniqueNamePrefix.length()), ".java"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the files recorded by the previous run for the given sources that
+     * were not generated in this run.
+     *
+     * @param previous
+     *            the manifest of the previous run
+     * @param affectedSources
+     *            the sources that were generated in this run
+     * @return paths (relative to the target directory) of files that are no
+     *         longer generated
+     */
+    public Set<String> getObsoleteOutputs(GenerationManifest previous, Collection<String> affectedSources) {
+
+        Set<String> currentOutputs = new HashSet<>();
+        for (Source source : sources.values()) {
+            currentOutputs.addAll(source.outputs);
+        }
+
+        Set<String> obsolete = new TreeSet<>();
+        for (String sourceId : affectedSources) {
+            for (String output : previous.sources.get(sourceId).outputs) {
+                if (!currentOutputs.contains(output)) {
+                    obsolete.add(output);
+                }
+            }
+        }
+        return obsolete;
+    }
+
+    private static boolean outputsExist(Source source, File targetDirectory) {
+        for (String output : source.outputs) {
+            if (!new File(targetDirectory, output).isFile()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean disjoint(Set<String> a, Set<String> b) {
+        for (String s : a) {
+            if (b.contains(s)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String hashConfig(GenerationConfig config) {
+
+        MessageDigest digest = ReferenceGraph.newDigest();
+
+        // a different build of jsonschema2pojo may generate different code from the same config
+        digest.update((codeSourceToString(GenerationManifest.class) + "\n").getBytes(StandardCharsets.UTF_8));
+
+        // existing and custom java types are resolved from the classpath (e.g. the project dependencies)
+        for (String entry : classpath(Thread.currentThread().getContextClassLoader(), GenerationManifest.class.getClassLoader())) {
+            digest.update(("classpath=" + entry + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        List<Method> methods = new ArrayList<>(Arrays.asList(GenerationConfig.class.getMethods()));
+        methods.sort(Comparator.comparing(Method::getName));
+        for (Method method : methods) {
+            if (method.getParameterCount() == 0 && !IGNORED_CONFIG_OPTIONS.contains(method.getName())) {
+                digest.update((method.getName() + "=" + configValueToString(config, method) + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String configValueToString(GenerationConfig config, Method method) {
+
+        Object value;
+        try {
+            value = method.invoke(config);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new GenerationException("Unable to read configuration option " + method.getName(), e);
+        }
+
+        if (value == null) {
+            return "null";
+        } else if (value.getClass().isArray()) {
+            return ArrayUtils.toString(value);
+        } else if (value instanceof Class) {
+            return ((Class<?>) value).getName() + codeSourceToString((Class<?>) value);
+        } else if (value instanceof Map) {
+            return new TreeMap<>((Map<?, ?>) value).toString();
+        } else if (value instanceof FileFilter) {
+            return value.getClass().getName() + codeSourceToString(value.getClass());
+        } else {
+            return value.toString();
+        }
+    }
+
+    /**
+     * Identifies the build of the given class (such as a custom rule factory
+     * or annotator, that may be built along with the schemas): where it was
+     * loaded from, and when that jar or directory of classes last changed.
+     */
+    private static String codeSourceToString(Class<?> type) {
+        CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+        if (codeSource == null || codeSource.getLocation() == null) {
+            return "";
+        }
+        URL location = codeSource.getLocation();
+        long lastModified = "file".equals(location.getProtocol()) ? lastModified(URLUtil.getFileFromURL(location)) : 0;
+        return "@" + location + "@" + lastModified;
+    }
+
+    /**
+     * Lists the entries of the classpaths of the given class loaders (and of
+     * their parents). A jar is identified by its size and modification time,
+     * a directory only by its path: the project's own classes, compiled from
+     * the generated sources, change with every build.
+     */
+    private static Set<String> classpath(ClassLoader... classLoaders) {
+        Set<URL> urls = new LinkedHashSet<>();
+        for (ClassLoader classLoader : classLoaders) {
+            for (ClassLoader loader = classLoader; loader != null; loader = loader.getParent()) {
+                if (loader instanceof URLClassLoader) {
+                    urls.addAll(Arrays.asList(((URLClassLoader) loader).getURLs()));
+                } else if (loader == ClassLoader.getSystemClassLoader()) {
+                    for (String path : split(System.getProperty("java.class.path", ""), File.pathSeparator)) {
+                        try {
+                            urls.add(new File(path).toURI().toURL());
+                        } catch (MalformedURLException e) {
+                            // not a usable classpath entry
+                        }
+                    }
+                }
+            }
+        }
+
+        Set<String> entries = new LinkedHashSet<>();
+        for (URL url : urls) {
+            File file = "file".equals(url.getProtocol()) ? URLUtil.getFileFromURL(url) : null;
+            entries.add(file != null && file.isFile() ? url + "@" + file.length() + "@" + file.lastModified() : url.toString());
+        }
+        return entries;
+    }
+
+    private static long lastModified(File file) {
+        long lastModified = file.lastModified();
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                lastModified = Math.max(lastModified, lastModified(child));
+            }
+        }
+        return lastModified;
+    }
+
+    private static List<String> toStrings(JsonNode array) {
+        List<String> strings = new ArrayList<>();
+        for (JsonNode element : array) {
+            strings.add(element.asText());
+        }
+        return strings;
+    }
+
+    private static void toArray(ArrayNode array, Collection<String> strings) {
+        for (String s : strings) {
+            array.add(s);
+        }
+    }
+
+    private static class Source {
+
+        private final String hash;
+        private final Set<String> dependencies;
+        private final Set<String> outputs;
+
+        Source(String hash, Set<String> dependencies, Set<String> outputs) {
+            this.hash = hash;
+            this.dependencies = dependencies;
+            this.outputs = outputs;
+        }
+
+    }
+
+}
@@ -0,0 +1,352 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jsonschema2pojo.rules.Rule;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Collects the time spent and memory allocated by each part of a generation
+ * run: phases, sources, rules, helpers and schema store operations.
+ * <p>
+ * Each measured operation records its total time (including any operations
+ * measured while it runs, on the same thread) and its self time (excluding
+ * them), so the self times of a thread add up to the time measured on that
+ * thread. The total time of a recursive operation (like applying the schema
+ * rule) counts nested applications more than once. Allocated bytes are
+ * counted the same way as time, for the thread that did the work, and only
+ * when the JVM supports measuring them.
+ * <p>
+ * Profiling is opt-in: {@link #DISABLED} measures nothing and returns rules
+ * unchanged.
+ */
+public class GenerationProfiler {
+
+    /**
+     * A profiler that measures nothing.
+     */
+    public static final GenerationProfiler DISABLED = new GenerationProfiler(false);
+
+    /**
+     * The kinds of operation that are measured.
+     */
+    public enum Category {
+        PHASE, SOURCE, RULE, HELPER, SCHEMA_STORE;
+
+        String value() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final Measurement NOT_MEASURED = new Measurement(null, null, null, 0, 0);
+
+    private final boolean enabled;
+    private final com.sun.management.ThreadMXBean threadBean;
+    private final Map<Category, Map<String, Stats>> stats = new ConcurrentHashMap<>();
+    private final ThreadLocal<Deque<Measurement>> measurements = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Creates a profiler that measures operations.
+     */
+    public GenerationProfiler() {
+        this(true);
+    }
+
+    private GenerationProfiler(boolean enabled) {
+        this.enabled = enabled;
+        this.threadBean = enabled ? allocationBean() : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts measuring an operation on the current thread. The measurement
+     * must be closed on the same thread, once the operation is complete.
+     *
+     * @param category
+     *            the kind of operation
+     * @param name
+     *            the name that operations of this kind are grouped by
+     * @return the measurement, to be closed when the operation is complete
+     */
+    public Measurement start(Category category, String name) {
+        if (!enabled) {
+            return NOT_MEASURED;
+        }
+        Measurement measurement = new Measurement(this, category, name, System.nanoTime(), allocatedBytes());
+        measurements.get().push(measurement);
+        return measurement;
+    }
+
+    /**
+     * Measures an operation that returns a value, on the current thread.
+     *
+     * @param category
+     *            the kind of operation
+     * @param name
+     *            the name that operations of this kind are grouped by
+     * @param operation
+     *            the operation to run
+     * @return the value returned by the operation
+     * @throws E
+     *             if the operation fails
+     */
+    public <T, E extends Exception> T measure(Category category, String name, Operation<T, E> operation) throws E {
+        Measurement measurement = start(category, name);
+        try {
+            return operation.run();
+        } finally {
+            measurement.close();
+        }
+    }
+
+    /**
+     * Measures an operation that returns nothing, on the current thread.
+     *
+     * @param category
+     *            the kind of operation
+     * @param name
+     *            the name that operations of this kind are grouped by
+     * @param operation
+     *            the operation to run
+     * @throws E
+     *             if the operation fails
+     */
+    public <E extends Exception> void measure(Category category, String name, VoidOperation<E> operation) throws E {
+        Measurement measurement = start(category, name);
+        try {
+            operation.run();
+        } finally {
+            measurement.close();
+        }
+    }
+
+    /**
+     * @return a rule that measures each application of the given rule, or
+     *         the rule itself if this profiler is disabled
+     */
+    public <T, R> Rule<T, R> profile(Rule<T, R> rule) {
+        if (!enabled) {
+            return rule;
+        }
+        String name = rule.getClass().isAnonymousClass() ? rule.getClass().getName() : rule.getClass().getSimpleName();
+        return (nodeName, node, parent, generatableType, currentSchema) -> {
+            return measure(Category.RULE, name, () -> rule.apply(nodeName, node, parent, generatableType, currentSchema));
+        };
+    }
+
+    /**
+     * Writes everything that has been measured as JSON: for each category,
+     * a list of the operations (sorted by self time, longest first), each
+     * with its count, total and self time in nanoseconds, and total and self
+     * allocated bytes (when they could be measured).
+     *
+     * @param file
+     *            the file to write
+     * @throws IOException
+     *             if the file can't be written
+     */
+    public void writeReport(File file) throws IOException {
+        ObjectNode report = OBJECT_MAPPER.createObjectNode();
+        report.put("allocationMeasured", threadBean != null);
+        for (Category category : Category.values()) {
+            ArrayNode entries = report.putArray(category.value());
+            for (Map.Entry<String, Stats> entry : sorted(category)) {
+                entries.add(entry.getValue().toJson(entry.getKey(), threadBean != null));
+            }
+        }
+        if (file.getAbsoluteFile().getParentFile() != null) {
+            file.getAbsoluteFile().getParentFile().mkdirs();
+        }
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(file, report);
+    }
+
+    /**
+     * Logs the operations that took longest, by self time, in each category.
+     *
+     * @param logger
+     *            the logger to write the summary to
+     * @param limit
+     *            the number of operations to log for each category
+     */
+    public void logSummary(RuleLogger logger, int limit) {
+        for (Category category : Category.values()) {
+            List<Map.Entry<String, Stats>> entries = sorted(category);
+            if (entries.isEmpty()) {
+                continue;
+            }
+            StringBuilder summary = new StringBuilder("Slowest " + category.value().replace('_', ' ') + " operations (self time):");
+            for (Map.Entry<String, Stats> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+                Stats stats = entry.getValue();
+                summary.append(String.format(Locale.ROOT, "%n  %9.1f ms self, %9.1f ms total, %8d calls", stats.selfNanos / 1e6, stats.totalNanos / 1e6, stats.count));
+                if (threadBean != null) {
+                    summary.append(String.format(Locale.ROOT, ", %9.1f MB allocated", stats.selfBytes / (1024.0 * 1024.0)));
+                }
+                summary.append("  ").append(entry.getKey());
+            }
+            logger.info(summary.toString());
+        }
+    }
+
+    private List<Map.Entry<String, Stats>> sorted(Category category) {
+        List<Map.Entry<String, Stats>> entries = new ArrayList<>(stats.getOrDefault(category, Map.of()).entrySet());
+        entries.sort(Comparator.comparing((Map.Entry<String, Stats> e) -> e.getValue().selfNanos).reversed().thenComparing(Map.Entry::getKey));
+        return entries;
+    }
+
+    private void stop(Measurement measurement) {
+        long nanos = System.nanoTime() - measurement.startNanos;
+        long bytes = allocatedBytes() - measurement.startBytes;
+
+        Deque<Measurement> stack = measurements.get();
+        if (stack.peek() != measurement) {
+            throw new IllegalStateException("Measurements must be closed in the reverse order they were started: " + measurement.name);
+        }
+        stack.pop();
+        Measurement parent = stack.peek();
+        if (parent != null) {
+            parent.childNanos += nanos;
+            parent.childBytes += bytes;
+        }
+
+        stats.computeIfAbsent(measurement.category, c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(measurement.name, n -> new Stats())
+                .add(nanos, nanos - measurement.childNanos, bytes, bytes - measurement.childBytes);
+    }
+
+    private long allocatedBytes() {
+        return threadBean != null ? threadBean.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+                if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                    return bean;
+                }
+            }
+        } catch (LinkageError e) {
+            // the jdk.management module isn't available, allocation isn't measured
+        }
+        return null;
+    }
+
+    /**
+     * An operation to measure, that returns a value.
+     */
+    @FunctionalInterface
+    public interface Operation<T, E extends Exception> {
+
+        T run() throws E;
+
+    }
+
+    /**
+     * An operation to measure, that returns nothing.
+     */
+    @FunctionalInterface
+    public interface VoidOperation<E extends Exception> {
+
+        void run() throws E;
+
+    }
+
+    /**
+     * An operation that is being measured.
+     */
+    public static final class Measurement implements AutoCloseable {
+
+        private final GenerationProfiler profiler;
+        private final Category category;
+        private final String name;
+        private final long startNanos;
+        private final long startBytes;
+        private long childNanos;
+        private long childBytes;
+
+        private Measurement(GenerationProfiler profiler, Category category, String name, long startNanos, long startBytes) {
+            this.profiler = profiler;
+            this.category = category;
+            this.name = name;
+            this.startNanos = startNanos;
+            this.startBytes = startBytes;
+        }
+
+        /**
+         * Stops measuring the operation.
+         */
+        @Override
+        public void close() {
+            if (profiler != null) {
+                profiler.stop(this);
+            }
+        }
+
+    }
+
+    private static final class Stats {
+
+        private long count;
+        private long totalNanos;
+        private long selfNanos;
+        private long totalBytes;
+        private long selfBytes;
+
+        synchronized void add(long totalNanos, long selfNanos, long totalBytes, long selfBytes) {
+            this.count++;
+            this.totalNanos += totalNanos;
+            this.selfNanos += selfNanos;
+            this.totalBytes += totalBytes;
+            this.selfBytes += selfBytes;
+        }
+
+        synchronized ObjectNode toJson(String name, boolean allocationMeasured) {
+            ObjectNode json = OBJECT_MAPPER.createObjectNode();
+            json.put("name", name);
+            json.put("count", count);
+            json.put("totalNanos", totalNanos);
+            json.put("selfNanos", selfNanos);
+            if (allocationMeasured) {
+                json.put("totalAllocatedBytes", totalBytes);
+                json.put("selfAllocatedBytes", selfBytes);
+            }
+            return json;
+        }
+
+    }
+
+}
@@ -0,0 +1,282 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.jsonschema2pojo.exception.GenerationException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * A record of the files generated by one shard of a sharded generation run
+ * (see {@link GenerationConfig#getShardCount()}), kept in the target
+ * directory of the shard so that the shards can be merged.
+ * <p>
+ * Sources are divided into shards by the groups of sources that are
+ * connected by $ref, and each group is generated on its own. The names of the
+ * types generated for a group can only depend on another group if both
+ * groups generate a type with the same name (which a single run would make
+ * unique, depending on the order of the sources), so every group must
+ * generate different files. When they do, the merged output is identical to
+ * the output of a single run.
+ */
+public class GenerationShard {
+
+    /**
+     * The name of the shard record written to the target directory of each
+     * shard.
+     */
+    public static final String FILE_NAME = ".jsonschema2pojo-shard.json";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final int index;
+    private final int count;
+    private final Map<String, String> outputs;
+
+    /**
+     * Creates an empty record for a shard.
+     *
+     * @param index
+     *            the (zero-based) index of the shard
+     * @param count
+     *            the number of shards
+     */
+    public GenerationShard(int index, int count) {
+        this(index, count, new TreeMap<>());
+    }
+
+    private GenerationShard(int index, int count, Map<String, String> outputs) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard " + index + " of " + count + ", the shard index must be at least 0 and less than the shard count");
+        }
+        this.index = index;
+        this.count = count;
+        this.outputs = outputs;
+    }
+
+    /**
+     * Divides groups of sources into shards, so that each shard holds about
+     * the same number of sources. The largest groups are placed first, each
+     * one in the shard that holds the fewest sources so far (or the first such
+     * shard), so every shard reaches the same division given the same groups.
+     *
+     * @param groupSizes
+     *            the number of sources in each group
+     * @param count
+     *            the number of shards
+     * @return the index of the shard for each group
+     */
+    public static int[] assign(int[] groupSizes, int count) {
+
+        List<Integer> groups = new ArrayList<>();
+        for (int i = 0; i < groupSizes.length; i++) {
+            groups.add(i);
+        }
+        groups.sort(Comparator.comparingInt((Integer group) -> groupSizes[group]).reversed());
+
+        int[] shardSizes = new int[count];
+        int[] shards = new int[groupSizes.length];
+        for (int group : groups) {
+            int shard = 0;
+            for (int i = 1; i < count; i++) {
+                if (shardSizes[i] < shardSizes[shard]) {
+                    shard = i;
+                }
+            }
+            shards[group] = shard;
+            shardSizes[shard] += groupSizes[group];
+        }
+        return shards;
+    }
+
+    /**
+     * @return the (zero-based) index of this shard
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the number of shards
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return the paths of the files generated by this shard, relative to its
+     *         target directory, and the source that each file was generated
+     *         for
+     */
+    public Map<String, String> getOutputs() {
+        return outputs;
+    }
+
+    /**
+     * Records the files generated for a group of sources.
+     *
+     * @param sourceId
+     *            the id (URL, as a string) of the first source of the group
+     * @param groupOutputs
+     *            paths of the generated files, relative to the target
+     *            directory
+     * @throws GenerationException
+     *             if another group of this shard generated one of the files
+     */
+    public void addOutputs(String sourceId, Collection<String> groupOutputs) {
+        for (String output : groupOutputs) {
+            String previous = outputs.putIfAbsent(output, sourceId);
+            if (previous != null) {
+                throw clash(output, previous, sourceId);
+            }
+        }
+    }
+
+    /**
+     * Reads the shard record left in the given directory.
+     *
+     * @param targetDirectory
+     *            the target directory of the shard
+     * @return the shard record
+     * @throws GenerationException
+     *             if the directory holds no (readable) shard record
+     */
+    public static GenerationShard read(File targetDirectory) {
+
+        File file = new File(targetDirectory, FILE_NAME);
+        if (!file.isFile()) {
+            throw new GenerationException("No shard was generated in " + targetDirectory.getAbsolutePath());
+        }
+
+        try {
+            JsonNode root = OBJECT_MAPPER.readTree(file);
+
+            Map<String, String> outputs = new TreeMap<>();
+            for (Map.Entry<String, JsonNode> field : root.path("outputs").properties()) {
+                outputs.put(field.getKey(), field.getValue().asText());
+            }
+
+            return new GenerationShard(root.path("index").asInt(), root.path("count").asInt(), outputs);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new GenerationException("Could not read the shard generated in " + targetDirectory.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Writes this shard record to the given directory.
+     *
+     * @param targetDirectory
+     *            the target directory of the shard
+     * @throws IOException
+     *             if the record can't be written
+     */
+    public void write(File targetDirectory) throws IOException {
+
+        ObjectNode root = OBJECT_MAPPER.createObjectNode();
+        root.put("index", index);
+        root.put("count", count);
+
+        ObjectNode outputsNode = root.putObject("outputs");
+        for (Map.Entry<String, String> entry : outputs.entrySet()) {
+            outputsNode.put(entry.getKey(), entry.getValue());
+        }
+
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(new File(targetDirectory, FILE_NAME), root);
+    }
+
+    /**
+     * Copies the files generated by every shard into a single directory.
+     * Every shard of the run must be given exactly once, and no two shards
+     * may have generated the same file.
+     *
+     * @param shardDirectories
+     *            the target directories of the shards
+     * @param targetDirectory
+     *            the directory to copy the generated files into
+     * @throws GenerationException
+     *             if a shard is missing or given twice, or if two shards
+     *             generated the same file
+     * @throws IOException
+     *             if a file can't be copied
+     */
+    public static void merge(List<File> shardDirectories, File targetDirectory) throws IOException {
+
+        GenerationShard[] shards = null;
+        File[] directories = null;
+        for (File shardDirectory : shardDirectories) {
+            GenerationShard shard = read(shardDirectory);
+            if (shards == null) {
+                shards = new GenerationShard[shard.count];
+                directories = new File[shard.count];
+            } else if (shard.count != shards.length) {
+                throw new GenerationException("The shard in " + shardDirectory.getAbsolutePath() + " is one of " + shard.count + " shards, but other shards are one of " + shards.length);
+            }
+            if (shards[shard.index] != null) {
+                throw new GenerationException("Shard " + shard.index + " was given twice, in " + directories[shard.index].getAbsolutePath() + " and " + shardDirectory.getAbsolutePath());
+            }
+            shards[shard.index] = shard;
+            directories[shard.index] = shardDirectory;
+        }
+
+        if (shards == null) {
+            throw new GenerationException("No shards were given to merge");
+        }
+
+        Map<String, String> outputs = new TreeMap<>();
+        for (int i = 0; i < shards.length; i++) {
+            if (shards[i] == null) {
+                throw new GenerationException("Shard " + i + " of " + shards.length + " is missing");
+            }
+            for (Map.Entry<String, String> output : shards[i].outputs.entrySet()) {
+                String previous = outputs.putIfAbsent(output.getKey(), output.getValue());
+                if (previous != null) {
+                    throw clash(output.getKey(), previous, output.getValue());
+                }
+            }
+        }
+
+        for (int i = 0; i < shards.length; i++) {
+            for (String output : shards[i].outputs.keySet()) {
+                File target = new File(targetDirectory, output);
+                if (!target.getParentFile().isDirectory() && !target.getParentFile().mkdirs()) {
+                    throw new GenerationException("Could not create or access target directory " + target.getParentFile().getAbsolutePath());
+                }
+                Files.copy(new File(directories[i], output).toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    private static GenerationException clash(String output, String sourceId, String otherSourceId) {
+        String className = output.replaceAll("\\.java$", "").replace('/', '.');
+        return new GenerationException("The type " + className + " is generated for both " + sourceId + " and " + otherSourceId
+                + ", which are not connected by $ref, so they can't be generated in separate groups. Give the types different names to generate these sources in shards");
+    }
+
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import com.sun.codemodel.JPackage;
+
+/**
+ * A writer that keeps the generated files in memory, encoded in the given
+ * character encoding, rather than writing them to the target directory.
+ */
+public class InMemoryCodeWriter extends FileCodeWriterWithEncoding {
+
+    private final SortedMap<String, byte[]> files = Collections.synchronizedSortedMap(new TreeMap<>());
+
+    /**
+     * @param target
+     *            the target directory (which must exist, but is not written
+     *            to)
+     * @param encoding
+     *            the character encoding of the generated files
+     * @throws IOException
+     *             if the target directory isn't a writable directory
+     */
+    public InMemoryCodeWriter(File target, String encoding) throws IOException {
+        super(target, encoding);
+    }
+
+    /**
+     * @param encoding
+     *            the character encoding of the generated files
+     * @throws IOException
+     *             if the temporary directory isn't a writable directory
+     */
+    public InMemoryCodeWriter(String encoding) throws IOException {
+        // the writer requires an existing directory, though nothing is written to it
+        this(new File(System.getProperty("java.io.tmpdir")), encoding);
+    }
+
+    @Override
+    public OutputStream openBinary(JPackage pkg, String fileName) throws IOException {
+        final String path = pkg.isUnnamed() ? fileName : pkg.name().replace('.', '/') + "/" + fileName;
+
+        return new ByteArrayOutputStream() {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    files.put(path, toByteArray());
+                }
+            }
+        };
+    }
+
+    /**
+     * @return the content of every file that has been written, by path
+     *         (relative to the target directory, separated by '/')
+     */
+    public SortedMap<String, byte[]> getFiles() {
+        return Collections.unmodifiableSortedMap(files);
+    }
+
+}
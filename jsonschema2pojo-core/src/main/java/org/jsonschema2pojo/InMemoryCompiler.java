@@ -0,0 +1,257 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.DiagnosticListener;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jsonschema2pojo.exception.GenerationException;
+
+/**
+ * Compiles generated sources to class files in memory, using the system Java
+ * compiler (see {@link ToolProvider#getSystemJavaCompiler()}), so that
+ * neither the sources nor the class files need to be written to disk first.
+ * <p>
+ * Sources are compiled against the class path of this process, and of the
+ * context class loader (for example, the dependencies of the project being
+ * built by a build plugin), for the release given by
+ * {@link GenerationConfig#getTargetVersion()}. A release that is older than
+ * the compiler supports (such as <code>1.6</code>, the default target version
+ * of the command line interface) is raised to the oldest release it does
+ * support.
+ */
+public class InMemoryCompiler {
+
+    private final GenerationConfig config;
+    private final RuleLogger logger;
+
+    public InMemoryCompiler(GenerationConfig config) {
+        this(config, new NoopRuleLogger());
+    }
+
+    public InMemoryCompiler(GenerationConfig config, RuleLogger logger) {
+        this.config = config;
+        this.logger = logger;
+    }
+
+    /**
+     * Compiles the given sources.
+     *
+     * @param sources
+     *            the content of each source file, by path (separated by '/'),
+     *            encoded in the output encoding of the generation config
+     * @return the content of each class file, by path (separated by '/')
+     * @throws GenerationException
+     *             if no compiler is available, or the sources can't be
+     *             compiled
+     * @throws IOException
+     *             if the class path can't be read
+     */
+    public SortedMap<String, byte[]> compile(Map<String, byte[]> sources) throws IOException {
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new GenerationException("No Java compiler is available to compile the generated types, a JDK (rather than a JRE) is required");
+        }
+
+        Charset encoding = Charset.forName(config.getOutputEncoding());
+        List<JavaFileObject> compilationUnits = new ArrayList<>();
+        for (Map.Entry<String, byte[]> source : sources.entrySet()) {
+            compilationUnits.add(new SourceFileObject(source.getKey(), new String(source.getValue(), encoding)));
+        }
+
+        List<String> options = new ArrayList<>();
+        options.add("-proc:none");
+        options.add("-classpath");
+        options.add(String.join(File.pathSeparator, getClassPath()));
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        SortedMap<String, byte[]> classes = Collections.synchronizedSortedMap(new TreeMap<>());
+        try (StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, encoding);
+                JavaFileManager fileManager = new ClassFileManager(standardFileManager, classes)) {
+
+            if (!getTask(compiler, fileManager, diagnostics, options, compilationUnits).call()) {
+                StringBuilder message = new StringBuilder("Failed to compile the generated types:");
+                for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                    if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                        message.append(System.lineSeparator())
+                                .append(diagnostic.getSource() != null ? diagnostic.getSource().getName() + ":" + diagnostic.getLineNumber() + ": " : "")
+                                .append(diagnostic.getMessage(Locale.ROOT));
+                    }
+                }
+                throw new GenerationException(message.toString());
+            }
+        }
+
+        return classes;
+    }
+
+    private CompilationTask getTask(JavaCompiler compiler, JavaFileManager fileManager, DiagnosticListener<JavaFileObject> diagnostics, List<String> options,
+            List<JavaFileObject> compilationUnits) {
+
+        String release = getRelease();
+        if (release == null || !StringUtils.isNumeric(release)) {
+            try {
+                return compiler.getTask(null, fileManager, diagnostics, withRelease(options, release), null, compilationUnits);
+            } catch (IllegalArgumentException e) {
+                throw new GenerationException("Unable to compile the generated types: " + e.getMessage(), e);
+            }
+        }
+
+        // the compiler rejects releases that are too old (or too new) with an IllegalArgumentException
+        int requested = Integer.parseInt(release);
+        IllegalArgumentException failure = null;
+        for (int supported = requested; supported == requested || supported <= Runtime.version().feature(); supported++) {
+            try {
+                CompilationTask task = compiler.getTask(null, fileManager, diagnostics, withRelease(options, String.valueOf(supported)), null, compilationUnits);
+                if (supported != requested) {
+                    logger.warn("The Java compiler doesn't support release " + requested + ", compiling the generated types for release " + supported);
+                }
+                return task;
+            } catch (IllegalArgumentException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        throw new GenerationException("Unable to compile the generated types for release " + requested + ": " + failure.getMessage(), failure);
+    }
+
+    private static List<String> withRelease(List<String> options, String release) {
+        List<String> withRelease = new ArrayList<>(options);
+        if (release != null) {
+            withRelease.add("--release");
+            withRelease.add(release);
+        }
+        return withRelease;
+    }
+
+    /**
+     * Finds the release to compile for, given a target version such as
+     * <code>1.8</code> or <code>17</code>.
+     */
+    private String getRelease() {
+        String version = config.getTargetVersion();
+        if (version == null || version.isEmpty()) {
+            return null;
+        }
+        return version.startsWith("1.") ? version.substring(2) : version;
+    }
+
+    private static Set<String> getClassPath() {
+        Set<String> classPath = new LinkedHashSet<>();
+        for (ClassLoader loader = Thread.currentThread().getContextClassLoader(); loader != null; loader = loader.getParent()) {
+            if (loader instanceof URLClassLoader) {
+                for (URL url : ((URLClassLoader) loader).getURLs()) {
+                    if ("file".equals(url.getProtocol())) {
+                        try {
+                            classPath.add(new File(url.toURI()).getPath());
+                        } catch (URISyntaxException | IllegalArgumentException e) {
+                            // not a usable class path entry
+                        }
+                    }
+                }
+            }
+        }
+        String javaClassPath = System.getProperty("java.class.path");
+        if (javaClassPath != null && !javaClassPath.isEmpty()) {
+            Collections.addAll(classPath, javaClassPath.split(File.pathSeparator));
+        }
+        return classPath;
+    }
+
+    /**
+     * A source file held in memory.
+     */
+    private static final class SourceFileObject extends SimpleJavaFileObject {
+
+        private final String content;
+
+        SourceFileObject(String path, String content) {
+            super(URI.create("string:///" + path), Kind.SOURCE);
+            this.content = content;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return content;
+        }
+
+    }
+
+    /**
+     * A file manager that keeps every class file written by the compiler in
+     * memory, and reads everything else from the standard locations.
+     */
+    private static final class ClassFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+        private final Map<String, byte[]> classes;
+
+        ClassFileManager(StandardJavaFileManager fileManager, Map<String, byte[]> classes) {
+            super(fileManager);
+            this.classes = classes;
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+            final String path = className.replace('.', '/') + kind.extension;
+            return new SimpleJavaFileObject(URI.create("mem:///" + path), kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    return new ByteArrayOutputStream() {
+                        @Override
+                        public void close() {
+                            classes.put(path, toByteArray());
+                        }
+                    };
+                }
+            };
+        }
+
+    }
+
+}
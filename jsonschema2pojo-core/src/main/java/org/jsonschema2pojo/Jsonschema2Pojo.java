@@ -18,29 +18,63 @@ package org.jsonschema2pojo;
 
 import static org.apache.commons.lang3.StringUtils.*;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.Strings;
+import org.jsonschema2pojo.GenerationProfiler.Category;
 import org.jsonschema2pojo.exception.GenerationException;
 import org.jsonschema2pojo.rules.RuleFactory;
 import org.jsonschema2pojo.util.NameHelper;
 import org.jsonschema2pojo.util.URLUtil;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
-import com.sun.codemodel.CodeWriter;
+import com.sun.codemodel.JClassAlreadyExistsException;
 import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JPackage;
 
 public class Jsonschema2Pojo {
+
+    // the number of operations of each kind listed in the logged profile summary
+    private static final int PROFILE_SUMMARY_LIMIT = 10;
+
+    // the modification time of every entry in a jar of compiled types (the earliest time a zip entry can hold)
+    private static final LocalDateTime JAR_ENTRY_TIME = LocalDateTime.of(1980, 1, 1, 0, 0);
+
     /**
      * Reads the contents of the given source and initiates schema generation.
      *
@@ -56,6 +90,449 @@ public class Jsonschema2Pojo {
      *             if the application is unable to read data from the source
      */
     public static void generate(GenerationConfig config, RuleLogger logger) throws IOException {
+        GenerationProfiler profiler = config.getProfileReport() != null ? new GenerationProfiler() : GenerationProfiler.DISABLED;
+
+        generate(config, logger, profiler);
+
+        if (profiler.isEnabled()) {
+            profiler.writeReport(config.getProfileReport());
+            profiler.logSummary(logger, PROFILE_SUMMARY_LIMIT);
+        }
+    }
+
+    private static void generate(GenerationConfig config, RuleLogger logger, GenerationProfiler profiler) throws IOException {
+        List<SourceFile> sourceFiles = new ArrayList<>();
+        for (Iterator<URL> sources = config.getSource(); sources.hasNext();) {
+            URL source = sources.next();
+
+            if (URLUtil.parseProtocol(source.toString()) == URLProtocol.FILE && URLUtil.getFileFromURL(source).isDirectory()) {
+                collectRecursive(config, defaultString(config.getTargetPackage()), Arrays.asList(URLUtil.getFileFromURL(source).listFiles(config.getFileFilter())), sourceFiles);
+            } else {
+                sourceFiles.add(new SourceFile(source, getNodeName(source, config), defaultString(config.getTargetPackage()), false));
+            }
+        }
+
+        if (config.getOutputFormat() != OutputFormat.SOURCES && (config.isStreamingGeneration() || config.getShardCount() > 1)) {
+            throw new IllegalArgumentException("Types can only be generated in groups or shards when they are written as sources, not as " + config.getOutputFormat());
+        }
+
+        if (config.getShardCount() > 1) {
+            generateShard(config, logger, profiler, sourceFiles);
+            return;
+        }
+
+        if (!config.isIncrementalGeneration() || config.getOutputFormat() != OutputFormat.SOURCES) {
+            // compiled types can't be written for some sources only
+            generate(config, logger, profiler, sourceFiles, null);
+            return;
+        }
+
+        List<URL> sourceUrls = new ArrayList<>();
+        for (SourceFile sourceFile : sourceFiles) {
+            sourceUrls.add(sourceFile.getUrl());
+        }
+
+        GenerationManifest previousManifest = GenerationManifest.read(config.getTargetDirectory());
+        GenerationManifest manifest = profiler.measure(Category.PHASE, "manifest",
+                () -> GenerationManifest.create(config, createContentResolver(config), sourceUrls, previousManifest));
+        Set<String> affectedSources = manifest.getAffectedSources(previousManifest, config.getTargetDirectory());
+
+        if (affectedSources == null) {
+            generate(config, logger, profiler, sourceFiles, manifest);
+        } else if (affectedSources.isEmpty()) {
+            logger.info("All sources are up to date, skipping generation");
+            return;
+        } else {
+            List<SourceFile> affectedSourceFiles = new ArrayList<>();
+            for (SourceFile sourceFile : sourceFiles) {
+                if (affectedSources.contains(sourceFile.getUrl().toString())) {
+                    affectedSourceFiles.add(sourceFile);
+                }
+            }
+
+            logger.info("Generating " + affectedSourceFiles.size() + " of " + sourceFiles.size() + " sources, the rest are up to date");
+            manifest.keepOutputs(previousManifest, affectedSources);
+
+            JCodeModel codeModel = generateTypes(config, logger, profiler, affectedSourceFiles, manifest);
+            if (manifest.hasConflictingOutputs(previousManifest, affectedSources)) {
+                // unique class names depend on the order in which types are created, so a full run would name
+                // the types differently
+                logger.info("Generated types clash with types from sources that are up to date, generating all sources");
+                manifest.clearOutputs();
+                generate(config, logger, profiler, sourceFiles, manifest);
+            } else {
+                writeTypes(config, logger, profiler, Collections.singletonList(codeModel), false);
+                for (String obsoleteOutput : manifest.getObsoleteOutputs(previousManifest, affectedSources)) {
+                    delete(new File(config.getTargetDirectory(), obsoleteOutput));
+                }
+            }
+        }
+
+        manifest.write(config.getTargetDirectory());
+    }
+
+    private static void generate(GenerationConfig config, RuleLogger logger, GenerationProfiler profiler, List<SourceFile> sourceFiles, GenerationManifest manifest) throws IOException {
+        if (config.isRemoveOldOutput() && !config.isWriteOnlyChangedFiles()) {
+            removeOldOutput(config.getTargetDirectory());
+        }
+
+        if (config.isStreamingGeneration()) {
+            generateByComponent(config, logger, profiler, sourceFiles, manifest);
+        } else if (config.getParallelism() > 1) {
+            writeTypes(config, logger, profiler, generateTypesInParallel(config, logger, profiler, sourceFiles, manifest), config.isRemoveOldOutput());
+        } else {
+            writeTypes(config, logger, profiler, Collections.singletonList(generateTypes(config, logger, profiler, sourceFiles, manifest)), config.isRemoveOldOutput());
+        }
+    }
+
+    /**
+     * Generates types for groups of sources that are connected by $ref (see
+     * {@link ReferenceGraph#getComponents(List)}) on a pool of
+     * {@link GenerationConfig#getParallelism()} threads. The groups are divided
+     * between the threads, and each thread generates the sources of its groups,
+     * in source order, into a code model of its own (with a schema mapper, and
+     * so a schema store and name helper, of its own).
+     * <p>
+     * Unique class names depend on the order in which types are created, so
+     * if a class name is generated by more than one thread (where a single
+     * code model would have made one of them unique), all sources are
+     * generated again sequentially. Otherwise each code model is given a
+     * hidden class for every class that other threads generated in the same
+     * package, so that imports are chosen as they would be for a single code
+     * model.
+     *
+     * @return the code models to write
+     */
+    private static List<JCodeModel> generateTypesInParallel(GenerationConfig config, RuleLogger logger, GenerationProfiler profiler, List<SourceFile> sourceFiles, GenerationManifest manifest) throws IOException {
+        List<List<SourceFile>> partitions = getPartitions(config, profiler, sourceFiles, manifest);
+        if (partitions.size() < 2) {
+            return Collections.singletonList(generateTypes(config, logger, profiler, sourceFiles, manifest));
+        }
+
+        logger.debug("Generating " + sourceFiles.size() + " sources on " + partitions.size() + " threads");
+        List<JCodeModel> codeModels = generatePartitions(config, logger, profiler, partitions, manifest);
+
+        if (!reserveClassNames(codeModels)) {
+            logger.info("Types generated on different threads have the same name, generating all sources sequentially");
+            if (manifest != null) {
+                manifest.clearOutputs();
+            }
+            return Collections.singletonList(generateTypes(config, logger, profiler, sourceFiles, manifest));
+        }
+        return codeModels;
+    }
+
+    /**
+     * Divides the sources between at most {@link GenerationConfig#getParallelism()}
+     * partitions, keeping each group of sources connected by $ref in the same
+     * partition (see {@link GenerationShard#assign(int[], int)}). Sources keep
+     * their order within each partition, and the schema cache of a partition
+     * is cleared before a source if it would have been cleared since the
+     * previous source of the partition.
+     */
+    private static List<List<SourceFile>> getPartitions(GenerationConfig config, GenerationProfiler profiler, List<SourceFile> sourceFiles, GenerationManifest manifest) {
+        List<List<SourceFile>> components = getComponents(config, profiler, sourceFiles, manifest);
+        int count = Math.min(config.getParallelism(), components.size());
+
+        int[] componentSizes = new int[components.size()];
+        for (int i = 0; i < components.size(); i++) {
+            componentSizes[i] = components.get(i).size();
+        }
+        int[] partitionOfComponent = GenerationShard.assign(componentSizes, count);
+
+        Map<SourceFile, Integer> partitionOfSource = new IdentityHashMap<>();
+        for (int i = 0; i < components.size(); i++) {
+            for (SourceFile sourceFile : components.get(i)) {
+                partitionOfSource.put(sourceFile, partitionOfComponent[i]);
+            }
+        }
+
+        List<List<SourceFile>> partitions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        boolean[] clearCache = new boolean[count];
+        for (SourceFile sourceFile : sourceFiles) {
+            if (sourceFile.isClearCache()) {
+                Arrays.fill(clearCache, true);
+            }
+            int partition = partitionOfSource.get(sourceFile);
+            partitions.get(partition).add(new SourceFile(sourceFile.getUrl(), sourceFile.getNodeName(), sourceFile.getPackageName(), clearCache[partition]));
+            clearCache[partition] = false;
+        }
+        return partitions;
+    }
+
+    private static List<JCodeModel> generatePartitions(GenerationConfig config, RuleLogger logger, GenerationProfiler profiler, List<List<SourceFile>> partitions, GenerationManifest manifest) throws IOException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(partitions.size());
+
+        try {
+            List<Future<JCodeModel>> futures = new ArrayList<>();
+            for (List<SourceFile> partition : partitions) {
+                futures.add(executor.submit(() -> generateTypes(createSchemaMapper(config, logger, profiler), profiler, partition, null, manifest, new JCodeModel())));
+            }
+
+            List<JCodeModel> codeModels = new ArrayList<>();
+            for (Future<JCodeModel> future : futures) {
+                codeModels.add(future.get());
+            }
+            return codeModels;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while generating types");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new GenerationException("Failed to generate types", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Adds a hidden class to each code model for every class that the other
+     * code models have in the same package, unless two code models have a
+     * class with the same name (compared ignoring case, as codemodel does on
+     * case-insensitive file systems).
+     *
+     * @return <code>true</code> if the names were reserved, or
+     *         <code>false</code> if code models have classes with the same name
+     */
+    private static boolean reserveClassNames(List<JCodeModel> codeModels) {
+        Map<String, Integer> codeModelOfClass = new HashMap<>();
+        Map<String, List<String>> classesByPackage = new HashMap<>();
+        for (int i = 0; i < codeModels.size(); i++) {
+            for (Iterator<JPackage> packages = codeModels.get(i).packages(); packages.hasNext();) {
+                JPackage pkg = packages.next();
+                for (Iterator<JDefinedClass> classes = pkg.classes(); classes.hasNext();) {
+                    JDefinedClass definedClass = classes.next();
+                    Integer other = codeModelOfClass.putIfAbsent(definedClass.fullName().toLowerCase(Locale.ROOT), i);
+                    if (other != null) {
+                        return false;
+                    }
+                    classesByPackage.computeIfAbsent(pkg.name(), name -> new ArrayList<>()).add(definedClass.fullName());
+                }
+            }
+        }
+
+        for (JCodeModel codeModel : codeModels) {
+            List<JPackage> packages = new ArrayList<>();
+            codeModel.packages().forEachRemaining(packages::add);
+            for (JPackage pkg : packages) {
+                if (!pkg.classes().hasNext()) {
+                    continue;
+                }
+                for (String className : classesByPackage.get(pkg.name())) {
+                    if (codeModel._getClass(className) == null) {
+                        try {
+                            pkg._class(substringAfterLast(className, ".")).hide();
+                        } catch (JClassAlreadyExistsException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generates and writes types for one group of sources at a time, where
+     * each group holds the sources that are connected by $ref (see
+     * {@link ReferenceGraph#getComponents(List)}). The types and schemas of
+     * each group are released once the group has been written, so only the
+     * largest group needs to be held in memory.
+     * <p>
+     * Class names that were used by earlier groups are reserved, so that
+     * types with the same name are still given unique names. Each group is
+     * generated in source order, but a group is generated entirely before
+     * the next one, so names made unique may differ from a run that
+     * generates every source at once.
+     */
+    private static void generateByComponent(GenerationConfig config, RuleLogger logger, GenerationProfiler profiler, List<SourceFile> sourceFiles, GenerationManifest manifest) throws IOException {
+        List<List<SourceFile>> components = getComponents(config, profiler, sourceFiles, manifest);
+        logger.debug("Generating " + sourceFiles.size() + " sources in " + components.size() + " groups");
+
+        FileCodeWriterWithEncoding writer = createWriter(config);
+        JCodeModel codeModel = new JCodeModel();
+
+        for (List<SourceFile> component : components) {
+            generateTypes(config, logger, profiler, component, manifest, codeModel);
+
+            profiler.measure(Category.PHASE, "write", () -> new ParallelCodeBuilder(config.getParallelism()).build(codeModel, writer));
+
+            releaseWrittenClasses(codeModel);
+        }
+
+        if (config.isWriteOnlyChangedFiles() && config.isRemoveOldOutput()) {
+            removeOldOutput(config.getTargetDirectory(), writer.getGeneratedFiles());
+        }
+    }
+
+    /**
+     * Generates and writes types for the groups of sources (see
+     * {@link ReferenceGraph#getComponents(List)}) that are assigned to the
+     * configured shard, and records the files generated in a
+     * {@link GenerationShard}. Each group is generated on its own, and no two
+     * groups may generate the same file, so that the merged output of every
+     * shard is the same as the output of a single run.
+     */
+    private static void generateShard(GenerationConfig config, RuleLogger logger, GenerationProfiler profiler, List<SourceFile> sourceFiles) throws IOException {
+        GenerationShard shard = new GenerationShard(config.getShardIndex(), config.getShardCount());
+
+        List<List<SourceFile>> components = getComponents(config, profiler, sourceFiles, null);
+        int[] componentSizes = new int[components.size()];
+        for (int i = 0; i < components.size(); i++) {
+            componentSizes[i] = components.get(i).size();
+        }
+        int[] shards = GenerationShard.assign(componentSizes, shard.getCount());
+
+        if (config.isRemoveOldOutput() && !config.isWriteOnlyChangedFiles()) {
+            removeOldOutput(config.getTargetDirectory());
+        }
+
+        FileCodeWriterWithEncoding writer = createWriter(config);
+        int generated = 0;
+        for (int i = 0; i < components.size(); i++) {
+            if (shards[i] != shard.getIndex()) {
+                continue;
+            }
+            List<SourceFile> component = components.get(i);
+            JCodeModel codeModel = generateTypes(config, logger, profiler, component, null);
+            shard.addOutputs(component.get(0).getUrl().toString(), getNewOutputs(codeModel, new HashSet<>()));
+
+            profiler.measure(Category.PHASE, "write", () -> new ParallelCodeBuilder(config.getParallelism()).build(codeModel, writer));
+            generated += component.size();
+        }
+        logger.info("Generated " + generated + " of " + sourceFiles.size() + " sources for shard " + shard.getIndex() + " of " + shard.getCount());
+
+        if (config.isWriteOnlyChangedFiles() && config.isRemoveOldOutput()) {
+            removeOldOutput(config.getTargetDirectory(), writer.getGeneratedFiles());
+        }
+        shard.write(config.getTargetDirectory());
+    }
+
+    /**
+     * Replaces every class that has been written with an empty, hidden class
+     * of the same name, which keeps the name taken without holding on to the
+     * content of the class.
+     */
+    private static void releaseWrittenClasses(JCodeModel codeModel) {
+        for (Iterator<JPackage> packages = codeModel.packages(); packages.hasNext();) {
+            JPackage pkg = packages.next();
+            List<JDefinedClass> writtenClasses = new ArrayList<>();
+            for (Iterator<JDefinedClass> classes = pkg.classes(); classes.hasNext();) {
+                JDefinedClass definedClass = classes.next();
+                if (!definedClass.isHidden()) {
+                    writtenClasses.add(definedClass);
+                }
+            }
+            for (JDefinedClass writtenClass : writtenClasses) {
+                pkg.remove(writtenClass);
+                try {
+                    pkg._class(writtenClass.name()).hide();
+                } catch (JClassAlreadyExistsException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    private static List<List<SourceFile>> getComponents(GenerationConfig config, GenerationProfiler profiler, List<SourceFile> sourceFiles, GenerationManifest manifest) {
+        List<List<SourceFile>> components = new ArrayList<>();
+        if (config.getSourceType() != SourceType.JSONSCHEMA && config.getSourceType() != SourceType.YAMLSCHEMA) {
+            // examples don't reference each other
+            for (SourceFile sourceFile : sourceFiles) {
+                components.add(Collections.singletonList(sourceFile));
+            }
+            return components;
+        }
+
+        Map<String, List<SourceFile>> sourceFilesById = new LinkedHashMap<>();
+        for (SourceFile sourceFile : sourceFiles) {
+            sourceFilesById.computeIfAbsent(sourceFile.getUrl().toString(), id -> new ArrayList<>()).add(sourceFile);
+        }
+
+        ReferenceGraph referenceGraph;
+        if (manifest != null) {
+            referenceGraph = manifest.getReferenceGraph();
+        } else {
+            referenceGraph = profiler.measure(Category.PHASE, "references", () -> {
+                List<URL> sourceUrls = new ArrayList<>();
+                for (SourceFile sourceFile : sourceFiles) {
+                    sourceUrls.add(sourceFile.getUrl());
+                }
+                return ReferenceGraph.build(createContentResolver(config), sourceUrls, true, null);
+            });
+        }
+
+        for (List<String> ids : referenceGraph.getComponents(new ArrayList<>(sourceFilesById.keySet()))) {
+            List<SourceFile> component = new ArrayList<>();
+            for (String id : ids) {
+                component.addAll(sourceFilesById.get(id));
+            }
+            components.add(component);
+        }
+        return components;
+    }
+
+    /**
+     * Generates types for the given sources, in order. If a manifest is given,
+     * the files that will be written for each source are recorded in it.
+     */
+    private static JCodeModel generateTypes(GenerationConfig config, RuleLogger logger, GenerationProfiler profiler, List<SourceFile> sourceFiles, GenerationManifest manifest) throws IOException {
+        return generateTypes(config, logger, profiler, sourceFiles, manifest, new JCodeModel());
+    }
+
+    private static JCodeModel generateTypes(GenerationConfig config, RuleLogger logger, GenerationProfiler profiler, List<SourceFile> sourceFiles, GenerationManifest manifest, JCodeModel codeModel) throws IOException {
+        SchemaMapper mapper = createSchemaMapper(config, logger, profiler);
+
+        List<ObjectNode> schemas = config.getParallelism() > 1 ? profiler.measure(Category.PHASE, "read", () -> readSchemas(config, mapper, sourceFiles)) : null;
+
+        return generateTypes(mapper, profiler, sourceFiles, schemas, manifest, codeModel);
+    }
+
+    /**
+     * Generates types for the given sources, in order, using schemas that
+     * have already been read (if given).
+     */
+    private static JCodeModel generateTypes(SchemaMapper mapper, GenerationProfiler profiler, List<SourceFile> sourceFiles, List<ObjectNode> schemas, GenerationManifest manifest, JCodeModel codeModel) throws IOException {
+        Set<JDefinedClass> recordedClasses = new HashSet<>();
+        for (int i = 0; i < sourceFiles.size(); i++) {
+            SourceFile sourceFile = sourceFiles.get(i);
+            if (sourceFile.isClearCache()) {
+                // any cached schemas will have ids that are fragments, relative to the previous document (and shouldn't be reused)
+                mapper.getRuleFactory().getSchemaStore().clearCache();
+            }
+            ObjectNode schema = schemas != null ? schemas.get(i) : null;
+            profiler.measure(Category.SOURCE, sourceFile.getUrl().toString(), () -> {
+                if (schema != null) {
+                    mapper.generate(codeModel, sourceFile.getNodeName(), sourceFile.getPackageName(), schema);
+                } else {
+                    mapper.generate(codeModel, sourceFile.getNodeName(), sourceFile.getPackageName(), sourceFile.getUrl());
+                }
+            });
+            if (manifest != null) {
+                manifest.addOutputs(sourceFile.getUrl().toString(), getNewOutputs(codeModel, recordedClasses));
+            }
+        }
+
+        return codeModel;
+    }
+
+    /**
+     * Creates a schema mapper that generates types as configured, using the
+     * rule factory, annotators and source type given by the config.
+     */
+    static SchemaMapper createSchemaMapper(GenerationConfig config, RuleLogger logger, GenerationProfiler profiler) {
         Annotator annotator = getAnnotator(config);
         RuleFactory ruleFactory = createRuleFactory(config);
 
@@ -63,39 +540,147 @@ public class Jsonschema2Pojo {
         ruleFactory.setGenerationConfig(config);
         ruleFactory.setLogger(logger);
         ruleFactory.setSchemaStore(new SchemaStore(createContentResolver(config), logger));
+        ruleFactory.setProfiler(profiler);
+        ruleFactory.getSchemaStore().setProfiler(profiler);
 
-        SchemaMapper mapper = new SchemaMapper(ruleFactory, createSchemaGenerator(config));
-
-        JCodeModel codeModel = new JCodeModel();
+        return new SchemaMapper(ruleFactory, createSchemaGenerator(config));
+    }
 
-        if (config.isRemoveOldOutput()) {
-            removeOldOutput(config.getTargetDirectory());
+    /**
+     * Writes the generated types to the target directory. When only changed
+     * files are written, files that were not generated can be removed
+     * afterwards (rather than emptying the target directory beforehand).
+     */
+    private static void writeTypes(GenerationConfig config, RuleLogger logger, GenerationProfiler profiler, List<JCodeModel> codeModels, boolean removeOldOutput) throws IOException {
+        if (config.getOutputFormat() != OutputFormat.SOURCES) {
+            writeCompiledTypes(config, logger, profiler, codeModels, removeOldOutput);
+            return;
         }
 
-        for (Iterator<URL> sources = config.getSource(); sources.hasNext();) {
-            URL source = sources.next();
+        profiler.measure(Category.PHASE, "write", () -> writeTypes(config, codeModels, removeOldOutput));
+    }
 
-            if (URLUtil.parseProtocol(source.toString()) == URLProtocol.FILE && URLUtil.getFileFromURL(source).isDirectory()) {
-                generateRecursive(config, mapper, codeModel, defaultString(config.getTargetPackage()), Arrays.asList(URLUtil.getFileFromURL(source).listFiles(config.getFileFilter())));
+    /**
+     * Compiles the generated types in memory, and writes the class files (or
+     * a jar of them) to the target directory, along with the sources if
+     * {@link GenerationConfig#isWriteSources()} is set.
+     */
+    private static void writeCompiledTypes(GenerationConfig config, RuleLogger logger, GenerationProfiler profiler, List<JCodeModel> codeModels, boolean removeOldOutput) throws IOException {
+        FileCodeWriterWithEncoding writer = createWriter(config);
+
+        InMemoryCodeWriter sourceWriter = new InMemoryCodeWriter(config.getTargetDirectory(), config.getOutputEncoding());
+        profiler.measure(Category.PHASE, "write", () -> {
+            for (JCodeModel codeModel : codeModels) {
+                new ParallelCodeBuilder(config.getParallelism()).build(codeModel, sourceWriter);
+            }
+        });
+
+        // any code model can name the packages the files are written to
+        JCodeModel codeModel = codeModels.get(0);
+
+        SortedMap<String, byte[]> classes = profiler.measure(Category.PHASE, "compile", () -> new InMemoryCompiler(config, logger).compile(sourceWriter.getFiles()));
+
+        profiler.measure(Category.PHASE, "write", () -> {
+            if (config.getOutputFormat() == OutputFormat.JAR) {
+                writer.write(codeModel.rootPackage(), OutputFormat.JAR_FILE_NAME, createJar(classes));
+                if (config.isWriteSources()) {
+                    writer.write(codeModel.rootPackage(), OutputFormat.SOURCES_JAR_FILE_NAME, createJar(sourceWriter.getFiles()));
+                }
             } else {
-                mapper.generate(codeModel, getNodeName(source, config), defaultString(config.getTargetPackage()), source);
+                writeFiles(codeModel, writer, classes);
+                if (config.isWriteSources()) {
+                    writeFiles(codeModel, writer, sourceWriter.getFiles());
+                }
             }
+        });
+
+        if (config.isWriteOnlyChangedFiles() && removeOldOutput) {
+            removeOldOutput(config.getTargetDirectory(), writer.getGeneratedFiles());
         }
+    }
+
+    private static void writeFiles(JCodeModel codeModel, FileCodeWriterWithEncoding writer, Map<String, byte[]> files) throws IOException {
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            int separator = file.getKey().lastIndexOf('/');
+            JPackage pkg = separator == -1 ? codeModel.rootPackage() : codeModel._package(file.getKey().substring(0, separator).replace('/', '.'));
+            writer.write(pkg, file.getKey().substring(separator + 1), file.getValue());
+        }
+    }
 
+    /**
+     * Creates a jar of the given files. Entries are written in order, with a
+     * fixed modification time, so the same files always produce the same
+     * jar.
+     */
+    private static byte[] createJar(Map<String, byte[]> files) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(new Attributes.Name("Created-By"), "jsonschema2pojo");
+
+        ByteArrayOutputStream jar = new ByteArrayOutputStream();
+        try (JarOutputStream out = new JarOutputStream(jar)) {
+            out.putNextEntry(createJarEntry(JarFile.MANIFEST_NAME));
+            manifest.write(out);
+            out.closeEntry();
+
+            for (Map.Entry<String, byte[]> file : files.entrySet()) {
+                out.putNextEntry(createJarEntry(file.getKey()));
+                out.write(file.getValue());
+                out.closeEntry();
+            }
+        }
+        return jar.toByteArray();
+    }
+
+    private static JarEntry createJarEntry(String name) {
+        JarEntry entry = new JarEntry(name);
+        entry.setTimeLocal(JAR_ENTRY_TIME);
+        return entry;
+    }
+
+    private static void writeTypes(GenerationConfig config, List<JCodeModel> codeModels, boolean removeOldOutput) throws IOException {
+        FileCodeWriterWithEncoding writer = createWriter(config);
+        for (JCodeModel codeModel : codeModels) {
+            new ParallelCodeBuilder(config.getParallelism()).build(codeModel, writer);
+        }
+        if (config.isWriteOnlyChangedFiles() && removeOldOutput) {
+            removeOldOutput(config.getTargetDirectory(), writer.getGeneratedFiles());
+        }
+    }
+
+    private static FileCodeWriterWithEncoding createWriter(GenerationConfig config) throws IOException {
         if (config.getTargetDirectory().exists() || config.getTargetDirectory().mkdirs()) {
-            CodeWriter sourcesWriter = new FileCodeWriterWithEncoding(config.getTargetDirectory(), config.getOutputEncoding());
-            CodeWriter resourcesWriter = new FileCodeWriterWithEncoding(config.getTargetDirectory(), config.getOutputEncoding());
-            codeModel.build(sourcesWriter, resourcesWriter);
+            return new FileCodeWriterWithEncoding(config.getTargetDirectory(), config.getOutputEncoding(), config.isWriteOnlyChangedFiles());
         } else {
             throw new GenerationException("Could not create or access target directory " + config.getTargetDirectory().getAbsolutePath());
         }
     }
-    
-    private static ContentResolver createContentResolver(GenerationConfig config) {
+
+    /**
+     * Finds the source files for top-level classes that have been added to the
+     * code model since the last call, as paths relative to the target
+     * directory.
+     */
+    private static List<String> getNewOutputs(JCodeModel codeModel, Set<JDefinedClass> recordedClasses) {
+        List<String> outputs = new ArrayList<>();
+        for (Iterator<JPackage> packages = codeModel.packages(); packages.hasNext();) {
+            JPackage pkg = packages.next();
+            for (Iterator<JDefinedClass> classes = pkg.classes(); classes.hasNext();) {
+                JDefinedClass definedClass = classes.next();
+                if (!definedClass.isHidden() && recordedClasses.add(definedClass)) {
+                    String directory = pkg.isUnnamed() ? "" : pkg.name().replace('.', '/') + "/";
+                    outputs.add(directory + definedClass.name() + ".java");
+                }
+            }
+        }
+        return outputs;
+    }
+
+    static ContentResolver createContentResolver(GenerationConfig config) {
         if (config.getSourceType() == SourceType.YAMLSCHEMA || config.getSourceType() == SourceType.YAML) {
-            return new ContentResolver(new YAMLFactory());
+            return new ContentResolver(new YAMLFactory(), config);
         } else {
-            return new ContentResolver();
+            return new ContentResolver(null, config);
         }
     }
 
@@ -123,23 +708,67 @@ public class Jsonschema2Pojo {
         }
     }
 
-    private static void generateRecursive(GenerationConfig config, SchemaMapper mapper, JCodeModel codeModel, String packageName, List<File> schemaFiles) throws IOException {
+    private static void collectRecursive(GenerationConfig config, String packageName, List<File> schemaFiles, List<SourceFile> sourceFiles) throws IOException {
 
         Collections.sort(schemaFiles, config.getSourceSortOrder().getComparator());
 
         for (File child : schemaFiles) {
             if (child.isFile()) {
-                if (config.getSourceType() == SourceType.JSON || config.getSourceType() == SourceType.YAML) {
-                    // any cached schemas will have ids that are fragments, relative to the previous document (and shouldn't be reused)
-                    mapper.getRuleFactory().getSchemaStore().clearCache();
-                }
-                mapper.generate(codeModel, getNodeName(child.toURI().toURL(), config), defaultString(packageName), child.toURI().toURL());
+                boolean clearCache = config.getSourceType() == SourceType.JSON || config.getSourceType() == SourceType.YAML || config.getSourceType() == SourceType.JSONSAMPLES;
+                sourceFiles.add(new SourceFile(child.toURI().toURL(), getNodeName(child.toURI().toURL(), config), defaultString(packageName), clearCache));
             } else {
-                generateRecursive(config, mapper, codeModel, childQualifiedName(packageName, child.getName()), Arrays.asList(child.listFiles(config.getFileFilter())));
+                collectRecursive(config, childQualifiedName(packageName, child.getName()), Arrays.asList(child.listFiles(config.getFileFilter())), sourceFiles);
             }
         }
     }
 
+    /**
+     * Reads the schema for every source file using a pool of
+     * {@link GenerationConfig#getParallelism()} threads. For schema sources,
+     * the schema store is also populated with each source document and the
+     * documents it references, so that type generation doesn't need to wait
+     * for I/O.
+     */
+    private static List<ObjectNode> readSchemas(GenerationConfig config, SchemaMapper mapper, List<SourceFile> sourceFiles) throws IOException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(config.getParallelism());
+
+        try {
+            List<Future<ObjectNode>> futures = new ArrayList<>();
+            for (SourceFile sourceFile : sourceFiles) {
+                futures.add(executor.submit(() -> mapper.readSchema(sourceFile.getUrl())));
+            }
+
+            if (config.getSourceType() == SourceType.JSONSCHEMA || config.getSourceType() == SourceType.YAMLSCHEMA) {
+                List<URI> ids = new ArrayList<>();
+                for (SourceFile sourceFile : sourceFiles) {
+                    try {
+                        ids.add(sourceFile.getUrl().toURI());
+                    } catch (URISyntaxException e) {
+                        // not preloaded, will be read (and any problem reported) during type generation
+                    }
+                }
+                mapper.getRuleFactory().getSchemaStore().preload(ids, executor);
+            }
+
+            List<ObjectNode> schemas = new ArrayList<>();
+            for (Future<ObjectNode> future : futures) {
+                schemas.add(future.get());
+            }
+            return schemas;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading source files");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new GenerationException("Failed to read source files", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private static String childQualifiedName(String parentQualifiedName, String childSimpleName) {
         String safeChildName = childSimpleName.replaceAll(NameHelper.ILLEGAL_CHARACTER_REGEX, "_");
         return isEmpty(parentQualifiedName) ? safeChildName : parentQualifiedName + "." + safeChildName;
@@ -153,6 +782,24 @@ public class Jsonschema2Pojo {
         }
     }
 
+    /**
+     * Deletes every file in the target directory that isn't one of the given
+     * files, and any directories that are left empty.
+     */
+    @edu.umd.cs.findbugs.annotations.SuppressFBWarnings(value = "RV_RETURN_VALUE_IGNORED_BAD_PRACTICE")
+    private static void removeOldOutput(File directory, Set<File> generatedFiles) {
+        for (File f : directory.listFiles()) {
+            if (f.isDirectory()) {
+                removeOldOutput(f, generatedFiles);
+                if (f.list().length == 0) {
+                    f.delete();
+                }
+            } else if (!generatedFiles.contains(f)) {
+                f.delete();
+            }
+        }
+    }
+
     @edu.umd.cs.findbugs.annotations.SuppressFBWarnings(value = "RV_RETURN_VALUE_IGNORED_BAD_PRACTICE")
     private static void delete(File f) {
         if (f.isDirectory()) {
@@ -196,5 +843,37 @@ public class Jsonschema2Pojo {
         }
         return fileName;
     }
-    
+
+    private static class SourceFile {
+
+        private final URL url;
+        private final String nodeName;
+        private final String packageName;
+        private final boolean clearCache;
+
+        SourceFile(URL url, String nodeName, String packageName, boolean clearCache) {
+            this.url = url;
+            this.nodeName = nodeName;
+            this.packageName = packageName;
+            this.clearCache = clearCache;
+        }
+
+        URL getUrl() {
+            return url;
+        }
+
+        String getNodeName() {
+            return nodeName;
+        }
+
+        String getPackageName() {
+            return packageName;
+        }
+
+        boolean isClearCache() {
+            return clearCache;
+        }
+
+    }
+
 }
@@ -0,0 +1,51 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+/**
+ * The form in which generated types are written to the target directory.
+ */
+public enum OutputFormat {
+
+    /**
+     * Java source files.
+     */
+    SOURCES,
+
+    /**
+     * Class files, compiled in memory from the generated sources.
+     */
+    CLASSES,
+
+    /**
+     * A jar of class files (named {@value #JAR_FILE_NAME}), compiled in memory
+     * from the generated sources.
+     */
+    JAR;
+
+    /**
+     * The name of the jar written to the target directory by {@link #JAR}.
+     */
+    public static final String JAR_FILE_NAME = "jsonschema2pojo.jar";
+
+    /**
+     * The name of the jar of sources written alongside the jar of class files,
+     * when sources are also written.
+     */
+    public static final String SOURCES_JAR_FILE_NAME = "jsonschema2pojo-sources.jar";
+
+}
@@ -0,0 +1,379 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JFieldVar;
+import com.sun.codemodel.JFormatter;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JPackage;
+import com.sun.codemodel.JType;
+import com.sun.codemodel.JTypeVar;
+import com.sun.codemodel.JVar;
+
+/**
+ * Builds a code model like {@link JCodeModel#build(com.sun.codemodel.CodeWriter, com.sun.codemodel.CodeWriter)},
+ * but formats and encodes classes on several threads. Classes are formatted in
+ * batches, and each batch is written, in order and on the calling thread, as
+ * soon as it is ready. Only a few batches are held in memory at once.
+ * <p>
+ * Formatting can lazily add packages and class references to the model (for
+ * example, the package of a class that is only referenced by name). Before
+ * formatting starts, these are created for every class that the model's
+ * declarations refer to, so that formatting only needs to read the model.
+ * Codemodel only ever adds to the model, so before each batch is written its
+ * size is checked. If something was added anyway (by a class that is only
+ * referenced from a method body, say), the remaining batches are discarded and
+ * the whole model is built again, sequentially.
+ * <p>
+ * Codemodel has no public way to format a single class, so this relies on the
+ * reflective access in {@link CodeModelInternals}. The model is built
+ * sequentially if that access isn't available, or if the model has package
+ * annotations, package javadoc or resource files.
+ */
+public class ParallelCodeBuilder {
+
+    private static final int BATCH_SIZE = 32;
+
+    private final int parallelism;
+
+    /**
+     * @param parallelism
+     *            the number of threads used to format classes (a value of 1
+     *            builds the model sequentially)
+     */
+    public ParallelCodeBuilder(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Writes every class in the model as a Java source file.
+     *
+     * @param codeModel
+     *            the model to build
+     * @param writer
+     *            the writer used to encode and write source files
+     * @throws IOException
+     *             if a file can't be written
+     */
+    public void build(JCodeModel codeModel, FileCodeWriterWithEncoding writer) throws IOException {
+
+        List<List<JDefinedClass>> batches = getBatches(codeModel);
+
+        if (parallelism <= 1 || !CodeModelInternals.isAvailable() || !hasOnlyClasses(codeModel, batches)) {
+            codeModel.build(writer, writer);
+            return;
+        }
+
+        createLazyReferences(codeModel);
+
+        if (!writeInParallel(codeModel, batches, writer)) {
+            codeModel.build(writer, writer);
+            return;
+        }
+        writer.close();
+    }
+
+    /**
+     * Checks that the only files the model would write are its classes (and
+     * not package-info files or resources, which are left to codemodel).
+     */
+    private static boolean hasOnlyClasses(JCodeModel codeModel, List<List<JDefinedClass>> batches) {
+        int classes = 0;
+        for (List<JDefinedClass> batch : batches) {
+            classes += batch.size();
+        }
+        return codeModel.countArtifacts() == classes;
+    }
+
+    /**
+     * @return <code>true</code> if every batch was written, or
+     *         <code>false</code> if formatting added to the model or failed (so
+     *         the model must be built sequentially)
+     */
+    private boolean writeInParallel(JCodeModel codeModel, List<List<JDefinedClass>> batches, FileCodeWriterWithEncoding writer) throws IOException {
+
+        int modelSize = CodeModelInternals.getModelSize(codeModel);
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+
+        try {
+            Deque<Future<List<byte[]>>> pending = new ArrayDeque<>();
+            Iterator<List<JDefinedClass>> unsubmitted = batches.iterator();
+            Iterator<List<JDefinedClass>> unwritten = batches.iterator();
+            while (unwritten.hasNext()) {
+                // keep a bounded number of formatted batches in memory
+                while (unsubmitted.hasNext() && pending.size() < parallelism * 2) {
+                    List<JDefinedClass> batch = unsubmitted.next();
+                    pending.add(executor.submit(() -> format(batch, writer)));
+                }
+                List<JDefinedClass> batch = unwritten.next();
+                List<byte[]> sources = pending.remove().get();
+                if (CodeModelInternals.getModelSize(codeModel) != modelSize) {
+                    return false;
+                }
+                for (int i = 0; i < batch.size(); i++) {
+                    writer.write(batch.get(i)._package(), batch.get(i).name() + ".java", sources.get(i));
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing generated types");
+        } catch (ExecutionException e) {
+            // an addition to the model may have caused this, so try again sequentially
+            return false;
+        } finally {
+            executor.shutdownNow();
+            awaitTermination(executor);
+        }
+    }
+
+    private static List<byte[]> format(List<JDefinedClass> batch, FileCodeWriterWithEncoding writer) throws IOException {
+        List<byte[]> sources = new ArrayList<>(batch.size());
+        for (JDefinedClass definedClass : batch) {
+            StringWriter source = new StringWriter();
+            JFormatter formatter = new JFormatter(new PrintWriter(source));
+            CodeModelInternals.write(formatter, definedClass);
+            formatter.close();
+            sources.add(writer.encode(source.getBuffer()));
+        }
+        return sources;
+    }
+
+    private static List<List<JDefinedClass>> getBatches(JCodeModel codeModel) {
+        List<List<JDefinedClass>> batches = new ArrayList<>();
+        List<JDefinedClass> batch = new ArrayList<>(BATCH_SIZE);
+        for (Iterator<JPackage> packages = codeModel.packages(); packages.hasNext();) {
+            for (Iterator<JDefinedClass> classes = packages.next().classes(); classes.hasNext();) {
+                JDefinedClass definedClass = classes.next();
+                if (!definedClass.isHidden()) {
+                    batch.add(definedClass);
+                    if (batch.size() == BATCH_SIZE) {
+                        batches.add(batch);
+                        batch = new ArrayList<>(BATCH_SIZE);
+                    }
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    /**
+     * Creates the packages and class references that formatting would
+     * otherwise create lazily: the package of every class referenced by a
+     * declaration in the model (a superclass, interface, field type, method
+     * signature or type argument), along with its outer class, superclass and
+     * interfaces. Annotations aren't visited, since reading them creates an
+     * empty list of annotations, which changes how codemodel formats a
+     * declaration.
+     */
+    private static void createLazyReferences(JCodeModel codeModel) throws IOException {
+
+        codeModel.rootPackage();
+        codeModel._package("java.lang");
+        codeModel.ref(Object.class);
+
+        Set<JClass> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        int modelSize;
+        do {
+            modelSize = CodeModelInternals.getModelSize(codeModel);
+
+            Deque<JClass> pending = new ArrayDeque<>(CodeModelInternals.getReferencedClasses(codeModel));
+            for (Iterator<JPackage> packages = codeModel.packages(); packages.hasNext();) {
+                for (Iterator<JDefinedClass> classes = packages.next().classes(); classes.hasNext();) {
+                    pending.add(classes.next());
+                }
+            }
+
+            while (!pending.isEmpty()) {
+                JClass c = pending.pop();
+                if (!visited.add(c)) {
+                    continue;
+                }
+                c._package();
+                addTypes(pending, c.outer(), c._extends(), c.erasure());
+                c._implements().forEachRemaining(pending::add);
+                pending.addAll(c.getTypeParameters());
+                addTypeVariables(pending, c.typeParams());
+                if (c.isArray()) {
+                    addTypes(pending, c.elementType());
+                }
+                if (c instanceof JDefinedClass) {
+                    addDeclarations(pending, (JDefinedClass) c);
+                }
+            }
+        } while (CodeModelInternals.getModelSize(codeModel) != modelSize);
+    }
+
+    private static void addDeclarations(Deque<JClass> pending, JDefinedClass definedClass) {
+        for (JFieldVar field : definedClass.fields().values()) {
+            addTypes(pending, field.type());
+        }
+        List<JMethod> methods = new ArrayList<>(definedClass.methods());
+        definedClass.constructors().forEachRemaining(methods::add);
+        for (JMethod method : methods) {
+            addTypes(pending, method.type(), method.listVarParamType());
+            addTypeVariables(pending, method.typeParams());
+            for (JVar param : method.params()) {
+                addTypes(pending, param.type());
+            }
+        }
+        definedClass.classes().forEachRemaining(pending::add);
+    }
+
+    private static void addTypeVariables(Deque<JClass> pending, JTypeVar[] typeVariables) {
+        for (JTypeVar typeVariable : typeVariables) {
+            pending.add(typeVariable._extends());
+        }
+    }
+
+    private static void addTypes(Deque<JClass> pending, JType... types) {
+        for (JType type : types) {
+            if (type instanceof JClass) {
+                pending.add((JClass) type);
+            } else if (type != null && type.isArray()) {
+                addTypes(pending, type.elementType());
+            }
+        }
+    }
+
+    /**
+     * Waits for every task to finish, since the model can only be built
+     * sequentially once nothing else is reading it.
+     */
+    private static void awaitTermination(ExecutorService executor) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The parts of codemodel that this builder needs but that aren't public:
+     * formatting a single class, and reading (never changing) the model's maps
+     * of packages and class references. If any of them is missing, models are
+     * built sequentially.
+     */
+    private static final class CodeModelInternals {
+
+        private static final Method FORMATTER_WRITE = getMethod(JFormatter.class, "write", JDefinedClass.class);
+        private static final Field MODEL_PACKAGES = getField(JCodeModel.class, "packages");
+        private static final Field MODEL_REF_CLASSES = getField(JCodeModel.class, "refClasses");
+
+        static boolean isAvailable() {
+            return FORMATTER_WRITE != null && MODEL_PACKAGES != null && MODEL_REF_CLASSES != null;
+        }
+
+        /**
+         * Formats a class, with its imports, as {@link JCodeModel#build} does.
+         */
+        static void write(JFormatter formatter, JDefinedClass definedClass) throws IOException {
+            try {
+                FORMATTER_WRITE.invoke(formatter, definedClass);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IOException("Unable to format " + definedClass.fullName(), e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new IOException("Unable to format " + definedClass.fullName(), e);
+            }
+        }
+
+        /**
+         * @return the number of packages and class references in the model
+         */
+        static int getModelSize(JCodeModel codeModel) throws IOException {
+            return ((Map<?, ?>) read(MODEL_PACKAGES, codeModel)).size() + ((Map<?, ?>) read(MODEL_REF_CLASSES, codeModel)).size();
+        }
+
+        /**
+         * @return the classes that have been referenced with
+         *         {@link JCodeModel#ref(Class)}
+         */
+        @SuppressWarnings("unchecked")
+        static List<JClass> getReferencedClasses(JCodeModel codeModel) throws IOException {
+            return new ArrayList<>(((Map<?, JClass>) read(MODEL_REF_CLASSES, codeModel)).values());
+        }
+
+        private static Object read(Field field, Object target) throws IOException {
+            try {
+                return field.get(target);
+            } catch (IllegalAccessException e) {
+                throw new IOException("Unable to read " + field, e);
+            }
+        }
+
+        private static Method getMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+            try {
+                Method method = type.getDeclaredMethod(name, parameterTypes);
+                method.setAccessible(true);
+                return method;
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        private static Field getField(Class<?> type, String name) {
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                return field;
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+
+    }
+
+}
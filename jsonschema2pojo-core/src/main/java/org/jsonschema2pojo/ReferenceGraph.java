@@ -0,0 +1,438 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import static org.apache.commons.lang3.StringUtils.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.jsonschema2pojo.exception.GenerationException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * An index of the $ref links between schema documents: for every document
+ * read from the sources (directly or transitively), the documents and
+ * fragments it references.
+ * <p>
+ * The graph is built by a scan that only reads documents and looks for
+ * $ref, without applying any rules, so it is much cheaper than generating
+ * types. Local files whose size and modification time are unchanged since a
+ * previous graph are not read again. The graph is kept between runs as part
+ * of the {@link GenerationManifest}. A document that can't be read (such as
+ * the target of a $ref in an unused definition) is kept in the graph without
+ * references, and generation reports it only if it is used.
+ * <p>
+ * Documents are identified by their URL (as a string, without a fragment). A
+ * reference target is the id of the referenced document, followed by the
+ * fragment (if the reference has one), for example
+ * <code>file:/schemas/common.json#/definitions/address</code>.
+ */
+public class ReferenceGraph {
+
+    /**
+     * The hash of a document that couldn't be read.
+     */
+    private static final String UNREADABLE = "unreadable";
+
+    private final Map<String, Document> documents;
+
+    private Map<String, Set<String>> referrers;
+
+    private ReferenceGraph(Map<String, Document> documents) {
+        this.documents = documents;
+    }
+
+    /**
+     * Scans the given sources and every document they reference.
+     *
+     * @param contentResolver
+     *            the resolver used to read documents
+     * @param sourceUrls
+     *            the documents to start from
+     * @param followReferences
+     *            whether to read referenced documents (references are only
+     *            followed for JSON and YAML schemas, not for example data,
+     *            which is hashed without being parsed)
+     * @param previous
+     *            a graph built earlier, whose entries are reused for local
+     *            files that haven't changed, or <code>null</code>
+     * @return the graph of every document reachable from the sources
+     */
+    public static ReferenceGraph build(ContentResolver contentResolver, Collection<URL> sourceUrls, boolean followReferences, ReferenceGraph previous) {
+        return build(contentResolver, sourceUrls, followReferences, previous, false);
+    }
+
+    /**
+     * Scans the given sources and every document they reference, optionally
+     * reusing the entries of the previous graph for remote documents as well
+     * as unchanged local files.
+     *
+     * @param reuseRemoteDocuments
+     *            whether documents that aren't local files are taken from the
+     *            previous graph (when present) instead of being read again
+     */
+    static ReferenceGraph build(ContentResolver contentResolver, Collection<URL> sourceUrls, boolean followReferences, ReferenceGraph previous, boolean reuseRemoteDocuments) {
+
+        Map<String, Document> documents = new HashMap<>();
+
+        Deque<String> pending = new ArrayDeque<>();
+        for (URL sourceUrl : sourceUrls) {
+            pending.add(sourceUrl.toString());
+        }
+
+        while (!pending.isEmpty()) {
+            String id = pending.pop();
+            if (!documents.containsKey(id)) {
+                Document document = readDocument(id, contentResolver, followReferences, previous, reuseRemoteDocuments);
+                documents.put(id, document);
+                if (followReferences) {
+                    for (String target : document.references) {
+                        pending.add(documentId(target));
+                    }
+                }
+            }
+        }
+
+        return new ReferenceGraph(documents);
+    }
+
+    /**
+     * @return the ids of every document in this graph
+     */
+    public Set<String> getDocuments() {
+        return Collections.unmodifiableSet(documents.keySet());
+    }
+
+    /**
+     * @return true if the document with the given id was read for this graph
+     */
+    public boolean contains(String id) {
+        return documents.containsKey(id);
+    }
+
+    /**
+     * @param id
+     *            a document id
+     * @return a hash of the content of the document
+     */
+    public String getHash(String id) {
+        return document(id).hash;
+    }
+
+    /**
+     * @param id
+     *            a document id
+     * @return the targets (document id and fragment) of every $ref in the
+     *         document, including references to its own fragments
+     */
+    public Set<String> getReferenceTargets(String id) {
+        return Collections.unmodifiableSet(document(id).references);
+    }
+
+    /**
+     * @param id
+     *            a document id
+     * @return the ids of the other documents that the document references
+     *         directly
+     */
+    public Set<String> getReferences(String id) {
+        Set<String> references = new TreeSet<>();
+        for (String target : document(id).references) {
+            references.add(documentId(target));
+        }
+        references.remove(id);
+        return references;
+    }
+
+    /**
+     * @param id
+     *            a document id
+     * @return the ids of the other documents in this graph that reference the
+     *         document directly
+     */
+    public Set<String> getReferrers(String id) {
+        return referrers().getOrDefault(id, Collections.emptySet());
+    }
+
+    /**
+     * @param id
+     *            a document id
+     * @return the document itself and every document in this graph that it
+     *         references, directly or transitively
+     */
+    public Set<String> getDependencies(String id) {
+        Set<String> dependencies = new TreeSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.add(id);
+        while (!pending.isEmpty()) {
+            String dependency = pending.pop();
+            if (documents.containsKey(dependency) && dependencies.add(dependency)) {
+                pending.addAll(getReferences(dependency));
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * Finds the documents affected by a change to the given documents.
+     *
+     * @param changedIds
+     *            ids of documents that have changed
+     * @return the changed documents and every document in this graph that
+     *         references them, directly or transitively
+     */
+    public Set<String> getDependents(Collection<String> changedIds) {
+        Set<String> dependents = new TreeSet<>();
+        Deque<String> pending = new ArrayDeque<>(changedIds);
+        while (!pending.isEmpty()) {
+            String dependent = pending.pop();
+            if (dependents.add(dependent)) {
+                pending.addAll(getReferrers(dependent));
+            }
+        }
+        return dependents;
+    }
+
+    /**
+     * Groups documents that are connected by $ref, directly or through other
+     * documents in this graph. Two documents are in the same group if one
+     * depends on the other, or if they share a dependency.
+     *
+     * @param ids
+     *            ids of documents in this graph
+     * @return the given ids in groups, ordered by the first document in each
+     *         group. The documents in each group keep their given order.
+     */
+    public List<List<String>> getComponents(List<String> ids) {
+        Map<String, String> parents = new HashMap<>();
+        for (String id : ids) {
+            for (String dependency : getDependencies(id)) {
+                parents.put(root(parents, dependency), root(parents, id));
+            }
+        }
+
+        Map<String, List<String>> components = new LinkedHashMap<>();
+        for (String id : ids) {
+            components.computeIfAbsent(root(parents, id), r -> new ArrayList<>()).add(id);
+        }
+        return new ArrayList<>(components.values());
+    }
+
+    private static String root(Map<String, String> parents, String id) {
+        String root = id;
+        for (String parent = parents.get(root); parent != null && !parent.equals(root); parent = parents.get(root)) {
+            root = parent;
+        }
+        // point every document on the path at the root, so the next search is shorter
+        for (String next = id; !next.equals(root);) {
+            String parent = parents.put(next, root);
+            next = parent;
+        }
+        return root;
+    }
+
+    /**
+     * Finds the documents whose content differs from a graph built earlier.
+     *
+     * @param previous
+     *            a graph built earlier
+     * @return ids of the documents that are new, or whose hash has changed
+     */
+    public Set<String> getChangedDocuments(ReferenceGraph previous) {
+        Set<String> changed = new TreeSet<>();
+        for (Map.Entry<String, Document> entry : documents.entrySet()) {
+            Document previousDocument = previous.documents.get(entry.getKey());
+            if (previousDocument == null || !previousDocument.hash.equals(entry.getValue().hash)) {
+                changed.add(entry.getKey());
+            }
+        }
+        return changed;
+    }
+
+    void write(ObjectNode documentsNode) {
+        for (Map.Entry<String, Document> entry : new TreeMap<>(documents).entrySet()) {
+            ObjectNode documentNode = documentsNode.putObject(entry.getKey());
+            documentNode.put("hash", entry.getValue().hash);
+            documentNode.put("lastModified", entry.getValue().lastModified);
+            documentNode.put("length", entry.getValue().length);
+            entry.getValue().references.forEach(documentNode.putArray("references")::add);
+        }
+    }
+
+    static ReferenceGraph read(JsonNode documentsNode) {
+        Map<String, Document> documents = new HashMap<>();
+        for (Map.Entry<String, JsonNode> field : documentsNode.properties()) {
+            JsonNode document = field.getValue();
+            Set<String> references = new TreeSet<>();
+            document.path("references").forEach(reference -> references.add(reference.asText()));
+            documents.put(field.getKey(), new Document(document.path("hash").asText(), document.path("lastModified").asLong(-1),
+                    document.path("length").asLong(-1), references));
+        }
+        return new ReferenceGraph(documents);
+    }
+
+    private Document document(String id) {
+        Document document = documents.get(id);
+        if (document == null) {
+            throw new IllegalArgumentException("Not a document in this graph: " + id);
+        }
+        return document;
+    }
+
+    private synchronized Map<String, Set<String>> referrers() {
+        if (referrers == null) {
+            Map<String, Set<String>> index = new HashMap<>();
+            for (String id : documents.keySet()) {
+                for (String reference : getReferences(id)) {
+                    index.computeIfAbsent(reference, r -> new TreeSet<>()).add(id);
+                }
+            }
+            for (Map.Entry<String, Set<String>> entry : index.entrySet()) {
+                entry.setValue(Collections.unmodifiableSet(entry.getValue()));
+            }
+            referrers = index;
+        }
+        return referrers;
+    }
+
+    private static String documentId(String target) {
+        return substringBefore(target, "#");
+    }
+
+    private static Document readDocument(String id, ContentResolver contentResolver, boolean followReferences, ReferenceGraph previous, boolean reuseRemoteDocuments) {
+
+        URI uri;
+        try {
+            uri = new URI(id);
+        } catch (URISyntaxException e) {
+            throw new GenerationException("Invalid source: " + id, e);
+        }
+
+        File file = "file".equals(uri.getScheme()) ? new File(uri) : null;
+        long lastModified = file != null ? file.lastModified() : -1;
+        long length = file != null ? file.length() : -1;
+
+        Document previousDocument = previous != null ? previous.documents.get(id) : null;
+        if (file != null && previousDocument != null && previousDocument.lastModified == lastModified && previousDocument.length == length) {
+            return previousDocument;
+        }
+        if (file == null && previousDocument != null && reuseRemoteDocuments && !UNREADABLE.equals(previousDocument.hash)) {
+            return previousDocument;
+        }
+
+        if (!followReferences) {
+            // example data may hold many documents, and be too large to read as a tree
+            return new Document(hash(uri), lastModified, length, new TreeSet<>());
+        }
+
+        JsonNode content;
+        try {
+            content = contentResolver.resolve(uri);
+        } catch (IllegalArgumentException e) {
+            // a $ref that generation never follows (e.g. in unused definitions) must not fail the scan, so
+            // record the document as unreadable, to be read again (and change the hash) on the next scan
+            return new Document(UNREADABLE, -1, -1, new TreeSet<>());
+        }
+        String hash = HexFormat.of().formatHex(newDigest().digest(content.toString().getBytes(StandardCharsets.UTF_8)));
+
+        Set<String> references = new TreeSet<>();
+        findReferences(uri, content, references);
+
+        return new Document(hash, lastModified, length, references);
+    }
+
+    private static void findReferences(URI baseId, JsonNode node, Set<String> references) {
+
+        if (node.isObject() && node.path("$ref").isTextual()) {
+            String ref = stripEnd(node.get("$ref").asText(), "#?&/");
+            String path = substringBefore(ref, "#");
+            String fragment = substringAfter(ref, "#");
+            try {
+                String target = path.isEmpty() ? substringBefore(baseId.toString(), "#") : documentId(baseId.resolve(path).normalize().toString());
+                references.add(fragment.isEmpty() ? target : target + "#" + fragment);
+            } catch (IllegalArgumentException e) {
+                // not a resolvable reference, generation will report it if it's used
+            }
+        }
+
+        for (Iterator<JsonNode> children = node.elements(); children.hasNext();) {
+            findReferences(baseId, children.next(), references);
+        }
+    }
+
+    private static String hash(URI uri) {
+        MessageDigest digest = newDigest();
+        try (InputStream in = new DigestInputStream(uri.toURL().openStream(), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException | IllegalArgumentException e) {
+            throw new GenerationException("Could not read source: " + uri, e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Document {
+
+        private final String hash;
+        private final long lastModified;
+        private final long length;
+        private final Set<String> references;
+
+        Document(String hash, long lastModified, long length, Set<String> references) {
+            this.hash = hash;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.references = references;
+        }
+
+    }
+
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * A directory of documents fetched from http/https URIs, kept between builds.
+ * Each entry holds the parsed content of a document along with the validators
+ * (ETag and Last-Modified) returned by the server, so that the document can be
+ * revalidated with a conditional request.
+ */
+public class RemoteContentCache {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    private final File directory;
+
+    /**
+     * @param directory
+     *            the directory in which cached documents are stored (created
+     *            when the first document is stored)
+     */
+    public RemoteContentCache(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Reads a cached document.
+     *
+     * @param uri
+     *            the URI of the document
+     * @return the cached document, or <code>null</code> if the document is not
+     *         in the cache (or the cache entry can't be read)
+     */
+    public Entry get(URI uri) {
+        File file = getFile(uri);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try {
+            JsonNode entry = objectMapper.readTree(file);
+            if (!uri.toString().equals(entry.path("uri").asText()) || !entry.has("content")) {
+                return null;
+            }
+            return new Entry(entry.get("content"), entry.path("etag").textValue(), entry.path("lastModified").textValue());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores a document in the cache, replacing any previous entry.
+     *
+     * @param uri
+     *            the URI of the document
+     * @param entry
+     *            the document content and validators
+     * @throws IOException
+     *             if the entry can't be written
+     */
+    public void put(URI uri, Entry entry) throws IOException {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("uri", uri.toString());
+        node.put("etag", entry.getEtag());
+        node.put("lastModified", entry.getLastModified());
+        node.set("content", entry.getContent());
+
+        Files.createDirectories(directory.toPath());
+        Path temporaryFile = Files.createTempFile(directory.toPath(), "entry", ".tmp");
+        try {
+            objectMapper.writeValue(temporaryFile.toFile(), node);
+            // other builds may be reading or writing the same entry
+            Files.move(temporaryFile, getFile(uri).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private File getFile(URI uri) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(uri.toString().getBytes(StandardCharsets.UTF_8));
+            return new File(directory, HexFormat.of().formatHex(hash) + ".json");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A cached document.
+     */
+    public static class Entry {
+
+        private final JsonNode content;
+        private final String etag;
+        private final String lastModified;
+
+        public Entry(JsonNode content, String etag, String lastModified) {
+            this.content = content;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        public JsonNode getContent() {
+            return content;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+    }
+
+}
@@ -0,0 +1,230 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * What has been seen at one position in a set of sample documents: which
+ * types of value, how often, and (for objects and arrays) a summary of each
+ * property and of the items.
+ * <p>
+ * Summaries of different samples can be merged in any grouping, so samples
+ * can be summarized in partitions and the partial summaries merged
+ * afterwards. As long as partitions are merged in order, properties keep the
+ * order in which they were first seen.
+ */
+final class SampleSummary {
+
+    private static final int BOOLEAN = 1;
+    private static final int STRING = 1 << 1;
+    private static final int INTEGER = 1 << 2;
+    private static final int LONG = 1 << 3;
+    private static final int NUMBER = 1 << 4;
+    private static final int OBJECT = 1 << 5;
+    private static final int ARRAY = 1 << 6;
+
+    /** the number of values seen, including <code>null</code> */
+    private long count;
+    private long nulls;
+    private long objects;
+    private int types;
+    private Map<String, SampleSummary> properties;
+    private SampleSummary items;
+
+    /**
+     * Reads the value at the current token and adds it to this summary. The
+     * parser is left at the last token of the value.
+     *
+     * @param parser
+     *            a parser positioned at the first token of a value
+     * @return this summary
+     */
+    SampleSummary add(JsonParser parser) throws IOException {
+        count++;
+
+        JsonToken token = parser.currentToken();
+        switch (token) {
+            case START_OBJECT:
+                types |= OBJECT;
+                objects++;
+                if (properties == null) {
+                    properties = new LinkedHashMap<>();
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.currentName();
+                    parser.nextToken();
+                    properties.computeIfAbsent(name, n -> new SampleSummary()).add(parser);
+                }
+                break;
+            case START_ARRAY:
+                types |= ARRAY;
+                if (items == null) {
+                    items = new SampleSummary();
+                }
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    items.add(parser);
+                }
+                break;
+            case VALUE_NULL:
+                nulls++;
+                break;
+            case VALUE_STRING:
+                types |= STRING;
+                break;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                types |= BOOLEAN;
+                break;
+            case VALUE_NUMBER_INT:
+                switch (parser.getNumberType()) {
+                    case INT:
+                        types |= INTEGER;
+                        break;
+                    case LONG:
+                        types |= LONG;
+                        break;
+                    default:
+                        types |= NUMBER;
+                }
+                break;
+            case VALUE_NUMBER_FLOAT:
+                types |= NUMBER;
+                break;
+            default:
+                throw new UnsupportedOperationException("Unsupported token='%s' having value='%s'".formatted(token, parser.getText()));
+        }
+        return this;
+    }
+
+    /**
+     * Adds everything summarized by another summary to this one. The other
+     * summary must not be used afterwards.
+     *
+     * @param other
+     *            a summary of samples that follow those in this summary
+     * @return this summary
+     */
+    SampleSummary merge(SampleSummary other) {
+        count += other.count;
+        nulls += other.nulls;
+        objects += other.objects;
+        types |= other.types;
+
+        if (other.properties != null) {
+            if (properties == null) {
+                properties = other.properties;
+            } else {
+                for (Map.Entry<String, SampleSummary> property : other.properties.entrySet()) {
+                    properties.merge(property.getKey(), property.getValue(), SampleSummary::merge);
+                }
+            }
+        }
+        if (other.items != null) {
+            items = items == null ? other.items : items.merge(other.items);
+        }
+        return this;
+    }
+
+    /**
+     * @return the number of values that have been summarized
+     */
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * Creates a schema that every summarized value conforms to. Integers are
+     * widened to numbers when both are seen, and a property is required if it
+     * has a value other than <code>null</code> in every object. Values that
+     * can have several types (other than <code>null</code>) are given a list
+     * of types, which maps to {@link Object}.
+     */
+    ObjectNode toSchema(JsonNodeFactory nodeFactory) {
+        ObjectNode schema = nodeFactory.objectNode();
+
+        int widenedTypes = (types & NUMBER) != 0 ? types & ~(INTEGER | LONG) : types;
+        List<String> typeNames = typeNames(widenedTypes);
+
+        if (typeNames.isEmpty()) {
+            schema.put("type", "null");
+        } else if (typeNames.size() > 1) {
+            ArrayNode typeNodes = schema.putArray("type");
+            typeNames.forEach(typeNodes::add);
+        } else if (widenedTypes == OBJECT) {
+            schema.put("type", "object");
+            ObjectNode propertySchemas = schema.putObject("properties");
+            ArrayNode required = nodeFactory.arrayNode();
+            for (Map.Entry<String, SampleSummary> property : properties.entrySet()) {
+                SampleSummary propertySummary = property.getValue();
+                propertySchemas.set(property.getKey(), propertySummary.toSchema(nodeFactory));
+                if (propertySummary.count - propertySummary.nulls == objects) {
+                    required.add(property.getKey());
+                }
+            }
+            if (!required.isEmpty()) {
+                schema.set("required", required);
+            }
+        } else if (widenedTypes == ARRAY) {
+            schema.put("type", "array");
+            if (items.count > 0) {
+                schema.set("items", items.toSchema(nodeFactory));
+            }
+        } else if ((widenedTypes & LONG) != 0) {
+            // longs are 'integers' in schema terms
+            schema.put("type", "integer").put("minimum", Long.MAX_VALUE);
+        } else {
+            schema.put("type", typeNames.get(0));
+        }
+
+        return schema;
+    }
+
+    private static List<String> typeNames(int types) {
+        List<String> names = new ArrayList<>();
+        if ((types & ARRAY) != 0) {
+            names.add("array");
+        }
+        if ((types & BOOLEAN) != 0) {
+            names.add("boolean");
+        }
+        if ((types & (INTEGER | LONG)) != 0) {
+            names.add("integer");
+        }
+        if ((types & NUMBER) != 0) {
+            names.add("number");
+        }
+        if ((types & OBJECT) != 0) {
+            names.add("object");
+        }
+        if ((types & STRING) != 0) {
+            names.add("string");
+        }
+        return names;
+    }
+
+}
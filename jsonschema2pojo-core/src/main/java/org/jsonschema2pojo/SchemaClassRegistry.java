@@ -0,0 +1,351 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.jsonschema2pojo.exception.GenerationException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JType;
+
+/**
+ * Generates classes from schemas at runtime, compiling them in memory (see
+ * {@link InMemoryCompiler}) and loading them into a class loader of their
+ * own, and keeps the classes for the most recently used schemas.
+ * <p>
+ * Classes are cached by a hash of the generation config, the class name and
+ * package, and the schema: either the canonical form of a schema given as a
+ * {@link JsonNode} (so the order of properties doesn't matter), or the content
+ * of the document at a URI and of every document it references (see
+ * {@link ReferenceGraph}). The graph of the documents last seen for each URI
+ * is kept, so a lookup reads only the local files whose size or modification
+ * time have changed, and a change to any of them generates new classes rather
+ * than returning stale ones. Remote documents are read once, when they are
+ * first referenced.
+ * <p>
+ * When more than the maximum number of schemas are cached, the least
+ * recently used are evicted. The class loader of an evicted schema (along
+ * with its classes) can be unloaded once the classes are no longer used.
+ * <p>
+ * This class is thread-safe. When the same schema is requested concurrently,
+ * its classes are generated once and every request waits for them.
+ */
+public class SchemaClassRegistry {
+
+    private final GenerationConfig config;
+    private final ClassLoader parent;
+    private final String configHash;
+    private final ContentResolver contentResolver;
+    private final Map<String, FutureTask<Class<?>>> classes;
+    private final Map<String, ReferenceGraph> referenceGraphs;
+
+    /**
+     * Creates a registry that loads generated classes with the context class
+     * loader as parent.
+     *
+     * @param config
+     *            the configuration used to generate classes
+     * @param maximumSize
+     *            the number of schemas to keep the classes for
+     */
+    public SchemaClassRegistry(GenerationConfig config, int maximumSize) {
+        this(config, maximumSize, Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * @param config
+     *            the configuration used to generate classes
+     * @param maximumSize
+     *            the number of schemas to keep the classes for
+     * @param parent
+     *            the parent of the class loaders for generated classes, which
+     *            must be able to load the classes that generated code refers
+     *            to (such as annotations)
+     */
+    public SchemaClassRegistry(GenerationConfig config, int maximumSize, ClassLoader parent) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("The maximum size of the registry must be at least 1");
+        }
+        this.config = config;
+        this.parent = parent;
+        this.configHash = GenerationManifest.hashConfig(config);
+        this.contentResolver = Jsonschema2Pojo.createContentResolver(config);
+        this.classes = new LinkedHashMap<String, FutureTask<Class<?>>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, FutureTask<Class<?>>> eldest) {
+                return size() > maximumSize;
+            }
+        };
+        this.referenceGraphs = new LinkedHashMap<String, ReferenceGraph>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ReferenceGraph> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the class generated for the schema at the given location.
+     *
+     * @param schema
+     *            the location of the schema (or of an example, depending on
+     *            the source type of the config)
+     * @param className
+     *            the name of the class generated for the schema
+     * @param packageName
+     *            the package of the generated classes
+     * @return the class generated for the schema; other classes generated
+     *         for the schema can be loaded with its class loader
+     * @throws IllegalArgumentException
+     *             if the schema can't be read
+     * @throws GenerationException
+     *             if the generated classes can't be compiled
+     * @throws IOException
+     *             if the class path can't be read
+     */
+    public Class<?> getGeneratedClass(URI schema, String className, String packageName) throws IOException {
+        URL url;
+        try {
+            url = schema.toURL();
+        } catch (MalformedURLException e) {
+            throw new GenerationException("Could not read schema " + schema, e);
+        }
+        return getGeneratedClass(key("uri", hashDocuments(url), className, packageName),
+                (codeModel, mapper) -> mapper.generate(codeModel, className, packageName, url));
+    }
+
+    /**
+     * Gets the class generated for the given schema. Relative references in
+     * the schema are resolved as they would be for
+     * {@link SchemaMapper#generate(JCodeModel, String, String, ObjectNode)}.
+     *
+     * @param schema
+     *            the schema
+     * @param className
+     *            the name of the class generated for the schema
+     * @param packageName
+     *            the package of the generated classes
+     * @return the class generated for the schema; other classes generated
+     *         for the schema can be loaded with its class loader
+     * @throws GenerationException
+     *             if the generated classes can't be compiled
+     * @throws IOException
+     *             if the class path can't be read
+     */
+    public Class<?> getGeneratedClass(ObjectNode schema, String className, String packageName) throws IOException {
+        // type generation may change the schema, so generate from a copy (classes are only generated on the calling thread)
+        return getGeneratedClass(key("node", canonicalize(schema), className, packageName),
+                (codeModel, mapper) -> mapper.generate(codeModel, className, packageName, schema.deepCopy()));
+    }
+
+    /**
+     * @return the number of schemas that classes are cached for
+     */
+    public int size() {
+        synchronized (classes) {
+            return classes.size();
+        }
+    }
+
+    /**
+     * Evicts the classes of every schema.
+     */
+    public void clear() {
+        synchronized (classes) {
+            classes.clear();
+        }
+        synchronized (referenceGraphs) {
+            referenceGraphs.clear();
+        }
+    }
+
+    private Class<?> getGeneratedClass(String key, Generator generator) throws IOException {
+        FutureTask<Class<?>> task;
+        boolean created = false;
+        synchronized (classes) {
+            task = classes.get(key);
+            if (task == null) {
+                task = new FutureTask<>(() -> generate(generator));
+                classes.put(key, task);
+                created = true;
+            }
+        }
+
+        if (created) {
+            task.run();
+        }
+
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for generated classes");
+        } catch (ExecutionException e) {
+            synchronized (classes) {
+                // don't keep failures, so a later request can try again
+                classes.remove(key, task);
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new GenerationException("Failed to generate classes", e.getCause());
+        }
+    }
+
+    private Class<?> generate(Generator generator) throws IOException, ClassNotFoundException {
+        JCodeModel codeModel = new JCodeModel();
+        JType type = generator.generate(codeModel, Jsonschema2Pojo.createSchemaMapper(config, new NoopRuleLogger(), GenerationProfiler.DISABLED));
+
+        InMemoryCodeWriter writer = new InMemoryCodeWriter(config.getOutputEncoding());
+        new ParallelCodeBuilder(config.getParallelism()).build(codeModel, writer);
+
+        ClassLoader loader = new GeneratedClassLoader(new InMemoryCompiler(config).compile(writer.getFiles()), parent);
+        return Class.forName(type.boxify().erasure().binaryName(), false, loader);
+    }
+
+    /**
+     * Hashes the content of the document at the given URL and of every
+     * document it references, directly or transitively (as the manifest does
+     * for incremental generation). Documents are reused from the previous
+     * graph for the same URL when they haven't changed.
+     */
+    private String hashDocuments(URL url) {
+        boolean followReferences = config.getSourceType() == SourceType.JSONSCHEMA || config.getSourceType() == SourceType.YAMLSCHEMA;
+        String id = url.toString();
+
+        ReferenceGraph previous;
+        synchronized (referenceGraphs) {
+            previous = referenceGraphs.get(id);
+        }
+        ReferenceGraph referenceGraph = ReferenceGraph.build(contentResolver, Collections.singletonList(url), followReferences, previous, true);
+        synchronized (referenceGraphs) {
+            referenceGraphs.put(id, referenceGraph);
+        }
+
+        StringBuilder documents = new StringBuilder();
+        for (String dependency : followReferences ? referenceGraph.getDependencies(id) : Collections.singleton(id)) {
+            documents.append(dependency).append('\0').append(referenceGraph.getHash(dependency)).append('\0');
+        }
+        return documents.toString();
+    }
+
+    private String key(String kind, String schema, String className, String packageName) {
+        MessageDigest digest = ReferenceGraph.newDigest();
+        for (String part : new String[] { configHash, kind, className, packageName, schema }) {
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Writes a JSON value with the properties of every object in order of
+     * their names.
+     */
+    private static String canonicalize(JsonNode node) {
+        StringBuilder canonical = new StringBuilder();
+        canonicalize(node, canonical);
+        return canonical.toString();
+    }
+
+    private static void canonicalize(JsonNode node, StringBuilder canonical) {
+        if (node.isObject()) {
+            List<String> names = new ArrayList<>();
+            for (Iterator<String> fieldNames = node.fieldNames(); fieldNames.hasNext();) {
+                names.add(fieldNames.next());
+            }
+            Collections.sort(names);
+            canonical.append('{');
+            for (int i = 0; i < names.size(); i++) {
+                if (i > 0) {
+                    canonical.append(',');
+                }
+                canonical.append(TextNode.valueOf(names.get(i)).toString()).append(':');
+                canonicalize(node.get(names.get(i)), canonical);
+            }
+            canonical.append('}');
+        } else if (node.isArray()) {
+            canonical.append('[');
+            for (int i = 0; i < node.size(); i++) {
+                if (i > 0) {
+                    canonical.append(',');
+                }
+                canonicalize(node.get(i), canonical);
+            }
+            canonical.append(']');
+        } else {
+            canonical.append(node.toString());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Generator {
+
+        JType generate(JCodeModel codeModel, SchemaMapper mapper);
+
+    }
+
+    /**
+     * Loads classes compiled in memory.
+     */
+    private static final class GeneratedClassLoader extends ClassLoader {
+
+        private final Map<String, byte[]> classFiles;
+
+        GeneratedClassLoader(Map<String, byte[]> classFiles, ClassLoader parent) {
+            super(parent);
+            this.classFiles = new LinkedHashMap<>(classFiles);
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] classFile;
+            synchronized (classFiles) {
+                // the class file isn't needed once the class is defined
+                classFile = classFiles.remove(name.replace('.', '/') + ".class");
+            }
+            if (classFile == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, classFile, 0, classFile.length);
+        }
+
+    }
+
+}
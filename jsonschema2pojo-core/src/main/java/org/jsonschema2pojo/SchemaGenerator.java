@@ -16,23 +16,36 @@
 
 package org.jsonschema2pojo;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
-import java.util.Iterator;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 import org.jsonschema2pojo.exception.GenerationException;
+import org.jsonschema2pojo.util.URLUtil;
 
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 public class SchemaGenerator {
 
+    /**
+     * The size of the partitions that large newline-delimited sample files
+     * are divided into, to be read in parallel.
+     */
+    static final long SAMPLE_PARTITION_SIZE = 16 * 1024 * 1024;
+
     private final ObjectMapper objectMapper;
 
     public SchemaGenerator() {
@@ -47,9 +60,8 @@ public class SchemaGenerator {
 
     public ObjectNode schemaFromExample(URL example) {
 
-        try (InputStream in = example.openStream()) {
-            JsonNode content = this.objectMapper.readTree(in);
-            return schemaFromExample(content);
+        try (InputStream in = example.openStream(); JsonParser parser = this.objectMapper.createParser(in)) {
+            return schemaFromExample(parser);
         } catch (IOException e) {
             throw new GenerationException("Could not process JSON in source file", e);
         }
@@ -58,108 +70,220 @@ public class SchemaGenerator {
 
     public ObjectNode schemaFromExample(JsonNode example) {
 
-        if (example.isObject()) {
-            return objectSchema(example);
-        } else if (example.isArray()) {
-            return arraySchema(example);
-        } else {
-            return simpleTypeSchema(example);
+        try (JsonParser parser = this.objectMapper.treeAsTokens(example)) {
+            return schemaFromExample(parser);
+        } catch (IOException e) {
+            throw new GenerationException("Could not process JSON example", e);
         }
 
     }
 
-    private ObjectNode objectSchema(JsonNode exampleObject) {
-
-        ObjectNode schema = this.objectMapper.createObjectNode();
-        schema.put("type", "object");
+    /**
+     * Infers a schema from the next value read by the given parser. The value
+     * is summarized as it is read (see {@link ExampleSummary}), so the
+     * example is never held in memory.
+     *
+     * @param parser
+     *            the parser to read the example from
+     * @return a schema that describes the example
+     * @throws IOException
+     *             if the example can't be read
+     */
+    public ObjectNode schemaFromExample(JsonParser parser) throws IOException {
+        parser.nextToken();
+        return ExampleSummary.read(parser, null).toSchema(this.objectMapper.getNodeFactory());
+    }
 
-        ObjectNode properties = this.objectMapper.createObjectNode();
-        for (Iterator<String> iter = exampleObject.fieldNames(); iter.hasNext(); ) {
-            String property = iter.next();
-            properties.set(property, schemaFromExample(exampleObject.get(property)));
+    /**
+     * Infers a schema that fits every sample in the given documents. Each
+     * document may contain any number of samples, one after another (for
+     * example, newline-delimited JSON). Documents are read in parallel, and
+     * local files named <code>*.ndjson</code> or <code>*.jsonl</code> are
+     * also divided into partitions of whole lines that are read in parallel.
+     * <p>
+     * Unlike {@link #schemaFromExample(URL)}, every value is taken into
+     * account: integers are widened to numbers when both are seen, a property
+     * is required only if it has a value in every sample, and array items are
+     * inferred from every item.
+     *
+     * @param samples
+     *            the documents to read samples from
+     * @return a schema that describes every sample
+     */
+    public ObjectNode schemaFromSamples(Collection<URL> samples) {
+
+        List<SamplePartition> partitions = new ArrayList<>();
+        for (URL sample : samples) {
+            partitions.addAll(SamplePartition.divide(sample));
         }
-        schema.set("properties", properties);
 
-        return schema;
+        SampleSummary summary = partitions.isEmpty() ? new SampleSummary() : ForkJoinPool.commonPool().invoke(new SummarizeTask(this.objectMapper, partitions, 0, partitions.size()));
+        return summary.toSchema(this.objectMapper.getNodeFactory());
+
     }
 
-    private ObjectNode arraySchema(JsonNode exampleArray) {
-        ObjectNode schema = this.objectMapper.createObjectNode();
+    /**
+     * Infers a schema that fits every sample read by the given parser.
+     *
+     * @param parser
+     *            the parser to read the samples from
+     * @return a schema that describes every sample
+     * @throws IOException
+     *             if the samples can't be read
+     */
+    public ObjectNode schemaFromSamples(JsonParser parser) throws IOException {
+        return summarize(parser).toSchema(this.objectMapper.getNodeFactory());
+    }
 
-        schema.put("type", "array");
+    private static SampleSummary summarize(JsonParser parser) throws IOException {
+        SampleSummary summary = new SampleSummary();
+        while (parser.nextToken() != null) {
+            summary.add(parser);
+        }
+        return summary;
+    }
 
-        if (exampleArray.size() > 0) {
+    /**
+     * Summarizes a range of partitions, dividing the range in two until it
+     * contains a single partition, and merges the summaries in order.
+     */
+    private static final class SummarizeTask extends RecursiveTask<SampleSummary> {
 
-            JsonNode exampleItem = exampleArray.get(0).isObject() ? mergeArrayItems(exampleArray) : exampleArray.get(0);
+        private static final long serialVersionUID = 1L;
 
-            schema.set("items", schemaFromExample(exampleItem));
+        private final transient ObjectMapper objectMapper;
+        private final transient List<SamplePartition> partitions;
+        private final int from;
+        private final int to;
+
+        SummarizeTask(ObjectMapper objectMapper, List<SamplePartition> partitions, int from, int to) {
+            this.objectMapper = objectMapper;
+            this.partitions = partitions;
+            this.from = from;
+            this.to = to;
         }
 
-        return schema;
-    }
+        @Override
+        protected SampleSummary compute() {
+            if (to - from == 1) {
+                SamplePartition partition = partitions.get(from);
+                try (JsonParser parser = objectMapper.createParser(partition.open())) {
+                    return summarize(parser);
+                } catch (IOException e) {
+                    throw new GenerationException("Could not process JSON in source file " + partition.url, e);
+                }
+            }
 
-    private JsonNode mergeArrayItems(JsonNode exampleArray) {
+            int middle = (from + to) >>> 1;
+            SummarizeTask first = new SummarizeTask(objectMapper, partitions, from, middle);
+            first.fork();
+            SampleSummary last = new SummarizeTask(objectMapper, partitions, middle, to).compute();
+            return first.join().merge(last);
+        }
+
+    }
 
-        ObjectNode mergedItems = this.objectMapper.createObjectNode();
+    /**
+     * A document of samples, or the lines of a local file that start within a
+     * range of bytes.
+     */
+    private static final class SamplePartition {
+
+        private final URL url;
+        private final File file;
+        private final long start;
+        private final long end;
+
+        private SamplePartition(URL url, File file, long start, long end) {
+            this.url = url;
+            this.file = file;
+            this.start = start;
+            this.end = end;
+        }
 
-        for (JsonNode item : exampleArray) {
-            if (item.isObject()) {
-                mergeObjectNodes(mergedItems, (ObjectNode) item);
+        static List<SamplePartition> divide(URL url) {
+            List<SamplePartition> partitions = new ArrayList<>();
+            File file = "file".equals(url.getProtocol()) ? URLUtil.getFileFromURL(url) : null;
+            if (file != null && (file.getName().endsWith(".ndjson") || file.getName().endsWith(".jsonl"))) {
+                long length = file.length();
+                for (long start = 0; start < length; start += SAMPLE_PARTITION_SIZE) {
+                    partitions.add(new SamplePartition(url, file, start, Math.min(start + SAMPLE_PARTITION_SIZE, length)));
+                }
+            } else {
+                partitions.add(new SamplePartition(url, null, 0, -1));
             }
+            return partitions;
         }
 
-        return mergedItems;
-    }
+        InputStream open() throws IOException {
+            return file != null ? new LineRangeInputStream(FileChannel.open(file.toPath()), start, end) : url.openStream();
+        }
 
-    private ObjectNode mergeObjectNodes(ObjectNode targetNode, ObjectNode updateNode) {
-        Iterator<String> fieldNames = updateNode.fieldNames();
-        while (fieldNames.hasNext()) {
+    }
 
-            String fieldName = fieldNames.next();
-            JsonNode targetValue = targetNode.get(fieldName);
-            JsonNode updateValue = updateNode.get(fieldName);
+    /**
+     * Reads the lines of a file that start at or after one position, and
+     * before another. Each line is read by exactly one of the streams for
+     * consecutive ranges.
+     */
+    private static final class LineRangeInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private final long end;
+        private final byte[] single = new byte[1];
+        private long position;
+        private boolean lineStart = true;
+        private boolean finished;
+
+        LineRangeInputStream(FileChannel channel, long start, long end) throws IOException {
+            this.channel = channel;
+            this.end = end;
+            if (start > 0) {
+                // skip the rest of the line that starts in the previous range
+                position = start - 1;
+                channel.position(position);
+                int b;
+                do {
+                    b = read();
+                } while (b != -1 && b != '\n');
+                lineStart = true;
+            }
+        }
 
-            if (targetValue == null) {
-                // Target node doesn't have this field from update node: just add it
-                targetNode.set(fieldName, updateValue);
+        @Override
+        public int read() throws IOException {
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
 
-            } else {
-                // Both nodes have the same field: merge the values
-                if (targetValue.isObject() && updateValue.isObject()) {
-                    // Both values are objects: recurse
-                    targetNode.set(fieldName, mergeObjectNodes((ObjectNode) targetValue, (ObjectNode) updateValue));
-                } else if (targetValue.isArray() && updateValue.isArray()) {
-                    // Both values are arrays: concatenate them to be merged later
-                    ((ArrayNode) targetValue).addAll((ArrayNode) updateValue);
-                } else if (!updateValue.isNull()) {
-                    // Values have different types and new value is not null: use the one from the update node
-                    targetNode.set(fieldName, updateValue);
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (finished || lineStart && position >= end) {
+                finished = true;
+                return -1;
+            }
+            int n = channel.read(ByteBuffer.wrap(b, off, len));
+            if (n <= 0) {
+                finished = true;
+                return -1;
+            }
+            // stop after the line that is being read when the range ends
+            for (int i = (int) Math.max(0, end - 1 - position); i < n; i++) {
+                if (b[off + i] == '\n') {
+                    n = i + 1;
+                    finished = true;
+                    break;
                 }
             }
+            position += n;
+            lineStart = b[off + n - 1] == '\n';
+            return n;
         }
 
-        return targetNode;
-    }
-
-    private ObjectNode simpleTypeSchema(JsonNode exampleValue) {
-        if (exampleValue.isNull()) {
-            return objectMapper.createObjectNode().putNull("type");
-        } else if (exampleValue.isLong()) {
-            // longs are 'integers' in schema terms
-            return objectMapper.createObjectNode().put("type", "integer").put("minimum", Long.MAX_VALUE);
-        } else if (exampleValue.isInt()) {
-            return objectMapper.createObjectNode().put("type", "integer");
-        } else if (exampleValue.isTextual()) {
-            return objectMapper.createObjectNode().put("type", "string");
-        } else if (exampleValue.isNumber()) {
-            return objectMapper.createObjectNode().put("type", "number");
-        } else if (exampleValue.isBoolean()) {
-            return objectMapper.createObjectNode().put("type", "boolean");
-        } else {
-            final var message = "Unsupported node of type='%s', class='%s' having value='%s'"
-                    .formatted(exampleValue.getNodeType(), exampleValue.getClass().getSimpleName(), exampleValue);
-            throw new UnsupportedOperationException(message);
+        @Override
+        public void close() throws IOException {
+            channel.close();
         }
+
     }
 
 }
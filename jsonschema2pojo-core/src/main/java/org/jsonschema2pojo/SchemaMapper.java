@@ -19,6 +19,7 @@ package org.jsonschema2pojo;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
+import java.util.Collections;
 
 import org.jsonschema2pojo.rules.RuleFactory;
 
@@ -83,15 +84,46 @@ public class SchemaMapper {
      */
     public JType generate(JCodeModel codeModel, String className, String packageName, URL schemaUrl) {
 
-        JPackage jpackage = codeModel._package(packageName);
+        return generate(codeModel, className, packageName, readSchema(schemaUrl));
 
-        ObjectNode schemaNode = readSchema(schemaUrl);
+    }
+
+    /**
+     * Adds generated types to the given code model, using a schema previously
+     * read by {@link #readSchema(URL)}.
+     *
+     * @param codeModel
+     *            the java code-generation context that should be used to
+     *            generated new types
+     * @param className
+     *            the name of the parent class the represented by this schema
+     * @param packageName
+     *            the target package that should be used for generated types
+     * @param schemaNode
+     *            the schema to be used as input
+     * @return The top-most type generated from the given schema
+     */
+    public JType generate(JCodeModel codeModel, String className, String packageName, ObjectNode schemaNode) {
+
+        JPackage jpackage = codeModel._package(packageName);
 
         return ruleFactory.getSchemaRule().apply(className, schemaNode, null, jpackage, new Schema(null, schemaNode, null));
 
     }
 
-    private ObjectNode readSchema(URL schemaUrl) {
+    /**
+     * Reads the schema found at the given location. When the source type is
+     * an example (JSON or YAML) the schema is inferred from the example
+     * content, and when it is a set of samples the schema is inferred from
+     * every sample. This method doesn't modify any generation state, so it may be
+     * called concurrently.
+     *
+     * @param schemaUrl
+     *            location of the schema (or example) to be read
+     * @return the schema that should be passed to
+     *         {@link #generate(JCodeModel, String, String, ObjectNode)}
+     */
+    public ObjectNode readSchema(URL schemaUrl) {
 
         switch (ruleFactory.getGenerationConfig().getSourceType()) {
             case JSONSCHEMA:
@@ -102,6 +134,8 @@ public class SchemaMapper {
             case JSON:
             case YAML:
                 return schemaGenerator.schemaFromExample(schemaUrl);
+            case JSONSAMPLES:
+                return schemaGenerator.schemaFromSamples(Collections.singletonList(schemaUrl));
             default:
                 throw new IllegalArgumentException("Unrecognised source type: " + ruleFactory.getGenerationConfig().getSourceType());
         }
@@ -128,6 +162,10 @@ public class SchemaMapper {
                 || ruleFactory.getGenerationConfig().getSourceType() == SourceType.YAML) {
             JsonNode jsonNode = objectMapper().readTree(json);
             schemaNode = schemaGenerator.schemaFromExample(jsonNode);
+        } else if (ruleFactory.getGenerationConfig().getSourceType() == SourceType.JSONSAMPLES) {
+            try (JsonParser parser = objectMapper().createParser(json)) {
+                schemaNode = schemaGenerator.schemaFromSamples(parser);
+            }
         } else {
             schemaNode = objectMapper().readTree(json);
         }
@@ -20,19 +20,44 @@ import static org.apache.commons.lang3.StringUtils.*;
 
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+
+import org.jsonschema2pojo.GenerationProfiler.Category;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+/**
+ * A store of the schemas read during generation, keyed by id. A store may be
+ * used by several threads at once. Each document is read and parsed exactly
+ * once (by the first thread that needs it, while other threads that need the
+ * same document wait for it), and threads reading different documents don't
+ * block each other.
+ */
 public class SchemaStore {
 
-    protected final Map<URI, Schema> schemas = new HashMap<>();
+    protected final Map<URI, Schema> schemas = new ConcurrentHashMap<>();
+
+    private final Map<URI, FutureTask<Schema>> documents = new ConcurrentHashMap<>();
 
     protected final FragmentResolver fragmentResolver = new FragmentResolver();
     protected final ContentResolver contentResolver;
     protected final RuleLogger logger;
 
+    private volatile GenerationProfiler profiler = GenerationProfiler.DISABLED;
+
     public SchemaStore() {
         this.contentResolver = new ContentResolver();
         this.logger = new NoopRuleLogger();
@@ -54,27 +79,160 @@ public class SchemaStore {
      *                                  that should act as path delimiters when resolving $ref fragments.
      * @return a schema object containing the contents of the given path
      */
-    public synchronized Schema create(URI id, String refFragmentPathDelimiters) {
+    public Schema create(URI id, String refFragmentPathDelimiters) {
 
-        URI normalizedId = id.normalize();
+        return profiler.measure(Category.SCHEMA_STORE, "SchemaStore.create", () -> {
+            URI normalizedId = id.normalize();
 
-        if (!schemas.containsKey(normalizedId)) {
+            Schema schema = schemas.get(normalizedId);
+            if (schema != null) {
+                return schema;
+            }
 
             URI baseId = removeFragment(id).normalize();
-            if (!schemas.containsKey(baseId)) {
-                logger.debug("Reading schema: " + baseId);
-                final JsonNode baseContent = contentResolver.resolve(baseId);
-                schemas.put(baseId, new Schema(baseId, baseContent, null));
-            }
+            final Schema baseSchema = getDocument(baseId);
 
-            final Schema baseSchema = schemas.get(baseId);
             if (normalizedId.toString().contains("#")) {
-                JsonNode childContent = fragmentResolver.resolve(baseSchema.getContent(), '#' + id.getFragment(), refFragmentPathDelimiters);
-                schemas.put(normalizedId, new Schema(normalizedId, childContent, baseSchema));
+                JsonNode childContent = resolveFragment(baseSchema.getContent(), '#' + id.getFragment(), refFragmentPathDelimiters);
+                return putIfAbsent(normalizedId, new Schema(normalizedId, childContent, baseSchema));
+            }
+
+            return baseSchema;
+        });
+    }
+
+    /**
+     * Gets the schema for a whole document, reading the document if this is
+     * the first time it has been requested. If another thread is already
+     * reading the document, waits for that thread to finish.
+     */
+    private Schema getDocument(URI baseId) {
+
+        Schema schema = schemas.get(baseId);
+        if (schema != null) {
+            return schema;
+        }
+
+        FutureTask<Schema> task = new FutureTask<>(() -> {
+            logger.debug("Reading schema: " + baseId);
+            return profiler.measure(Category.SCHEMA_STORE, "ContentResolver.resolve (" + baseId.getScheme() + ")",
+                    () -> putIfAbsent(baseId, new Schema(baseId, contentResolver.resolve(baseId), null)));
+        });
+
+        FutureTask<Schema> existingTask = documents.putIfAbsent(baseId, task);
+        if (existingTask == null) {
+            task.run();
+            existingTask = task;
+        }
+
+        try {
+            return existingTask.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading schema: " + baseId, e);
+        } catch (ExecutionException e) {
+            // allow a later request to try again (and report the problem again)
+            documents.remove(baseId, existingTask);
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
             }
+            throw new IllegalStateException("Failed to read schema: " + baseId, e.getCause());
         }
+    }
 
-        return schemas.get(normalizedId);
+    /**
+     * Adds a schema to the store, unless another thread has already added a
+     * schema with the same id.
+     *
+     * @return the schema held by the store for the id of the given schema
+     */
+    private Schema putIfAbsent(URI id, Schema schema) {
+        Schema existingSchema = schemas.putIfAbsent(id, schema);
+        return existingSchema != null ? existingSchema : schema;
+    }
+
+    /**
+     * Reads the documents with the given ids, and any documents they refer to
+     * using $ref, so that later calls to {@link #create(URI, String)} for
+     * these documents are served from this store. Documents are read and
+     * parsed concurrently using the given executor (documents that have
+     * already been read, or are being read by another thread, are not read
+     * again).
+     * <p>
+     * Documents that can't be read are skipped, any problem with them will be
+     * reported if and when they are needed for type generation.
+     *
+     * @param ids
+     *            the ids of the documents to read
+     * @param executor
+     *            the executor used to read and parse documents
+     */
+    public void preload(Collection<URI> ids, ExecutorService executor) {
+
+        CompletionService<List<URI>> completionService = new ExecutorCompletionService<>(executor);
+        Set<URI> requested = new HashSet<>();
+        int pending = 0;
+
+        for (URI id : ids) {
+            URI baseId = removeFragment(id).normalize();
+            if (requested.add(baseId)) {
+                completionService.submit(() -> preload(baseId));
+                pending++;
+            }
+        }
+
+        try {
+            while (pending > 0) {
+                List<URI> references = completionService.take().get();
+                pending--;
+                for (URI reference : references) {
+                    if (requested.add(reference)) {
+                        completionService.submit(() -> preload(reference));
+                        pending++;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to preload schemas", e.getCause());
+        }
+    }
+
+    private List<URI> preload(URI baseId) {
+
+        final JsonNode baseContent;
+        try {
+            baseContent = getDocument(baseId).getContent();
+        } catch (IllegalArgumentException e) {
+            logger.debug("Unable to preload schema: " + baseId);
+            return Collections.emptyList();
+        }
+
+        List<URI> references = new ArrayList<>();
+        findReferencedDocuments(baseId, baseContent, references);
+        return references;
+    }
+
+    private void findReferencedDocuments(URI baseId, JsonNode node, List<URI> references) {
+
+        if (node.isObject() && node.path("$ref").isTextual()) {
+            String path = substringBefore(stripEnd(node.get("$ref").asText(), "#?&/"), "#");
+            if (!path.isEmpty()) {
+                try {
+                    references.add(removeFragment(baseId.resolve(path)).normalize());
+                } catch (IllegalArgumentException e) {
+                    logger.debug("Unable to preload schema referenced as: " + path);
+                }
+            }
+        }
+
+        for (Iterator<JsonNode> children = node.elements(); children.hasNext();) {
+            findReferencedDocuments(baseId, children.next(), references);
+        }
     }
 
     protected URI removeFragment(URI id) {
@@ -132,25 +290,44 @@ public class SchemaStore {
         if (selfReferenceWithoutParentFile(parent, path) || substringBefore(stringId, "#").isEmpty()) {
             JsonNode parentContent = parent.getGrandParent().getContent();
 
-            if (schemas.containsKey(id)) {
-                return schemas.get(id);
-            } else {
-                Schema schema = new Schema(id, fragmentResolver.resolve(parentContent, path, refFragmentPathDelimiters), parent.getGrandParent());
-                schemas.put(id, schema);
+            Schema schema = schemas.get(id);
+            if (schema != null) {
                 return schema;
             }
+            return putIfAbsent(id, new Schema(id, resolveFragment(parentContent, path, refFragmentPathDelimiters), parent.getGrandParent()));
         }
 
         return create(id, refFragmentPathDelimiters);
 
     }
 
+    private JsonNode resolveFragment(JsonNode content, String path, String refFragmentPathDelimiters) {
+        return profiler.measure(Category.SCHEMA_STORE, "FragmentResolver.resolve", () -> fragmentResolver.resolve(content, path, refFragmentPathDelimiters));
+    }
+
     protected boolean selfReferenceWithoutParentFile(Schema parent, String path) {
         return parent != null && (parent.getId() == null || parent.getId().toString().startsWith("#/")) && path.startsWith("#");
     }
 
-    public synchronized void clearCache() {
+    /**
+     * Sets the profiler used to measure lookups, and the time spent reading
+     * documents and resolving fragments.
+     *
+     * @param profiler
+     *            the profiler
+     */
+    public void setProfiler(GenerationProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Removes all schemas from the store. This should not be called while
+     * other threads are using the store.
+     */
+    public void clearCache() {
         schemas.clear();
+        documents.clear();
+        fragmentResolver.clearCache();
     }
 
 }
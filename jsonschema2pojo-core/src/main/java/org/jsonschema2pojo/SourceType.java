@@ -43,5 +43,12 @@ public enum SourceType {
      * YAML documents, that represent an example of the kind of YAML (or JSON) data that
      * the generated Java types will be mapped to.
      */
-    YAML
+    YAML,
+
+    /**
+     * JSON documents that each contain any number of samples (e.g.
+     * newline-delimited JSON) of the kind of JSON data that the generated Java
+     * types will be mapped to. The schema is inferred from every sample.
+     */
+    JSONSAMPLES
 }
@@ -22,11 +22,14 @@ import static org.jsonschema2pojo.rules.PrimitiveTypes.*;
 import static org.jsonschema2pojo.util.TypeUtil.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import org.jsonschema2pojo.Annotator;
 import org.jsonschema2pojo.RuleLogger;
@@ -41,10 +44,12 @@ import org.jsonschema2pojo.util.AnnotationHelper;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.sun.codemodel.ClassType;
+import com.sun.codemodel.JArray;
 import com.sun.codemodel.JBlock;
 import com.sun.codemodel.JClass;
 import com.sun.codemodel.JClassAlreadyExistsException;
 import com.sun.codemodel.JClassContainer;
+import com.sun.codemodel.JCodeModel;
 import com.sun.codemodel.JConditional;
 import com.sun.codemodel.JDefinedClass;
 import com.sun.codemodel.JEnumConstant;
@@ -55,6 +60,7 @@ import com.sun.codemodel.JForEach;
 import com.sun.codemodel.JInvocation;
 import com.sun.codemodel.JMethod;
 import com.sun.codemodel.JMod;
+import com.sun.codemodel.JSwitch;
 import com.sun.codemodel.JType;
 import com.sun.codemodel.JVar;
 
@@ -150,7 +156,7 @@ public class EnumRule implements Rule<JClassContainer, JType> {
         EnumDefinition enumDefinition = buildEnumDefinition(nodeName, node, backingType);
 
         if(ruleFactory.getGenerationConfig() != null && ruleFactory.getGenerationConfig().isIncludeGeneratedAnnotation()) {
-            AnnotationHelper.addGeneratedAnnotation(ruleFactory.getGenerationConfig(), _enum);
+            AnnotationHelper.addGeneratedAnnotation(ruleFactory.getGenerationConfig(), _enum, ruleFactory.getTypeResolver());
         }
 
         JFieldVar valueField = addConstructorAndFields(enumDefinition, _enum);
@@ -343,14 +349,13 @@ public class EnumRule implements Rule<JClassContainer, JType> {
                     fqn = container.getPackage().name() + "." + fqn;
                 }
 
-                try {
-                    Class<?> existingClass = Thread.currentThread().getContextClassLoader().loadClass(fqn);
+                Class<?> existingClass = ruleFactory.getTypeResolver().resolve(fqn, Thread.currentThread().getContextClassLoader());
+                if (existingClass != null) {
                     throw new ClassAlreadyExistsException(container.owner().ref(existingClass));
-                } catch (ClassNotFoundException e) {
-                    JDefinedClass enumClass = container.owner()._class(fqn, ClassType.ENUM);
-                    ruleFactory.getLogger().debug("Adding " + enumClass.fullName());
-                    return enumClass;
                 }
+                JDefinedClass enumClass = container.owner()._class(fqn, ClassType.ENUM);
+                ruleFactory.getLogger().debug("Adding " + enumClass.fullName());
+                return enumClass;
             } else {
                 try {
                     JDefinedClass enumClass = container._class(JMod.PUBLIC, getEnumName(nodeName, node, container), ClassType.ENUM);
@@ -378,33 +383,158 @@ public class EnumRule implements Rule<JClassContainer, JType> {
         return valueField;
     }
 
+    /**
+     * Adds a static <code>fromValue</code> method, which finds the constant
+     * with the given value or throws an {@link IllegalArgumentException}. The
+     * lookup depends on the backing type: a switch for strings, an array
+     * indexed by value for integers that are close together, a binary search
+     * of the sorted values for other integers, and a map (see
+     * {@link #addQuickLookupMap(EnumDefinition, JDefinedClass)}) for any
+     * other type. The map is used for every type when a subclass overrides
+     * {@link #addQuickLookupMap(EnumDefinition, JDefinedClass)}.
+     */
     protected void addFactoryMethod(EnumDefinition enumDefinition, JDefinedClass _enum) {
 
         JType backingType = enumDefinition.getBackingType();
-        JFieldVar quickLookupMap = addQuickLookupMap(enumDefinition, _enum);
 
         JMethod fromValue = _enum.method(JMod.PUBLIC | JMod.STATIC, _enum, "fromValue");
         JVar valueParam = fromValue.param(backingType, "value");
 
         JBlock body = fromValue.body();
+
+        String unboxedType = backingType.unboxify().fullName();
+        if (overridesQuickLookupMap()) {
+            addMapLookup(enumDefinition, _enum, body, valueParam);
+        } else if (isString(backingType)) {
+            addSwitchLookup(enumDefinition, _enum, body, valueParam);
+        } else if (unboxedType.equals(int.class.getName()) || unboxedType.equals(long.class.getName())) {
+            addArrayLookup(enumDefinition, _enum, body, valueParam);
+        } else {
+            addMapLookup(enumDefinition, _enum, body, valueParam);
+        }
+
+        ruleFactory.getAnnotator().enumCreatorMethod(_enum, fromValue);
+    }
+
+    /**
+     * Checks whether a subclass customizes the map of values to constants,
+     * in which case the map is used for every backing type.
+     */
+    private boolean overridesQuickLookupMap() {
+        for (Class<?> type = getClass(); type != EnumRule.class; type = type.getSuperclass()) {
+            try {
+                type.getDeclaredMethod("addQuickLookupMap", EnumDefinition.class, JDefinedClass.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // not overridden by this class
+            }
+        }
+        return false;
+    }
+
+    private void addMapLookup(EnumDefinition enumDefinition, JDefinedClass _enum, JBlock body, JVar valueParam) {
+
+        JFieldVar quickLookupMap = addQuickLookupMap(enumDefinition, _enum);
+
         JVar constant = body.decl(_enum, "constant");
         constant.init(quickLookupMap.invoke("get").arg(valueParam));
 
         JConditional _if = body._if(constant.eq(JExpr._null()));
+        _if._then()._throw(newIllegalArgumentException(_enum, valueParam));
+        _if._else()._return(constant);
+    }
+
+    private void addSwitchLookup(EnumDefinition enumDefinition, JDefinedClass _enum, JBlock body, JVar valueParam) {
+
+        JSwitch _switch = body._if(valueParam.ne(JExpr._null()))._then()._switch(valueParam);
+        for (Map.Entry<String, String> constant : getConstantsByValue(enumDefinition).entrySet()) {
+            _switch._case(JExpr.lit(constant.getKey())).body()._return(_enum.staticRef(constant.getValue()));
+        }
 
+        body._throw(newIllegalArgumentException(_enum, valueParam));
+    }
+
+    /**
+     * Adds a lookup of integer values. When the values span no more than
+     * twice as many integers as there are constants, the constant is read
+     * from an array at the offset of the value from the smallest value.
+     * Otherwise, the value is found in a sorted array of values, and the
+     * constant is read from the same index of an array of constants.
+     */
+    private void addArrayLookup(EnumDefinition enumDefinition, JDefinedClass _enum, JBlock body, JVar valueParam) {
+
+        JCodeModel owner = _enum.owner();
+        boolean isLong = enumDefinition.getBackingType().unboxify().fullName().equals(long.class.getName());
+
+        TreeMap<Long, String> constants = new TreeMap<>();
+        for (Map.Entry<String, String> constant : getConstantsByValue(enumDefinition).entrySet()) {
+            constants.put(Long.parseLong(constant.getKey()), constant.getValue());
+        }
+
+        if (constants.isEmpty()) {
+            body._throw(newIllegalArgumentException(_enum, valueParam));
+            return;
+        }
+
+        JBlock lookup = enumDefinition.getBackingType().isPrimitive() ? body : body._if(valueParam.ne(JExpr._null()))._then();
+        JArray constantsArray = JExpr.newArray(_enum);
+        JFieldVar constantsField = _enum.field(JMod.PRIVATE | JMod.STATIC | JMod.FINAL, _enum.array(), "CONSTANTS", constantsArray);
+
+        long min = constants.firstKey();
+        long max = constants.lastKey();
+        if (max - min >= 0 && max - min < 2L * constants.size()) {
+            for (long offset = 0; offset <= max - min; offset++) {
+                String name = constants.get(min + offset);
+                constantsArray.add(name != null ? _enum.staticRef(name) : JExpr._null());
+            }
+
+            // add the magnitude of a negative minimum, as subtracting a negative literal would print as "value--3"
+            JExpression offset = min == 0 && !isLong ? valueParam : min < 0 ? valueParam.plus(literal(-min, isLong)) : valueParam.minus(literal(min, isLong));
+            JBlock inRange = lookup._if(valueParam.gte(literal(min, isLong)).cand(valueParam.lte(literal(max, isLong))))._then();
+            JVar constant = inRange.decl(_enum, "constant", constantsField.component(isLong ? JExpr.cast(owner.INT, offset) : offset));
+            inRange._if(constant.ne(JExpr._null()))._then()._return(constant);
+        } else {
+            JArray valuesArray = JExpr.newArray(isLong ? owner.LONG : owner.INT);
+            for (Map.Entry<Long, String> constant : constants.entrySet()) {
+                valuesArray.add(literal(constant.getKey(), isLong));
+                constantsArray.add(_enum.staticRef(constant.getValue()));
+            }
+            JFieldVar valuesField = _enum.field(JMod.PRIVATE | JMod.STATIC | JMod.FINAL, (isLong ? owner.LONG : owner.INT).array(), "CONSTANT_VALUES", valuesArray);
+
+            JVar index = lookup.decl(owner.INT, "index", owner.ref(Arrays.class).staticInvoke("binarySearch").arg(valuesField).arg(valueParam));
+            lookup._if(index.gte(JExpr.lit(0)))._then()._return(constantsField.component(index));
+        }
+
+        body._throw(newIllegalArgumentException(_enum, valueParam));
+    }
+
+    /**
+     * Finds the name of the constant for each value. Like a map of values to
+     * constants, the last constant with a value is used if more than one
+     * constant has the same value.
+     */
+    private static Map<String, String> getConstantsByValue(EnumDefinition enumDefinition) {
+        Map<String, String> constants = new LinkedHashMap<>();
+        for (EnumValueDefinition enumValueDefinition : enumDefinition.values()) {
+            constants.put(enumValueDefinition.getValue(), enumValueDefinition.getName());
+        }
+        return constants;
+    }
+
+    private static JExpression literal(long value, boolean isLong) {
+        return isLong ? JExpr.lit(value) : JExpr.lit((int) value);
+    }
+
+    private JInvocation newIllegalArgumentException(JDefinedClass _enum, JVar valueParam) {
         JInvocation illegalArgumentException = JExpr._new(_enum.owner().ref(IllegalArgumentException.class));
         JExpression expr = valueParam;
 
         // if string no need to add ""
-        if(!isString(backingType)){
+        if(!isString(valueParam.type())){
             expr = expr.plus(JExpr.lit(""));
         }
 
-        illegalArgumentException.arg(expr);
-        _if._then()._throw(illegalArgumentException);
-        _if._else()._return(constant);
-
-        ruleFactory.getAnnotator().enumCreatorMethod(_enum, fromValue);
+        return illegalArgumentException.arg(expr);
     }
 
     protected void addFieldAccessors(JDefinedClass _enum, JFieldVar valueField) {
@@ -416,6 +546,11 @@ public class EnumRule implements Rule<JClassContainer, JType> {
         ruleFactory.getAnnotator().enumValueMethod(_enum, fromValue);
     }
 
+    /**
+     * Adds a map of values to constants, used by <code>fromValue</code> for
+     * backing types that aren't strings or integers. Overriding this method
+     * makes <code>fromValue</code> use the map for every backing type.
+     */
     protected JFieldVar addQuickLookupMap(EnumDefinition enumDefinition, JDefinedClass _enum) {
 
         JType backingType = enumDefinition.getBackingType();
@@ -70,17 +70,11 @@ public class MinLengthMaxLengthRule implements Rule<JFieldVar, JFieldVar> {
             return true;
         }
 
-        try {
-            String typeName = field.type().boxify().erasure().fullName();
-
-            Class<?> fieldClass = Class.forName(typeName);
-            return String.class.isAssignableFrom(fieldClass)
-                    || Collection.class.isAssignableFrom(fieldClass)
-                    || Map.class.isAssignableFrom(fieldClass)
-                    || fieldClass.isArray();
-        } catch (ClassNotFoundException ignore) {
-            return false;
-        }
+        Class<?> fieldClass = ruleFactory.getTypeResolver().resolve(field.type().boxify().erasure());
+        return fieldClass != null && (String.class.isAssignableFrom(fieldClass)
+                || Collection.class.isAssignableFrom(fieldClass)
+                || Map.class.isAssignableFrom(fieldClass)
+                || fieldClass.isArray());
     }
 
 }
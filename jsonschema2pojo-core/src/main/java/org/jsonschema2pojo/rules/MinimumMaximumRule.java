@@ -64,15 +64,11 @@ public class MinimumMaximumRule implements Rule<JFieldVar, JFieldVar> {
     }
 
     private boolean isApplicableType(JFieldVar field) {
-        try {
-            Class<?> fieldClass = Class.forName(field.type().boxify().erasure().fullName());
-            // Support Strings and most number types except Double and Float, per docs on DecimalMax/Min annotations
-            return String.class.isAssignableFrom(fieldClass) ||
-                    (Number.class.isAssignableFrom(fieldClass) &&
-                            !Float.class.isAssignableFrom(fieldClass) && !Double.class.isAssignableFrom(fieldClass));
-        } catch (ClassNotFoundException ignore) {
-            return false;
-        }
+        Class<?> fieldClass = ruleFactory.getTypeResolver().resolve(field.type().boxify().erasure());
+        // Support Strings and most number types except Double and Float, per docs on DecimalMax/Min annotations
+        return fieldClass != null && (String.class.isAssignableFrom(fieldClass) ||
+                (Number.class.isAssignableFrom(fieldClass) &&
+                        !Float.class.isAssignableFrom(fieldClass) && !Double.class.isAssignableFrom(fieldClass)));
     }
 
 }
@@ -29,6 +29,7 @@ import java.util.Set;
 
 import org.jsonschema2pojo.AnnotationStyle;
 import org.jsonschema2pojo.Annotator;
+import org.jsonschema2pojo.GenerationProfiler.Category;
 import org.jsonschema2pojo.Schema;
 import org.jsonschema2pojo.exception.ClassAlreadyExistsException;
 import org.jsonschema2pojo.exception.GenerationException;
@@ -133,7 +134,7 @@ public class ObjectRule implements Rule<JPackage, JType> {
         }
        
         if (ruleFactory.getGenerationConfig().isIncludeGeneratedAnnotation()) {
-            AnnotationHelper.addGeneratedAnnotation(ruleFactory.getGenerationConfig(), jclass);
+            AnnotationHelper.addGeneratedAnnotation(ruleFactory.getGenerationConfig(), jclass, ruleFactory.getTypeResolver());
         }
         if (ruleFactory.getGenerationConfig().isIncludeToString()) {
             addToString(jclass);
@@ -154,7 +155,7 @@ public class ObjectRule implements Rule<JPackage, JType> {
         }
 
         if (ruleFactory.getGenerationConfig().isSerializable()) {
-            SerializableHelper.addSerializableSupport(jclass);
+            ruleFactory.getProfiler().measure(Category.HELPER, "SerializableHelper", () -> SerializableHelper.addSerializableSupport(jclass));
         }
 
         return jclass;
@@ -50,12 +50,8 @@ public class PatternRule implements Rule<JFieldVar, JFieldVar> {
     }
 
     private boolean isApplicableType(JFieldVar field) {
-        try {
-            Class<?> fieldClass = Class.forName(field.type().boxify().fullName());
-            return String.class.isAssignableFrom(fieldClass);
-        } catch (ClassNotFoundException ignore) {
-            return false;
-        }
+        Class<?> fieldClass = ruleFactory.getTypeResolver().resolve(field.type().boxify());
+        return fieldClass != null && String.class.isAssignableFrom(fieldClass);
     }
 
 }
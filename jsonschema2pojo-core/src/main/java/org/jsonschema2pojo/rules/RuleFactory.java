@@ -16,9 +16,14 @@
 
 package org.jsonschema2pojo.rules;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
 import org.jsonschema2pojo.Annotator;
 import org.jsonschema2pojo.DefaultGenerationConfig;
 import org.jsonschema2pojo.GenerationConfig;
+import org.jsonschema2pojo.GenerationProfiler;
 import org.jsonschema2pojo.Jackson2Annotator;
 import org.jsonschema2pojo.NoopRuleLogger;
 import org.jsonschema2pojo.RuleLogger;
@@ -26,6 +31,7 @@ import org.jsonschema2pojo.SchemaStore;
 import org.jsonschema2pojo.util.NameHelper;
 import org.jsonschema2pojo.util.ParcelableHelper;
 import org.jsonschema2pojo.util.ReflectionHelper;
+import org.jsonschema2pojo.util.TypeResolver;
 
 import com.sun.codemodel.JClass;
 import com.sun.codemodel.JClassContainer;
@@ -38,15 +44,23 @@ import com.sun.codemodel.JType;
 
 /**
  * Provides factory/creation methods for the code generation rules.
+ * <p>
+ * Each rule is created the first time it is requested and then reused, so
+ * rules must be stateless: anything a rule needs should be read from the
+ * factory (or the arguments to {@link Rule#apply}) when the rule is applied.
+ * Rules may be applied from several threads at once.
  */
 public class RuleFactory {
 
     private RuleLogger logger;
     private NameHelper nameHelper;
     private ReflectionHelper reflectionHelper;
+    private TypeResolver typeResolver;
     private GenerationConfig generationConfig;
     private Annotator annotator;
     private SchemaStore schemaStore;
+    private GenerationProfiler profiler = GenerationProfiler.DISABLED;
+    private final Map<Class<?>, Rule<?, ?>> rules = new ConcurrentHashMap<>();
 
     /**
      * Create a new rule factory with the given generation config options.
@@ -67,6 +81,7 @@ public class RuleFactory {
         this.schemaStore = schemaStore;
         this.nameHelper = new NameHelper(generationConfig);
         this.reflectionHelper = new ReflectionHelper(this);
+        this.typeResolver = new TypeResolver();
         this.logger = new NoopRuleLogger();
     }
 
@@ -86,7 +101,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "array" declaration.
      */
     public Rule<JPackage, JClass> getArrayRule() {
-        return new ArrayRule(this);
+        return cached(ArrayRule.class, ArrayRule::new);
     }
 
     /**
@@ -96,7 +111,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "description" declaration.
      */
     public Rule<JDocCommentable, JDocComment> getDescriptionRule() {
-        return new DescriptionRule();
+        return cached(DescriptionRule.class, factory -> new DescriptionRule());
     }
 
     /**
@@ -106,7 +121,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "$comment" declaration.
      */
     public Rule<JDocCommentable, JDocComment> getCommentRule() {
-        return new CommentRule();
+        return cached(CommentRule.class, factory -> new CommentRule());
     }
 
     /**
@@ -116,7 +131,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "enum" declaration.
      */
     public Rule<JClassContainer, JType> getEnumRule() {
-        return new EnumRule(this);
+        return cached(EnumRule.class, EnumRule::new);
     }
 
     /**
@@ -126,7 +141,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "format" declaration.
      */
     public Rule<JType, JType> getFormatRule() {
-        return new FormatRule(this);
+        return cached(FormatRule.class, FormatRule::new);
     }
 
     /**
@@ -136,7 +151,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "object" declaration.
      */
     public Rule<JPackage, JType> getObjectRule() {
-        return new ObjectRule(this, new ParcelableHelper(), reflectionHelper);
+        return cached(ObjectRule.class, factory -> new ObjectRule(factory, new ParcelableHelper(), factory.reflectionHelper));
     }
 
     /**
@@ -146,7 +161,7 @@ public class RuleFactory {
      */
     public Rule<JDefinedClass, JDefinedClass> getConstructorRule()
     {
-        return new ConstructorRule(this, reflectionHelper);
+        return cached(ConstructorRule.class, factory -> new ConstructorRule(factory, factory.reflectionHelper));
     }
 
     /**
@@ -155,7 +170,7 @@ public class RuleFactory {
      *
      * @return a schema rule that can handle the "required" declaration.
      */
-    public Rule<JDefinedClass, JDefinedClass> getRequiredArrayRule() { return new RequiredArrayRule(this); }
+    public Rule<JDefinedClass, JDefinedClass> getRequiredArrayRule() { return cached(RequiredArrayRule.class, RequiredArrayRule::new); }
 
     /**
      * Provides a rule instance that should be applied when a "properties"
@@ -164,7 +179,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "properties" declaration.
      */
     public Rule<JDefinedClass, JDefinedClass> getPropertiesRule() {
-        return new PropertiesRule(this);
+        return cached(PropertiesRule.class, PropertiesRule::new);
     }
 
     /**
@@ -175,7 +190,7 @@ public class RuleFactory {
      * @return a schema rule that can handle a property declaration.
      */
     public Rule<JDefinedClass, JDefinedClass> getPropertyRule() {
-        return new PropertyRule(this);
+        return cached(PropertyRule.class, PropertyRule::new);
     }
 
     /**
@@ -185,7 +200,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "required" declaration.
      */
     public Rule<JDocCommentable, JDocCommentable> getRequiredRule() {
-        return new RequiredRule(this);
+        return cached(RequiredRule.class, RequiredRule::new);
     }
 
     /**
@@ -195,7 +210,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "required" declaration.
      */
     public Rule<JDocCommentable, JDocCommentable> getNotRequiredRule() {
-        return new NotRequiredRule(this);
+        return cached(NotRequiredRule.class, NotRequiredRule::new);
     }
 
     /**
@@ -207,7 +222,7 @@ public class RuleFactory {
      *         given schema node.
      */
     public Rule<JClassContainer, JType> getTypeRule() {
-        return new TypeRule(this);
+        return cached(TypeRule.class, TypeRule::new);
     }
 
     /**
@@ -218,7 +233,7 @@ public class RuleFactory {
      *         declaration.
      */
     public Rule<JDefinedClass, JDefinedClass> getAdditionalPropertiesRule() {
-        return new AdditionalPropertiesRule(this);
+        return cached(AdditionalPropertiesRule.class, AdditionalPropertiesRule::new);
     }
 
     /**
@@ -228,7 +243,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "title" declaration.
      */
     public Rule<JDocCommentable, JDocComment> getTitleRule() {
-        return new TitleRule();
+        return cached(TitleRule.class, factory -> new TitleRule());
     }
 
     /**
@@ -238,7 +253,7 @@ public class RuleFactory {
      * @return a schema rule that can handle a schema declaration.
      */
     public Rule<JClassContainer, JType> getSchemaRule() {
-        return new SchemaRule(this);
+        return cached(SchemaRule.class, SchemaRule::new);
     }
 
     /**
@@ -249,7 +264,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "default" declaration.
      */
     public Rule<JFieldVar, JFieldVar> getDefaultRule() {
-        return new DefaultRule(this);
+        return cached(DefaultRule.class, DefaultRule::new);
     }
 
     /**
@@ -260,7 +275,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "default" declaration.
      */
     public Rule<JFieldVar, JFieldVar> getMinimumMaximumRule() {
-        return new MinimumMaximumRule(this);
+        return cached(MinimumMaximumRule.class, MinimumMaximumRule::new);
     }
 
     /**
@@ -271,7 +286,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "default" declaration.
      */
     public Rule<JFieldVar, JFieldVar> getMinItemsMaxItemsRule() {
-        return new MinItemsMaxItemsRule(this);
+        return cached(MinItemsMaxItemsRule.class, MinItemsMaxItemsRule::new);
     }
 
     /**
@@ -282,7 +297,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "default" declaration.
      */
     public Rule<JFieldVar, JFieldVar> getMinLengthMaxLengthRule() {
-        return new MinLengthMaxLengthRule(this);
+        return cached(MinLengthMaxLengthRule.class, MinLengthMaxLengthRule::new);
     }
 
     /**
@@ -293,7 +308,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "digits" declaration.
      */
     public Rule<JFieldVar, JFieldVar> getDigitsRule() {
-        return new DigitsRule(this);
+        return cached(DigitsRule.class, DigitsRule::new);
     }
 
     /**
@@ -303,7 +318,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "pattern" declaration.
      */
     public Rule<JFieldVar, JFieldVar> getPatternRule() {
-        return new PatternRule(this);
+        return cached(PatternRule.class, PatternRule::new);
     }
 
     /**
@@ -314,7 +329,7 @@ public class RuleFactory {
      * @return a schema rule that applies the {@code @Valid} annotation to types requiring cascading validation.
      */
     public Rule<JType, JType> getValidRule() {
-        return new ValidRule(this);
+        return cached(ValidRule.class, ValidRule::new);
     }
 
     /**
@@ -338,6 +353,8 @@ public class RuleFactory {
     public void setGenerationConfig(final GenerationConfig generationConfig) {
         this.generationConfig = generationConfig;
         this.nameHelper = new NameHelper(generationConfig);
+        // some rules read the configuration when they are created
+        this.rules.clear();
     }
 
     /**
@@ -417,6 +434,38 @@ public class RuleFactory {
         return reflectionHelper;
     }
 
+    /**
+     * Gets the profiler that measures the rules provided by this factory
+     *
+     * @return the profiler, {@link GenerationProfiler#DISABLED} unless
+     *         profiling has been requested
+     */
+    public GenerationProfiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * The profiler used to measure each application of the rules provided by
+     * this factory.
+     *
+     * @param profiler
+     *            the profiler
+     */
+    public void setProfiler(GenerationProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Gets the type resolver that rules use to load the Java classes they
+     * inspect. Classes are looked up once for each factory, whether or not
+     * they are found.
+     *
+     * @return a type resolver instance
+     */
+    public TypeResolver getTypeResolver() {
+        return typeResolver;
+    }
+
 
     /**
      * Provides a rule instance that should be applied when a "media"
@@ -425,7 +474,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "media" declaration.
      */
     public Rule<JType, JType> getMediaRule() {
-        return new MediaRule();
+        return cached(MediaRule.class, factory -> new MediaRule());
     }
 
     /**
@@ -435,15 +484,32 @@ public class RuleFactory {
      * @return a schema rule that adds 'dynamic' get and set methods to classes, to get and set by string property names.
      */
     public Rule<JDefinedClass, JDefinedClass> getDynamicPropertiesRule() {
-        return new DynamicPropertiesRule(this);
+        return cached(DynamicPropertiesRule.class, DynamicPropertiesRule::new);
     }
 
     public Rule<JDefinedClass, JDefinedClass> getBuilderRule(){
-        return new BuilderRule(this, reflectionHelper);
+        return cached(BuilderRule.class, factory -> new BuilderRule(factory, factory.reflectionHelper));
     }
 
     public Rule<JDocCommentable, JDocComment> getJavaNameRule() {
-        return new JavaNameRule();
+        return cached(JavaNameRule.class, factory -> new JavaNameRule());
+    }
+
+    /**
+     * Gets the rule of the given type, creating it if this factory hasn't
+     * created one yet, and measured by the profiler.
+     */
+    @SuppressWarnings("unchecked")
+    private <T, R> Rule<T, R> cached(Class<? extends Rule<T, R>> type, Function<RuleFactory, ? extends Rule<T, R>> create) {
+        Rule<T, R> rule = (Rule<T, R>) rules.get(type);
+        if (rule == null) {
+            rule = create.apply(this);
+            Rule<T, R> existing = (Rule<T, R>) rules.putIfAbsent(type, rule);
+            if (existing != null) {
+                rule = existing;
+            }
+        }
+        return profiler.profile(rule);
     }
 
 }
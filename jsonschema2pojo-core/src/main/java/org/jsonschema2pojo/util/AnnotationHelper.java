@@ -28,24 +28,25 @@ public class AnnotationHelper {
     private static final String JAVA_9_GENERATED = "javax.annotation.processing.Generated";
     private static final String GENERATOR_NAME = "jsonschema2pojo";
 
-    private static boolean tryToAnnotate(JDefinedClass jclass, String annotationClassName) {
-        try {
-            Class.forName(annotationClassName);
-            JClass annotationClass = jclass.owner().ref(annotationClassName);
-            JAnnotationUse generated = jclass.annotate(annotationClass);
-            generated.param("value", GENERATOR_NAME);
-            return true;
-        } catch (ClassNotFoundException e) {
+    private static boolean tryToAnnotate(JDefinedClass jclass, String annotationClassName, TypeResolver typeResolver) {
+        if (typeResolver.resolve(annotationClassName) == null) {
             return false;
         }
-
+        JClass annotationClass = jclass.owner().ref(annotationClassName);
+        JAnnotationUse generated = jclass.annotate(annotationClass);
+        generated.param("value", GENERATOR_NAME);
+        return true;
     }
 
     public static void addGeneratedAnnotation(GenerationConfig config, JDefinedClass jclass) {
+        addGeneratedAnnotation(config, jclass, new TypeResolver());
+    }
+
+    public static void addGeneratedAnnotation(GenerationConfig config, JDefinedClass jclass, TypeResolver typeResolver) {
         if (JavaVersion.is9OrLater(config.getTargetVersion())) {
-            tryToAnnotate(jclass, JAVA_9_GENERATED);
+            tryToAnnotate(jclass, JAVA_9_GENERATED, typeResolver);
         } else {
-            tryToAnnotate(jclass, JAVA_8_GENERATED);
+            tryToAnnotate(jclass, JAVA_8_GENERATED, typeResolver);
         }
     }
 
@@ -22,6 +22,9 @@ package org.jsonschema2pojo.util;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -33,16 +36,26 @@ import java.util.regex.Pattern;
  */
 public class Inflector {
 
+    private static final int MAX_CACHED_WORDS = 10000;
+
     private final List<RuleAndReplacement> plurals;
     private final List<RuleAndReplacement> singulars;
     private final List<String> uncountables;
 
+    private final RuleIndex pluralIndex;
+    private final RuleIndex singularIndex;
+
+    private final Map<String, String> pluralCache = new ConcurrentHashMap<>();
+    private final Map<String, String> singularCache = new ConcurrentHashMap<>();
+
     private static Inflector instance  = createDefaultBuilder().build();
 
     private Inflector(Builder builder) {
         plurals = Collections.unmodifiableList(builder.plurals);
         singulars = Collections.unmodifiableList(builder.singulars);
         uncountables = Collections.unmodifiableList(builder.uncountables);
+        pluralIndex = new RuleIndex(plurals);
+        singularIndex = new RuleIndex(singulars);
     }
 
     public static Inflector.Builder createDefaultBuilder()
@@ -121,19 +134,54 @@ public class Inflector {
     }
 
     public String pluralize(String word) {
+        return cached(pluralCache, word, w -> inflect(w, pluralIndex));
+    }
+
+    public String singularize(String word) {
+        return cached(singularCache, word, w -> inflect(w, singularIndex));
+    }
+
+    /**
+     * Pluralizes a word by trying every plural rule in turn, without the
+     * index or cache. Gives the same result as {@link #pluralize(String)}.
+     */
+    String pluralizeWithEveryRule(String word) {
         if (uncountables.contains(word.toLowerCase())) {
             return word;
         }
         return replaceWithFirstRule(word, plurals);
     }
 
-    public String singularize(String word) {
+    /**
+     * Singularizes a word by trying every singular rule in turn, without the
+     * index or cache. Gives the same result as {@link #singularize(String)}.
+     */
+    String singularizeWithEveryRule(String word) {
         if (uncountables.contains(word.toLowerCase())) {
             return word;
         }
         return replaceWithFirstRule(word, singulars);
     }
 
+    private String inflect(String word, RuleIndex index) {
+        if (uncountables.contains(word.toLowerCase())) {
+            return word;
+        }
+        return replaceWithFirstRule(word, index.candidates(word));
+    }
+
+    private static String cached(Map<String, String> words, String word, UnaryOperator<String> inflect) {
+        String inflected = words.get(word);
+        if (inflected == null) {
+            if (words.size() >= MAX_CACHED_WORDS) {
+                words.clear();
+            }
+            inflected = inflect.apply(word);
+            words.put(word, inflected);
+        }
+        return inflected;
+    }
+
     private static String replaceWithFirstRule(String word, List<RuleAndReplacement> ruleAndReplacements) {
 
         for (RuleAndReplacement rar : ruleAndReplacements) {
@@ -172,6 +220,174 @@ public class Inflector {
         }
     }
 
+    /**
+     * Groups rules by the last character of the words they can match, so that
+     * a word is only tested against the rules that could match it. Most rules
+     * are anchored to the end of the word and end in a letter (or a group of
+     * alternatives that each end in a letter); any other rule is tested
+     * against every word. Each group keeps the original order of the rules,
+     * so the first rule that matches is unchanged.
+     */
+    private static final class RuleIndex {
+
+        private final List<RuleAndReplacement> rules;
+        private final List<RuleAndReplacement> unindexed = new ArrayList<>();
+        private final List<List<RuleAndReplacement>> byLastCharacter = new ArrayList<>(128);
+
+        RuleIndex(List<RuleAndReplacement> rules) {
+            this.rules = rules;
+            for (int c = 0; c < 128; c++) {
+                byLastCharacter.add(new ArrayList<>());
+            }
+            for (RuleAndReplacement rule : rules) {
+                String lastCharacters = lastCharacters(rule.getPattern().pattern());
+                if (lastCharacters == null) {
+                    unindexed.add(rule);
+                }
+                for (int c = 0; c < 128; c++) {
+                    if (lastCharacters == null || lastCharacters.indexOf(toLowerCase((char) c)) >= 0) {
+                        byLastCharacter.get(c).add(rule);
+                    }
+                }
+            }
+        }
+
+        List<RuleAndReplacement> candidates(String word) {
+            if (word.isEmpty()) {
+                return unindexed;
+            }
+            char last = word.charAt(word.length() - 1);
+            if (isLineTerminator(last)) {
+                // '$' also matches before a final line terminator
+                return rules;
+            }
+            return last < 128 ? byLastCharacter.get(last) : unindexed;
+        }
+
+        /**
+         * @return the (lower case) characters that every match of the given
+         *         rule must end the word with, or <code>null</code> if the rule
+         *         can't be indexed
+         */
+        private static String lastCharacters(String rule) {
+            // flags, lookarounds and quoting could change what a letter matches
+            if (!rule.endsWith("$") || rule.endsWith("\\$") || rule.replace("(?:", "").contains("(?") || rule.contains("\\Q") || rule.contains("\\c")) {
+                return null;
+            }
+            String body = rule.substring(0, rule.length() - 1);
+            return alternatives(body) == null ? lastCharacters(body, 0, body.length()) : null;
+        }
+
+        private static String lastCharacters(String rule, int start, int end) {
+            if (end <= start) {
+                return null;
+            }
+            char last = rule.charAt(end - 1);
+            if (isAsciiLetter(last)) {
+                return isEscaped(rule, start, end - 1) ? null : String.valueOf(toLowerCase(last));
+            }
+            if (last != ')' || isEscaped(rule, start, end - 1)) {
+                return null;
+            }
+            int open = openingParenthesis(rule, start, end - 1);
+            if (open < 0) {
+                return null;
+            }
+            int groupStart = rule.startsWith("?:", open + 1) ? open + 3 : open + 1;
+            StringBuilder lastCharacters = new StringBuilder();
+            List<Integer> bars = alternatives(rule.substring(groupStart, end - 1));
+            int alternativeStart = groupStart;
+            if (bars != null) {
+                for (int bar : bars) {
+                    String alternative = lastCharacters(rule, alternativeStart, groupStart + bar);
+                    if (alternative == null) {
+                        return null;
+                    }
+                    lastCharacters.append(alternative);
+                    alternativeStart = groupStart + bar + 1;
+                }
+            }
+            String alternative = lastCharacters(rule, alternativeStart, end - 1);
+            return alternative == null ? null : lastCharacters.append(alternative).toString();
+        }
+
+        /**
+         * @return the positions of the '|' characters that separate the
+         *         top-level alternatives of the given expression, or
+         *         <code>null</code> if there is only one alternative
+         */
+        private static List<Integer> alternatives(String expression) {
+            List<Integer> bars = null;
+            int depth = 0;
+            int classDepth = 0;
+            for (int i = 0; i < expression.length(); i++) {
+                char c = expression.charAt(i);
+                if (c == '\\') {
+                    i++;
+                } else if (c == '[') {
+                    classDepth++;
+                } else if (c == ']' && classDepth > 0) {
+                    classDepth--;
+                } else if (classDepth == 0 && c == '(') {
+                    depth++;
+                } else if (classDepth == 0 && c == ')') {
+                    depth--;
+                } else if (classDepth == 0 && depth == 0 && c == '|') {
+                    if (bars == null) {
+                        bars = new ArrayList<>();
+                    }
+                    bars.add(i);
+                }
+            }
+            return bars;
+        }
+
+        /**
+         * @return the position of the '(' that the ')' at the given position
+         *         closes, or -1 if it can't be found
+         */
+        private static int openingParenthesis(String rule, int start, int close) {
+            List<Integer> open = new ArrayList<>();
+            int classDepth = 0;
+            for (int i = start; i < close; i++) {
+                char c = rule.charAt(i);
+                if (c == '\\') {
+                    i++;
+                } else if (c == '[') {
+                    classDepth++;
+                } else if (c == ']' && classDepth > 0) {
+                    classDepth--;
+                } else if (classDepth == 0 && c == '(') {
+                    open.add(i);
+                } else if (classDepth == 0 && c == ')' && !open.isEmpty()) {
+                    open.remove(open.size() - 1);
+                }
+            }
+            return classDepth == 0 && !open.isEmpty() ? open.get(open.size() - 1) : -1;
+        }
+
+        private static boolean isEscaped(String rule, int start, int position) {
+            int backslashes = 0;
+            for (int i = position - 1; i >= start && rule.charAt(i) == '\\'; i--) {
+                backslashes++;
+            }
+            return backslashes % 2 == 1;
+        }
+
+        private static boolean isAsciiLetter(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+        }
+
+        private static char toLowerCase(char c) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+
+        private static boolean isLineTerminator(char c) {
+            return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+        }
+
+    }
+
     public static class Builder
     {
         private List<RuleAndReplacement> plurals = new ArrayList<>();
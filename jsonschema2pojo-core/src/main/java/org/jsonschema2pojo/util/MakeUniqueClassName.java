@@ -40,4 +40,39 @@ public class MakeUniqueClassName {
             return className + "__1";
         }
     }
+
+    /**
+     * Applies {@link #makeUnique(String)} the given number of times, without
+     * creating each name in between.
+     *
+     * @param className
+     *            the class name to start from
+     * @param times
+     *            the number of times the class name was found
+     * @return the name that would be used once the class name has been found
+     *         the given number of times
+     */
+    public static String makeUnique(String className, int times) {
+
+        if (times == 0) {
+            return className;
+        }
+
+        final Matcher m = UNIQUE_NAMING_PATTERN.matcher(className);
+
+        if (!m.matches()) {
+            return makeUnique(className + "__1", times - 1);
+        }
+
+        final int number = Integer.parseInt(m.group(2));
+        if (number > Integer.MAX_VALUE - times) {
+            // the number overflows, so the name stops following the pattern
+            String name = className;
+            for (int i = 0; i < times; i++) {
+                name = makeUnique(name);
+            }
+            return name;
+        }
+        return m.group(1) + (number + times);
+    }
 }
@@ -20,23 +20,40 @@ import static java.lang.Character.*;
 import static javax.lang.model.SourceVersion.*;
 import static org.apache.commons.lang3.StringUtils.*;
 
-import org.apache.commons.lang3.Strings;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
 import org.apache.commons.text.WordUtils;
 import org.jsonschema2pojo.GenerationConfig;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.sun.codemodel.JClass;
-import com.sun.codemodel.JClassAlreadyExistsException;
 import com.sun.codemodel.JDefinedClass;
 import com.sun.codemodel.JPackage;
 import com.sun.codemodel.JType;
 
+/**
+ * Creates Java names for the types, fields and methods generated from a
+ * schema.
+ * <p>
+ * Names are built by scanning each name once, and the names derived from
+ * each property name are remembered (the same property names are often found
+ * in many schemas). A helper may be used by several threads at once.
+ */
 public class NameHelper {
 
     public static final String ILLEGAL_CHARACTER_REGEX = "[^0-9a-zA-Z_$]";
 
+    private static final int MAX_CACHED_NAMES = 10000;
+
     private final GenerationConfig generationConfig;
 
+    private volatile NameCache nameCache = new NameCache(null);
+
+    private final UniqueClassNames uniqueClassNames = new UniqueClassNames();
+
     public NameHelper(GenerationConfig generationConfig) {
         this.generationConfig = generationConfig;
     }
@@ -46,7 +63,27 @@ public class NameHelper {
     }
 
     public String replaceIllegalCharacters(String name) {
-        return name.replaceAll(ILLEGAL_CHARACTER_REGEX, "_");
+        int length = name.length();
+        int i = 0;
+        while (i < length && isLegalCharacter(name.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return name;
+        }
+
+        // like ILLEGAL_CHARACTER_REGEX, each illegal code point becomes a single underscore
+        StringBuilder replaced = new StringBuilder(length).append(name, 0, i);
+        while (i < length) {
+            int codePoint = name.codePointAt(i);
+            replaced.append(isLegalCharacter(codePoint) ? (char) codePoint : '_');
+            i += charCount(codePoint);
+        }
+        return replaced.toString();
+    }
+
+    private static boolean isLegalCharacter(int c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_' || c == '$';
     }
 
     public String normalizeName(String name) {
@@ -62,13 +99,67 @@ public class NameHelper {
     public String capitalizeTrailingWords(String name) {
         char[] wordDelimiters = generationConfig.getPropertyWordDelimiters();
 
-        if (Strings.CS.equals(name, "_")) {
+        if ("_".equals(name)) {
           return "__";
         }
 
-        if (containsAny(name, wordDelimiters)) {
+        boolean containsDelimiter = false;
+        boolean allUpperCase = true;
+        boolean ascii = true;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean delimiter = wordDelimiters != null && contains(wordDelimiters, c);
+            containsDelimiter |= delimiter;
+            allUpperCase &= delimiter || !isLowerCase(c);
+            ascii &= c < 0x80;
+        }
+
+        if (!ascii) {
+            return capitalizeTrailingWords(name, wordDelimiters, containsAny(name, wordDelimiters), allUpperCase);
+        }
+
+        if (containsDelimiter) {
+            // the first character is kept as it is, the first character of each following word is capitalized
+            String words = allUpperCase ? name.toLowerCase() : name;
+            if (words.length() != name.length()) {
+                return capitalizeTrailingWords(name, wordDelimiters, containsDelimiter, allUpperCase);
+            }
+            StringBuilder capitalized = new StringBuilder(name.length());
+            boolean capitalizeNext = contains(wordDelimiters, words.charAt(0));
+            if (!contains(wordDelimiters, name.charAt(0))) {
+                capitalized.append(name.charAt(0));
+            }
+            for (int i = 1; i < words.length(); i++) {
+                char c = words.charAt(i);
+                if (contains(wordDelimiters, c)) {
+                    capitalizeNext = true;
+                    continue;
+                }
+                if (capitalizeNext) {
+                    c = toTitleCase(c);
+                    capitalizeNext = false;
+                }
+                if (!contains(wordDelimiters, c)) {
+                    capitalized.append(c);
+                }
+            }
+            return capitalized.toString();
+        } else if (allUpperCase) {
+            return WordUtils.capitalizeFully(name, wordDelimiters);
+        }
+
+        return name;
+    }
+
+    /**
+     * Capitalizes the words in a name that contains characters other than
+     * ASCII, where characters may be surrogate pairs and case conversion may
+     * change the length of the name.
+     */
+    private String capitalizeTrailingWords(String name, char[] wordDelimiters, boolean containsDelimiter, boolean allUpperCase) {
+        if (containsDelimiter) {
             String capitalizedNodeName;
-            if (areAllWordsUpperCaseBesideDelimiters(name, wordDelimiters)) {
+            if (allUpperCase) {
                 capitalizedNodeName = WordUtils.capitalizeFully(name, wordDelimiters);
             } else {
                 capitalizedNodeName = WordUtils.capitalize(name, wordDelimiters);
@@ -78,21 +169,20 @@ public class NameHelper {
             for (char c : wordDelimiters) {
                 name = remove(name, c);
             }
-        } else if (areAllWordsUpperCaseBesideDelimiters(name, wordDelimiters)) {
+        } else if (allUpperCase) {
             name = WordUtils.capitalizeFully(name, wordDelimiters);
         }
 
         return name;
     }
 
-    private boolean areAllWordsUpperCaseBesideDelimiters(String words, char... delimiters) {
-        char[] wordChars = words.toCharArray();
-        for (char c : wordChars) {
-            if (!containsAny("" + c, delimiters) && Character.isLowerCase(c)) {
-                return false;
+    private static boolean contains(char[] chars, char c) {
+        for (char candidate : chars) {
+            if (candidate == c) {
+                return true;
             }
         }
-        return true;
+        return false;
     }
 
     private String makeLowerCamelCase(String name) {
@@ -109,8 +199,10 @@ public class NameHelper {
      * @return a safe, appropriate Java field name
      */
     public String getPropertyName(String jsonFieldName, JsonNode node) {
-        jsonFieldName = getFieldName(jsonFieldName, node);
+        return cached(nameCache().propertyNames, getFieldName(jsonFieldName, node), this::createPropertyName);
+    }
 
+    private String createPropertyName(String jsonFieldName) {
         jsonFieldName = replaceIllegalCharacters(jsonFieldName);
         jsonFieldName = normalizeName(jsonFieldName);
         jsonFieldName = makeLowerCamelCase(jsonFieldName);
@@ -200,7 +292,7 @@ public class NameHelper {
                 propertyName = node.get("javaName").textValue();
             } else if (generationConfig.isUseTitleAsClassname() && node.has("title")) {
                 String title = node.get("title").textValue();
-                propertyName = WordUtils.capitalize(title).replaceAll(" ", "");
+                propertyName = remove(WordUtils.capitalize(title), ' ');
             }
         }
 
@@ -236,10 +328,33 @@ public class NameHelper {
     }
 
     private String getPropertyNameForAccessor(String jsonPropertyName, JsonNode node) {
-        jsonPropertyName = getFieldName(jsonPropertyName, node);
-        jsonPropertyName = replaceIllegalCharacters(jsonPropertyName);
-        jsonPropertyName = capitalizeTrailingWords(jsonPropertyName);
-        return jsonPropertyName;
+        return cached(nameCache().accessorNames, getFieldName(jsonPropertyName, node), name -> capitalizeTrailingWords(replaceIllegalCharacters(name)));
+    }
+
+    /**
+     * @return the names cached for the word delimiters that are currently
+     *         configured
+     */
+    private NameCache nameCache() {
+        char[] wordDelimiters = generationConfig.getPropertyWordDelimiters();
+        NameCache cache = nameCache;
+        if (!Arrays.equals(cache.wordDelimiters, wordDelimiters)) {
+            cache = new NameCache(wordDelimiters == null ? null : wordDelimiters.clone());
+            nameCache = cache;
+        }
+        return cache;
+    }
+
+    private static String cached(Map<String, String> names, String name, UnaryOperator<String> createName) {
+        String cachedName = names.get(name);
+        if (cachedName == null) {
+            if (names.size() >= MAX_CACHED_NAMES) {
+                names.clear();
+            }
+            cachedName = createName.apply(name);
+            names.put(name, cachedName);
+        }
+        return cachedName;
     }
 
     public String getBaseBuilderClassName(JClass outerClass) {
@@ -287,12 +402,21 @@ public class NameHelper {
     }
 
     private String makeUnique(String className, JPackage _package) {
-        try {
-            JDefinedClass _class = _package._class(className);
-            _package.remove(_class);
-            return className;
-        } catch (JClassAlreadyExistsException e) {
-            return makeUnique(MakeUniqueClassName.makeUnique(className), _package);
+        return uniqueClassNames.makeUnique(className, _package);
+    }
+
+    /**
+     * Names derived from property names, for one set of word delimiters.
+     */
+    private static class NameCache {
+
+        private final char[] wordDelimiters;
+        private final Map<String, String> propertyNames = new ConcurrentHashMap<>();
+        private final Map<String, String> accessorNames = new ConcurrentHashMap<>();
+
+        NameCache(char[] wordDelimiters) {
+            this.wordDelimiters = wordDelimiters;
         }
+
     }
 }
@@ -120,12 +120,10 @@ public class ReflectionHelper {
   }
 
   public boolean isFinal(JType superType) {
-    try {
-      Class<?> javaClass = Class.forName(superType.fullName());
-      return Modifier.isFinal(javaClass.getModifiers());
-    } catch (ClassNotFoundException e) {
-      return false;
-    }
+    Class<?> javaClass = superType instanceof JClass
+        ? ruleFactory.getTypeResolver().resolve((JClass) superType)
+        : ruleFactory.getTypeResolver().resolve(superType.fullName());
+    return javaClass != null && Modifier.isFinal(javaClass.getModifiers());
   }
 
   /**
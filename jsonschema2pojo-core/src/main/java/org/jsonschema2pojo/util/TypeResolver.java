@@ -0,0 +1,90 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.util;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JDefinedClass;
+
+/**
+ * Loads the Java classes that rules inspect to decide what code to generate
+ * (for example, whether a field type is a number, or a super type is final).
+ * <p>
+ * Many of the types that rules see are generated, so they can't be loaded.
+ * Each name is looked up once per class loader, whether or not it is found,
+ * and types defined in the code model aren't looked up at all.
+ */
+public class TypeResolver {
+
+    private final Map<ClassLoader, Map<String, Optional<Class<?>>>> classes = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Loads the class of the given type, using the class loader that loaded
+     * jsonschema2pojo.
+     *
+     * @param type
+     *            the type to load
+     * @return the class, or <code>null</code> if the type is defined in the
+     *         code model or can't be loaded
+     */
+    public Class<?> resolve(JClass type) {
+        if (type instanceof JDefinedClass) {
+            return null;
+        }
+        return resolve(type.fullName());
+    }
+
+    /**
+     * Loads a class by name, using the class loader that loaded
+     * jsonschema2pojo.
+     *
+     * @param className
+     *            the fully qualified name of the class
+     * @return the class, or <code>null</code> if it can't be loaded
+     */
+    public Class<?> resolve(String className) {
+        return resolve(className, TypeResolver.class.getClassLoader());
+    }
+
+    /**
+     * Loads a class by name, using the given class loader.
+     *
+     * @param className
+     *            the fully qualified name of the class
+     * @param classLoader
+     *            the class loader to load the class with
+     * @return the class, or <code>null</code> if it can't be loaded
+     */
+    public Class<?> resolve(String className, ClassLoader classLoader) {
+        Map<String, Optional<Class<?>>> loaded = classes.computeIfAbsent(classLoader, l -> new ConcurrentHashMap<>());
+        return loaded.computeIfAbsent(className, name -> load(name, classLoader)).orElse(null);
+    }
+
+    private static Optional<Class<?>> load(String className, ClassLoader classLoader) {
+        try {
+            return Optional.of(Class.forName(className, false, classLoader));
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+}
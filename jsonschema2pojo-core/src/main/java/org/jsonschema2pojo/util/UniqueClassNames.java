@@ -0,0 +1,75 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.sun.codemodel.JClassAlreadyExistsException;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JPackage;
+
+/**
+ * Finds class names that aren't yet taken in a package. The name found is
+ * the same as applying {@link MakeUniqueClassName#makeUnique(String)} until
+ * the name is free, but for each package and class name the number of names
+ * already found to be taken is remembered, so the search resumes where it
+ * previously ended rather than starting again.
+ * <p>
+ * Classes are expected to be added to packages, not removed. If the last
+ * name that was found to be taken has been removed, the search starts again
+ * from the beginning.
+ * <p>
+ * Names may be found for several packages at once, from different threads.
+ */
+class UniqueClassNames {
+
+    private final Map<JPackage, Map<String, Integer>> takenNames = Collections.synchronizedMap(new WeakHashMap<>());
+
+    String makeUnique(String className, JPackage _package) {
+
+        Map<String, Integer> takenNamesInPackage = takenNames.computeIfAbsent(_package, p -> new HashMap<>());
+
+        synchronized (takenNamesInPackage) {
+            int taken = takenNamesInPackage.getOrDefault(className, 0);
+            if (taken > 0 && !isTaken(MakeUniqueClassName.makeUnique(className, taken - 1), _package)) {
+                taken = 0;
+            }
+
+            String uniqueName = MakeUniqueClassName.makeUnique(className, taken);
+            while (isTaken(uniqueName, _package)) {
+                uniqueName = MakeUniqueClassName.makeUnique(className, ++taken);
+            }
+
+            takenNamesInPackage.put(className, taken);
+            return uniqueName;
+        }
+    }
+
+    private static boolean isTaken(String className, JPackage _package) {
+        try {
+            JDefinedClass _class = _package._class(className);
+            _package.remove(_class);
+            return false;
+        } catch (JClassAlreadyExistsException e) {
+            return true;
+        }
+    }
+
+}
@@ -16,15 +16,18 @@
 
 package org.jsonschema2pojo;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.File;
 import java.net.URI;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
@@ -43,6 +46,9 @@ public class ContentResolverNetworkTest {
             .build();
 
     private final ContentResolver resolver = new ContentResolver();
+
+    @TempDir
+    public File cacheDirectory;
     
     @Test
     public void brokenLinkCausesIllegalArgumentException() {
@@ -63,4 +69,99 @@ public class ContentResolverNetworkTest {
         assertThat(uriContent.path("description").asText().length(), is(greaterThan(0)));
     }
 
+    @Test
+    public void cachedDocumentIsRevalidatedWithConditionalRequest() {
+        server.stubFor(get(urlEqualTo("/cached.json"))
+                .willReturn(aResponse().withHeader("ETag", "\"v1\"").withBody("{\"version\": 1}")));
+        server.stubFor(get(urlEqualTo("/cached.json")).withHeader("If-None-Match", equalTo("\"v1\""))
+                .willReturn(aResponse().withStatus(304)));
+
+        URI uri = URI.create("http://" + ADDRESS + ":" + server.getPort() + "/cached.json");
+
+        assertThat(cachingResolver(false).resolve(uri).path("version").asInt(), is(1));
+        assertThat(cachingResolver(false).resolve(uri).path("version").asInt(), is(1));
+
+        server.verify(1, getRequestedFor(urlEqualTo("/cached.json")).withoutHeader("If-None-Match"));
+        server.verify(1, getRequestedFor(urlEqualTo("/cached.json")).withHeader("If-None-Match", equalTo("\"v1\"")));
+    }
+
+    @Test
+    public void modifiedDocumentReplacesCachedDocument() {
+        server.stubFor(get(urlEqualTo("/modified.json"))
+                .willReturn(aResponse().withHeader("Last-Modified", "Mon, 01 Jan 2024 00:00:00 GMT").withBody("{\"version\": 1}")));
+
+        URI uri = URI.create("http://" + ADDRESS + ":" + server.getPort() + "/modified.json");
+        assertThat(cachingResolver(false).resolve(uri).path("version").asInt(), is(1));
+
+        server.stubFor(get(urlEqualTo("/modified.json")).withHeader("If-Modified-Since", equalTo("Mon, 01 Jan 2024 00:00:00 GMT"))
+                .willReturn(aResponse().withHeader("Last-Modified", "Tue, 02 Jan 2024 00:00:00 GMT").withBody("{\"version\": 2}")));
+
+        assertThat(cachingResolver(false).resolve(uri).path("version").asInt(), is(2));
+        assertThat(cachingResolver(true).resolve(uri).path("version").asInt(), is(2));
+    }
+
+    @Test
+    public void offlineResolverUsesCacheWithoutNetworkRequests() {
+        server.stubFor(get(urlEqualTo("/offline.json")).willReturn(aResponse().withBody("{\"version\": 1}")));
+
+        URI uri = URI.create("http://" + ADDRESS + ":" + server.getPort() + "/offline.json");
+        cachingResolver(false).resolve(uri);
+        server.resetRequests();
+
+        assertThat(cachingResolver(true).resolve(uri).path("version").asInt(), is(1));
+        server.verify(0, getRequestedFor(urlEqualTo("/offline.json")));
+    }
+
+    @Test
+    public void offlineResolverFailsForDocumentThatIsNotCached() {
+        URI uri = URI.create("http://" + ADDRESS + ":" + server.getPort() + "/address.json");
+
+        assertThrows(IllegalArgumentException.class, () -> cachingResolver(true).resolve(uri));
+        server.verify(0, getRequestedFor(urlEqualTo("/address.json")));
+    }
+
+    @Test
+    public void cachedDocumentIsUsedWhenServerFails() {
+        server.stubFor(get(urlEqualTo("/unavailable.json")).willReturn(aResponse().withBody("{\"version\": 1}")));
+
+        URI uri = URI.create("http://" + ADDRESS + ":" + server.getPort() + "/unavailable.json");
+        cachingResolver(false).resolve(uri);
+
+        server.stubFor(get(urlEqualTo("/unavailable.json")).willReturn(aResponse().withStatus(503)));
+
+        assertThat(cachingResolver(false).resolve(uri).path("version").asInt(), is(1));
+        assertThrows(IllegalArgumentException.class, () -> resolver.resolve(uri));
+    }
+
+    @Test
+    public void cachedDocumentIsNotUsedWhenDocumentIsGone() {
+        server.stubFor(get(urlEqualTo("/gone.json")).willReturn(aResponse().withBody("{\"version\": 1}")));
+
+        URI uri = URI.create("http://" + ADDRESS + ":" + server.getPort() + "/gone.json");
+        cachingResolver(false).resolve(uri);
+
+        server.stubFor(get(urlEqualTo("/gone.json")).willReturn(aResponse().withStatus(404)));
+
+        assertThrows(IllegalArgumentException.class, () -> cachingResolver(false).resolve(uri));
+    }
+
+    private ContentResolver cachingResolver(final boolean offline) {
+        return new ContentResolver(null, new DefaultGenerationConfig() {
+            @Override
+            public File getRemoteCacheDirectory() {
+                return cacheDirectory;
+            }
+
+            @Override
+            public boolean isOffline() {
+                return offline;
+            }
+
+            @Override
+            public int getRemoteTimeout() {
+                return 5000;
+            }
+        });
+    }
+
 }
@@ -135,4 +135,58 @@ public class FragmentResolverTest {
         assertThrows(IllegalArgumentException.class, () -> resolver.resolve(root, "#/a/b", "#/."));
     }
 
+    @Test
+    public void errorMessagesNameTheUnresolvablePart() {
+        ObjectNode root = new ObjectMapper().createObjectNode();
+        root.set("a", root.arrayNode().add(root.objectNode()));
+
+        IllegalArgumentException missing = assertThrows(IllegalArgumentException.class, () -> resolver.resolve(root, "#/a/0/b~1c", "#/."));
+        assertThat(missing.getMessage(), is("Path not present: b/c"));
+
+        IllegalArgumentException notAnIndex = assertThrows(IllegalArgumentException.class, () -> resolver.resolve(root, "#/a/x", "#/."));
+        assertThat(notAnIndex.getMessage(), is("Not a valid array index: x"));
+    }
+
+    @Test
+    public void escapedPartsAreNotConfusedWithNestedPaths() {
+        ObjectNode root = new ObjectMapper().createObjectNode();
+
+        ObjectNode a = root.objectNode();
+        ObjectNode b = root.objectNode();
+        ObjectNode ab = root.objectNode();
+        root.set("a", a);
+        a.set("b", b);
+        root.set("a/b", ab);
+
+        assertThat(resolver.resolve(root, "#/a/b", "#/."), is(sameInstance(b)));
+        assertThat(resolver.resolve(root, "#/a~1b", "#/."), is(sameInstance(ab)));
+        assertThat(resolver.resolve(root, "#/a/b", "#/."), is(sameInstance(b)));
+    }
+
+    @Test
+    public void pathsAreResolvedSeparatelyForEachDocument() {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode first = mapper.createObjectNode();
+        ObjectNode second = mapper.createObjectNode();
+        first.set("a", first.objectNode().put("value", 1));
+        second.set("a", second.objectNode().put("value", 1));
+
+        assertThat(resolver.resolve(first, "#/a", "#/."), is(sameInstance(first.get("a"))));
+        assertThat(resolver.resolve(second, "#/a", "#/."), is(sameInstance(second.get("a"))));
+        assertThat(resolver.resolve(first, "#/a/value", "#/.").intValue(), is(1));
+    }
+
+    @Test
+    public void delimitersAreTakenIntoAccountWhenReusingPaths() {
+        ObjectNode root = new ObjectMapper().createObjectNode();
+
+        ObjectNode ab = root.objectNode();
+        ObjectNode b = root.objectNode();
+        root.set("a.b", ab);
+        root.set("a", root.objectNode().set("b", b));
+
+        assertThat(resolver.resolve(root, "#/a.b", "#/"), is(sameInstance(ab)));
+        assertThat(resolver.resolve(root, "#/a.b", "#/."), is(sameInstance(b)));
+    }
+
 }
@@ -0,0 +1,288 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GenerationManifestTest {
+
+    @TempDir
+    public File root;
+
+    private File targetDirectory;
+    private List<URL> sources;
+
+    @BeforeEach
+    public void writeSchemas() throws IOException {
+        targetDirectory = new File(root, "target");
+        targetDirectory.mkdirs();
+
+        write("common/address.json", "{\"type\":\"object\",\"properties\":{\"street\":{\"type\":\"string\"}}}");
+        write("schemas/person.json", "{\"type\":\"object\",\"properties\":{\"address\":{\"$ref\":\"../common/address.json\"}}}");
+        write("schemas/company.json", "{\"type\":\"object\",\"properties\":{\"office\":{\"$ref\":\"../common/address.json#\"}}}");
+        write("schemas/colour.json", "{\"type\":\"string\",\"enum\":[\"red\",\"green\"]}");
+
+        sources = Arrays.asList(
+                new File(root, "schemas/person.json").toURI().toURL(),
+                new File(root, "schemas/company.json").toURI().toURL(),
+                new File(root, "schemas/colour.json").toURI().toURL());
+    }
+
+    @Test
+    public void allSourcesAreAffectedWithoutPreviousManifest() {
+
+        GenerationManifest manifest = GenerationManifest.create(new DefaultGenerationConfig(), new ContentResolver(), sources, null);
+
+        assertThat(manifest.getAffectedSources(null, targetDirectory), is(nullValue()));
+        assertThat(GenerationManifest.read(targetDirectory), is(nullValue()));
+    }
+
+    @Test
+    public void noSourcesAreAffectedWhenNothingHasChanged() throws IOException {
+
+        GenerationManifest previous = writeManifest(new DefaultGenerationConfig());
+
+        GenerationManifest manifest = GenerationManifest.create(new DefaultGenerationConfig(), new ContentResolver(), sources, GenerationManifest.read(targetDirectory));
+
+        assertThat(manifest.getAffectedSources(previous, targetDirectory), is(empty()));
+        assertThat(manifest.getAffectedSources(GenerationManifest.read(targetDirectory), targetDirectory), is(empty()));
+    }
+
+    @Test
+    public void changeToReferencedDocumentAffectsAllSourcesThatReferenceIt() throws IOException {
+
+        writeManifest(new DefaultGenerationConfig());
+        write("common/address.json", "{\"type\":\"object\",\"properties\":{\"street\":{\"type\":\"string\"},\"city\":{\"type\":\"string\"}}}");
+
+        GenerationManifest previous = GenerationManifest.read(targetDirectory);
+        GenerationManifest manifest = GenerationManifest.create(new DefaultGenerationConfig(), new ContentResolver(), sources, previous);
+
+        assertThat(manifest.getAffectedSources(previous, targetDirectory), containsInAnyOrder(sources.get(0).toString(), sources.get(1).toString()));
+    }
+
+    @Test
+    public void changeToSourceAffectsOnlySourcesThatShareItsDependencies() throws IOException {
+
+        writeManifest(new DefaultGenerationConfig());
+        write("schemas/colour.json", "{\"type\":\"string\",\"enum\":[\"red\",\"green\",\"blue\"]}");
+        write("schemas/person.json", "{\"type\":\"object\",\"properties\":{\"name\":{\"type\":\"string\"},\"address\":{\"$ref\":\"../common/address.json\"}}}");
+
+        GenerationManifest previous = GenerationManifest.read(targetDirectory);
+        GenerationManifest manifest = GenerationManifest.create(new DefaultGenerationConfig(), new ContentResolver(), sources, previous);
+
+        assertThat(manifest.getAffectedSources(previous, targetDirectory), containsInAnyOrder(sources.get(0).toString(), sources.get(1).toString(), sources.get(2).toString()));
+
+        writeManifest(new DefaultGenerationConfig());
+        write("schemas/colour.json", "{\"type\":\"string\",\"enum\":[\"red\"]}");
+
+        previous = GenerationManifest.read(targetDirectory);
+        manifest = GenerationManifest.create(new DefaultGenerationConfig(), new ContentResolver(), sources, previous);
+
+        assertThat(manifest.getAffectedSources(previous, targetDirectory), contains(sources.get(2).toString()));
+    }
+
+    @Test
+    public void missingOutputAffectsSource() throws IOException {
+
+        writeManifest(new DefaultGenerationConfig());
+        new File(targetDirectory, "com/example/Colour.java").delete();
+
+        GenerationManifest previous = GenerationManifest.read(targetDirectory);
+        GenerationManifest manifest = GenerationManifest.create(new DefaultGenerationConfig(), new ContentResolver(), sources, previous);
+
+        assertThat(manifest.getAffectedSources(previous, targetDirectory), contains(sources.get(2).toString()));
+    }
+
+    @Test
+    public void changeToConfigurationAffectsAllSources() throws IOException {
+
+        writeManifest(new DefaultGenerationConfig());
+
+        GenerationConfig config = new DefaultGenerationConfig() {
+            @Override
+            public boolean isIncludeToString() {
+                return false;
+            }
+        };
+
+        GenerationManifest previous = GenerationManifest.read(targetDirectory);
+        GenerationManifest manifest = GenerationManifest.create(config, new ContentResolver(), sources, previous);
+
+        assertThat(manifest.getAffectedSources(previous, targetDirectory), is(nullValue()));
+    }
+
+    @Test
+    public void changeToCustomClassAffectsAllSources() throws IOException, ClassNotFoundException {
+
+        String resource = CustomAnnotator.class.getName().replace('.', '/') + ".class";
+        File classFile = new File(root, "classes/" + resource);
+        classFile.getParentFile().mkdirs();
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(resource)) {
+            Files.copy(in, classFile.toPath());
+        }
+
+        try (URLClassLoader classLoader = new ChildFirstClassLoader(new File(root, "classes").toURI().toURL(), CustomAnnotator.class.getName())) {
+            @SuppressWarnings("unchecked")
+            Class<? extends Annotator> customAnnotator = (Class<? extends Annotator>) classLoader.loadClass(CustomAnnotator.class.getName());
+            GenerationConfig config = new DefaultGenerationConfig() {
+                @Override
+                public Class<? extends Annotator> getCustomAnnotator() {
+                    return customAnnotator;
+                }
+            };
+
+            writeManifest(config);
+
+            GenerationManifest previous = GenerationManifest.read(targetDirectory);
+            assertThat(GenerationManifest.create(config, new ContentResolver(), sources, previous).getAffectedSources(previous, targetDirectory), is(empty()));
+
+            classFile.setLastModified(classFile.lastModified() + 2000);
+
+            assertThat(GenerationManifest.create(config, new ContentResolver(), sources, previous).getAffectedSources(previous, targetDirectory), is(nullValue()));
+        }
+    }
+
+    @Test
+    public void changeToClasspathAffectsAllSources() throws IOException {
+
+        File dependency = new File(root, "lib/dependency.jar");
+        write("lib/dependency.jar", "1.0");
+
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { dependency.toURI().toURL() }, contextClassLoader)) {
+            Thread.currentThread().setContextClassLoader(classLoader);
+
+            writeManifest(new DefaultGenerationConfig());
+
+            GenerationManifest previous = GenerationManifest.read(targetDirectory);
+            assertThat(GenerationManifest.create(new DefaultGenerationConfig(), new ContentResolver(), sources, previous).getAffectedSources(previous, targetDirectory), is(empty()));
+
+            write("lib/dependency.jar", "1.0.1");
+
+            assertThat(GenerationManifest.create(new DefaultGenerationConfig(), new ContentResolver(), sources, previous).getAffectedSources(previous, targetDirectory), is(nullValue()));
+        } finally {
+            Thread.currentThread().setContextClassLoader(contextClassLoader);
+        }
+    }
+
+    @Test
+    public void changeToSourceSetAffectsAllSources() throws IOException {
+
+        writeManifest(new DefaultGenerationConfig());
+
+        GenerationManifest previous = GenerationManifest.read(targetDirectory);
+        GenerationManifest manifest = GenerationManifest.create(new DefaultGenerationConfig(), new ContentResolver(), sources.subList(0, 2), previous);
+
+        assertThat(manifest.getAffectedSources(previous, targetDirectory), is(nullValue()));
+    }
+
+    @Test
+    public void conflictingOutputsAreDetected() throws IOException {
+
+        GenerationManifest previous = writeManifest(new DefaultGenerationConfig());
+        List<String> affected = Collections.singletonList(sources.get(2).toString());
+
+        GenerationManifest manifest = GenerationManifest.create(new DefaultGenerationConfig(), new ContentResolver(), sources, previous);
+        manifest.keepOutputs(previous, affected);
+        manifest.addOutputs(sources.get(2).toString(), Collections.singletonList("com/example/Colour.java"));
+        assertThat(manifest.hasConflictingOutputs(previous, affected), is(false));
+
+        manifest.clearOutputs();
+        manifest.keepOutputs(previous, affected);
+        manifest.addOutputs(sources.get(2).toString(), Arrays.asList("com/example/Colour.java", "com/example/Person.java"));
+        assertThat(manifest.hasConflictingOutputs(previous, affected), is(true));
+    }
+
+    @Test
+    public void typesAffectedByChangedFileAreFoundFromReadManifest() throws IOException {
+
+        writeManifest(new DefaultGenerationConfig());
+        GenerationManifest manifest = GenerationManifest.read(targetDirectory);
+        String address = new File(root, "common/address.json").toURI().toURL().toString();
+
+        assertThat(manifest.getSourcesAffectedBy(Collections.singleton(address)), contains(sources.get(0).toString(), sources.get(1).toString()));
+        assertThat(manifest.getOutputsAffectedBy(Collections.singleton(address)),
+                contains("com/example/Address.java", "com/example/Company.java", "com/example/Person.java"));
+        assertThat(manifest.getOutputsAffectedBy(Collections.singleton(sources.get(2).toString())), contains("com/example/Colour.java"));
+        assertThat(manifest.getReferenceGraph().getReferrers(address), containsInAnyOrder(sources.get(0).toString(), sources.get(1).toString()));
+    }
+
+    private GenerationManifest writeManifest(GenerationConfig config) throws IOException {
+        GenerationManifest manifest = GenerationManifest.create(config, new ContentResolver(), sources, GenerationManifest.read(targetDirectory));
+        manifest.addOutputs(sources.get(0).toString(), Arrays.asList("com/example/Person.java", "com/example/Address.java"));
+        manifest.addOutputs(sources.get(1).toString(), Collections.singletonList("com/example/Company.java"));
+        manifest.addOutputs(sources.get(2).toString(), Collections.singletonList("com/example/Colour.java"));
+        manifest.write(targetDirectory);
+
+        write("target/com/example/Person.java", "");
+        write("target/com/example/Address.java", "");
+        write("target/com/example/Company.java", "");
+        write("target/com/example/Colour.java", "");
+        return manifest;
+    }
+
+    public static class CustomAnnotator extends NoopAnnotator {
+    }
+
+    /**
+     * Loads a class from the given directory, rather than from the test
+     * classpath, so that it has a code source of its own.
+     */
+    private static class ChildFirstClassLoader extends URLClassLoader {
+
+        private final String className;
+
+        ChildFirstClassLoader(URL classes, String className) {
+            super(new URL[] { classes }, GenerationManifestTest.class.getClassLoader());
+            this.className = className;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(className)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                return loaded != null ? loaded : findClass(name);
+            }
+        }
+
+    }
+
+    private void write(String path, String content) throws IOException {
+        File file = new File(root, path);
+        file.getParentFile().mkdirs();
+        Files.writeString(file.toPath(), content);
+    }
+
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.jsonschema2pojo.GenerationProfiler.Category;
+import org.jsonschema2pojo.GenerationProfiler.Measurement;
+import org.jsonschema2pojo.rules.Rule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class GenerationProfilerTest {
+
+    @TempDir
+    public File tempDir;
+
+    @Test
+    public void disabledProfilerReturnsRuleUnchanged() {
+        Rule<String, String> rule = (nodeName, node, parent, generatableType, currentSchema) -> nodeName;
+
+        assertThat(GenerationProfiler.DISABLED.isEnabled(), is(false));
+        assertThat(GenerationProfiler.DISABLED.profile(rule), is(sameInstance(rule)));
+    }
+
+    @Test
+    public void profiledRuleIsMeasuredByType() throws IOException {
+        GenerationProfiler profiler = new GenerationProfiler();
+        Rule<String, String> rule = profiler.profile(new EchoRule());
+
+        assertThat(rule.apply("a", null, null, null, null), is("a"));
+        assertThat(rule.apply("b", null, null, null, null), is("b"));
+
+        JsonNode entry = writeAndRead(profiler).get("rule").get(0);
+        assertThat(entry.get("name").asText(), is("EchoRule"));
+        assertThat(entry.get("count").asLong(), is(2L));
+    }
+
+    @Test
+    public void nestedMeasurementsAreExcludedFromSelfTime() throws IOException, InterruptedException {
+        GenerationProfiler profiler = new GenerationProfiler();
+
+        profiler.measure(Category.PHASE, "outer", () -> profiler.measure(Category.SCHEMA_STORE, "inner", () -> Thread.sleep(20)));
+
+        JsonNode report = writeAndRead(profiler);
+        JsonNode outer = report.get("phase").get(0);
+        JsonNode inner = report.get("schema_store").get(0);
+
+        assertThat(outer.get("name").asText(), is("outer"));
+        assertThat(inner.get("name").asText(), is("inner"));
+        assertThat(inner.get("selfNanos").asLong(), is(inner.get("totalNanos").asLong()));
+        assertThat(outer.get("totalNanos").asLong(), is(greaterThanOrEqualTo(inner.get("totalNanos").asLong())));
+        assertThat(outer.get("selfNanos").asLong(), is(outer.get("totalNanos").asLong() - inner.get("totalNanos").asLong()));
+        assertThat(report.get("rule").size(), is(0));
+    }
+
+    @Test
+    public void measuredOperationsAreRecordedWhenTheyFail() throws IOException {
+        GenerationProfiler profiler = new GenerationProfiler();
+
+        assertThat(profiler.measure(Category.HELPER, "value", () -> "a"), is("a"));
+        assertThrows(IOException.class, () -> profiler.measure(Category.HELPER, "failure", () -> {
+            throw new IOException("failed");
+        }));
+        profiler.measure(Category.HELPER, "value", () -> {
+        });
+
+        JsonNode helpers = writeAndRead(profiler).get("helper");
+        assertThat(helpers.size(), is(2));
+        for (JsonNode helper : helpers) {
+            assertThat(helper.get("count").asLong(), is(helper.get("name").asText().equals("value") ? 2L : 1L));
+        }
+    }
+
+    @Test
+    public void measurementsMustBeClosedInOrder() {
+        GenerationProfiler profiler = new GenerationProfiler();
+
+        Measurement outer = profiler.start(Category.PHASE, "outer");
+        profiler.start(Category.PHASE, "inner");
+
+        assertThrows(IllegalStateException.class, outer::close);
+    }
+
+    private JsonNode writeAndRead(GenerationProfiler profiler) throws IOException {
+        File report = new File(tempDir, "profile/report.json");
+        profiler.writeReport(report);
+        return new ObjectMapper().readTree(report);
+    }
+
+    private static class EchoRule implements Rule<String, String> {
+        @Override
+        public String apply(String nodeName, JsonNode node, JsonNode parent, String generatableType, Schema currentSchema) {
+            return nodeName;
+        }
+    }
+
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.jsonschema2pojo.exception.GenerationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GenerationShardTest {
+
+    @TempDir
+    public File root;
+
+    @Test
+    public void largestGroupsAreAssignedFirstToTheSmallestShard() {
+
+        int[] shards = GenerationShard.assign(new int[] { 1, 5, 2, 2, 1, 3 }, 3);
+
+        assertThat(shards, is(new int[] { 1, 0, 2, 2, 1, 1 }));
+    }
+
+    @Test
+    public void everyGroupIsAssignedToTheOnlyShard() {
+
+        assertThat(GenerationShard.assign(new int[] { 3, 1, 2 }, 1), is(new int[] { 0, 0, 0 }));
+    }
+
+    @Test
+    public void shardIndexMustBeLessThanShardCount() {
+
+        assertThrows(IllegalArgumentException.class, () -> new GenerationShard(2, 2));
+        assertThrows(IllegalArgumentException.class, () -> new GenerationShard(-1, 2));
+    }
+
+    @Test
+    public void sameFileFromTwoGroupsIsRejected() {
+
+        GenerationShard shard = new GenerationShard(0, 1);
+        shard.addOutputs("file:/a.json", Arrays.asList("com/example/A.java", "com/example/Item.java"));
+
+        GenerationException e = assertThrows(GenerationException.class, () -> shard.addOutputs("file:/b.json", Collections.singletonList("com/example/Item.java")));
+
+        assertThat(e.getMessage(), containsString("com.example.Item"));
+        assertThat(e.getMessage(), containsString("file:/a.json"));
+        assertThat(e.getMessage(), containsString("file:/b.json"));
+    }
+
+    @Test
+    public void shardCanBeReadAfterItIsWritten() throws IOException {
+
+        GenerationShard shard = new GenerationShard(1, 3);
+        shard.addOutputs("file:/b.json", Arrays.asList("com/example/B.java", "B.java"));
+        shard.write(root);
+
+        GenerationShard read = GenerationShard.read(root);
+
+        assertThat(read.getIndex(), is(1));
+        assertThat(read.getCount(), is(3));
+        assertThat(read.getOutputs(), is(shard.getOutputs()));
+    }
+
+    @Test
+    public void mergeCopiesTheFilesOfEveryShard() throws IOException {
+
+        File first = writeShard("first", 0, 2, "com/example/A.java");
+        File second = writeShard("second", 1, 2, "com/example/B.java", "C.java");
+        File target = new File(root, "target");
+
+        GenerationShard.merge(Arrays.asList(second, first), target);
+
+        assertThat(content(new File(target, "com/example/A.java")), is("com/example/A.java"));
+        assertThat(content(new File(target, "com/example/B.java")), is("com/example/B.java"));
+        assertThat(content(new File(target, "C.java")), is("C.java"));
+        assertThat(new File(target, GenerationShard.FILE_NAME).exists(), is(false));
+    }
+
+    @Test
+    public void mergeRequiresEveryShard() throws IOException {
+
+        File first = writeShard("first", 0, 3, "A.java");
+        File third = writeShard("third", 2, 3, "C.java");
+
+        GenerationException e = assertThrows(GenerationException.class, () -> GenerationShard.merge(Arrays.asList(first, third), new File(root, "target")));
+
+        assertThat(e.getMessage(), containsString("Shard 1 of 3 is missing"));
+    }
+
+    @Test
+    public void mergeRejectsShardsOfDifferentRuns() throws IOException {
+
+        File first = writeShard("first", 0, 2, "A.java");
+        File second = writeShard("second", 1, 3, "B.java");
+
+        assertThrows(GenerationException.class, () -> GenerationShard.merge(Arrays.asList(first, second), new File(root, "target")));
+    }
+
+    @Test
+    public void mergeRejectsTheSameShardTwice() throws IOException {
+
+        File first = writeShard("first", 0, 2, "A.java");
+        File again = writeShard("again", 0, 2, "A.java");
+
+        assertThrows(GenerationException.class, () -> GenerationShard.merge(Arrays.asList(first, again), new File(root, "target")));
+    }
+
+    @Test
+    public void mergeRejectsTheSameFileFromTwoShards() throws IOException {
+
+        File first = writeShard("first", 0, 2, "com/example/Item.java");
+        File second = writeShard("second", 1, 2, "com/example/Item.java");
+        File target = new File(root, "target");
+
+        GenerationException e = assertThrows(GenerationException.class, () -> GenerationShard.merge(Arrays.asList(first, second), target));
+
+        assertThat(e.getMessage(), containsString("com.example.Item"));
+        assertThat(target.exists(), is(false));
+    }
+
+    private File writeShard(String name, int index, int count, String... outputs) throws IOException {
+        File directory = new File(root, name);
+        GenerationShard shard = new GenerationShard(index, count);
+        shard.addOutputs("file:/" + name + ".json", Arrays.asList(outputs));
+        for (String output : outputs) {
+            File file = new File(directory, output);
+            file.getParentFile().mkdirs();
+            Files.write(file.toPath(), output.getBytes(StandardCharsets.UTF_8));
+        }
+        shard.write(directory);
+        return directory;
+    }
+
+    private static String content(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.jsonschema2pojo.exception.GenerationException;
+import org.junit.jupiter.api.Test;
+
+public class InMemoryCompilerTest {
+
+    private final InMemoryCompiler compiler = new InMemoryCompiler(new DefaultGenerationConfig());
+
+    @Test
+    public void sourcesAreCompiledToClassFiles() throws IOException {
+
+        Map<String, byte[]> sources = new TreeMap<>();
+        sources.put("com/example/Person.java", source("package com.example; public class Person { public Address address; public static class Name {} }"));
+        sources.put("com/example/Address.java", source("package com.example; @com.fasterxml.jackson.annotation.JsonInclude public class Address {}"));
+        sources.put("Default.java", source("public class Default {}"));
+
+        Map<String, byte[]> classes = compiler.compile(sources);
+
+        assertThat(classes.keySet(), contains("Default.class", "com/example/Address.class", "com/example/Person$Name.class", "com/example/Person.class"));
+        assertThat(classes.get("com/example/Person.class")[0], is((byte) 0xca));
+    }
+
+    @Test
+    public void compilationErrorsAreReported() {
+
+        Map<String, byte[]> sources = new TreeMap<>();
+        sources.put("com/example/Person.java", source("package com.example; public class Person { Missing missing; }"));
+
+        GenerationException e = assertThrows(GenerationException.class, () -> compiler.compile(sources));
+
+        assertThat(e.getMessage(), containsString("com/example/Person.java:1"));
+        assertThat(e.getMessage(), containsString("Missing"));
+    }
+
+    @Test
+    public void releasesOlderThanTheCompilerSupportsAreRaised() throws IOException {
+
+        List<String> warnings = new ArrayList<>();
+        InMemoryCompiler compiler = new InMemoryCompiler(targetVersion("1.6"), new NoopRuleLogger() {
+            @Override
+            public void warn(String msg) {
+                warnings.add(msg);
+            }
+        });
+
+        Map<String, byte[]> sources = new TreeMap<>();
+        sources.put("com/example/Person.java", source("package com.example; public class Person {}"));
+
+        Map<String, byte[]> classes = compiler.compile(sources);
+
+        // the major version of the class file is at offset 7 (release 7 is 51)
+        assertThat(classes.get("com/example/Person.class")[7] & 0xff, is(greaterThanOrEqualTo(51)));
+        assertThat(warnings, hasSize(1));
+        assertThat(warnings.get(0), containsString("release 6"));
+    }
+
+    @Test
+    public void unsupportedReleasesAreReported() {
+
+        Map<String, byte[]> sources = new TreeMap<>();
+        sources.put("com/example/Person.java", source("package com.example; public class Person {}"));
+
+        GenerationException e = assertThrows(GenerationException.class, () -> new InMemoryCompiler(targetVersion("1000")).compile(sources));
+        assertThat(e.getMessage(), containsString("1000"));
+
+        assertThrows(GenerationException.class, () -> new InMemoryCompiler(targetVersion("next")).compile(sources));
+    }
+
+    private static GenerationConfig targetVersion(String targetVersion) {
+        return new DefaultGenerationConfig() {
+            @Override
+            public String getTargetVersion() {
+                return targetVersion;
+            }
+        };
+    }
+
+    private static byte[] source(String source) {
+        return source.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,204 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.sun.codemodel.JClassAlreadyExistsException;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JPackage;
+
+public class ParallelCodeBuilderTest {
+
+    @TempDir
+    public File outputRoot;
+
+    @ParameterizedTest
+    @ValueSource(strings = { "UTF-8", "ISO-8859-5", "US-ASCII", "UTF-16" })
+    public void parallelBuildWritesSameFilesAsSequentialBuild(String encoding) throws Exception {
+
+        File sequential = new File(outputRoot, "sequential");
+        File parallel = new File(outputRoot, "parallel");
+        sequential.mkdirs();
+        parallel.mkdirs();
+
+        new ParallelCodeBuilder(1).build(createModel(), new FileCodeWriterWithEncoding(sequential, encoding));
+        new ParallelCodeBuilder(4).build(createModel(), new FileCodeWriterWithEncoding(parallel, encoding));
+
+        List<Path> files = relativeFiles(sequential.toPath());
+        assertThat(files, hasSize(200));
+        assertThat(relativeFiles(parallel.toPath()), is(equalTo(files)));
+        for (Path file : files) {
+            assertThat(file.toString(), Files.readAllBytes(parallel.toPath().resolve(file)), is(equalTo(Files.readAllBytes(sequential.toPath().resolve(file)))));
+        }
+
+        String source = new String(Files.readAllBytes(parallel.toPath().resolve("com/example/b/Type1.java")), Charset.forName(encoding));
+        assertThat(source, containsString("import java.util.List;"));
+        assertThat(source, containsString(encoding.equals("US-ASCII") ? "\\u0429\\u0434" : "Щд"));
+    }
+
+    @Test
+    public void packagesOfClassesReferencedByNameAreCreatedBeforeFormatting() throws Exception {
+
+        File sequential = new File(outputRoot, "sequential");
+        File parallel = new File(outputRoot, "parallel");
+        sequential.mkdirs();
+        parallel.mkdirs();
+
+        new ParallelCodeBuilder(1).build(createModelWithDirectClasses(), new FileCodeWriterWithEncoding(sequential, "UTF-8"));
+
+        Map<String, Integer> writes = new ConcurrentHashMap<>();
+        JCodeModel codeModel = createModelWithDirectClasses();
+        new ParallelCodeBuilder(4).build(codeModel, new FileCodeWriterWithEncoding(parallel, "UTF-8") {
+            @Override
+            public void write(JPackage pkg, String fileName, byte[] content) throws IOException {
+                writes.merge(pkg.name() + "." + fileName, 1, Integer::sum);
+                super.write(pkg, fileName, content);
+            }
+        });
+
+        assertThat(writes.size(), is(100));
+        assertThat(new HashSet<>(writes.values()), contains(1));
+        assertSameFiles(parallel, sequential);
+
+        List<String> packages = new ArrayList<>();
+        codeModel.packages().forEachRemaining(pkg -> packages.add(pkg.name()));
+        assertThat(packages, hasItems("com.example", "org.example.external0", "org.example.external99"));
+    }
+
+    @Test
+    public void additionsToModelWhileFormattingBuildModelSequentially() throws Exception {
+
+        File sequential = new File(outputRoot, "sequential");
+        File parallel = new File(outputRoot, "parallel");
+        sequential.mkdirs();
+        parallel.mkdirs();
+
+        new ParallelCodeBuilder(1).build(createModelWithMethodBodyReference(), new FileCodeWriterWithEncoding(sequential, "UTF-8"));
+
+        JCodeModel codeModel = createModelWithMethodBodyReference();
+        new ParallelCodeBuilder(4).build(codeModel, new FileCodeWriterWithEncoding(parallel, "UTF-8"));
+
+        assertSameFiles(parallel, sequential);
+
+        List<String> packages = new ArrayList<>();
+        codeModel.packages().forEachRemaining(pkg -> packages.add(pkg.name()));
+        assertThat(packages, hasItem("org.example.external"));
+    }
+
+    @Test
+    public void packageInfoFilesAreWritten() throws Exception {
+
+        File sequential = new File(outputRoot, "sequential");
+        File parallel = new File(outputRoot, "parallel");
+        sequential.mkdirs();
+        parallel.mkdirs();
+
+        JCodeModel sequentialModel = createModel();
+        sequentialModel._package("com.example.a").javadoc().add("Types");
+        new ParallelCodeBuilder(1).build(sequentialModel, new FileCodeWriterWithEncoding(sequential, "UTF-8"));
+
+        JCodeModel parallelModel = createModel();
+        parallelModel._package("com.example.a").javadoc().add("Types");
+        new ParallelCodeBuilder(4).build(parallelModel, new FileCodeWriterWithEncoding(parallel, "UTF-8"));
+
+        assertThat(new File(parallel, "com/example/a/package-info.java").isFile(), is(true));
+        assertSameFiles(parallel, sequential);
+    }
+
+    private static void assertSameFiles(File actual, File expected) throws IOException {
+        List<Path> files = relativeFiles(expected.toPath());
+        assertThat(relativeFiles(actual.toPath()), is(equalTo(files)));
+        for (Path file : files) {
+            assertThat(file.toString(), Files.readAllBytes(actual.toPath().resolve(file)), is(equalTo(Files.readAllBytes(expected.toPath().resolve(file)))));
+        }
+    }
+
+    private static JCodeModel createModelWithDirectClasses() throws JClassAlreadyExistsException {
+        JCodeModel codeModel = new JCodeModel();
+        for (int i = 0; i < 100; i++) {
+            JDefinedClass type = codeModel._class("com.example.Type" + i);
+            // classes that are only referenced by name, in packages that formatting would create
+            type.field(JMod.PRIVATE, codeModel.directClass("org.example.external" + i + ".External"), "external");
+        }
+        return codeModel;
+    }
+
+    private static JCodeModel createModelWithMethodBodyReference() throws JClassAlreadyExistsException {
+        JCodeModel codeModel = new JCodeModel();
+        for (int i = 0; i < 100; i++) {
+            JDefinedClass type = codeModel._class("com.example.Type" + i);
+            if (i == 99) {
+                // only a method body refers to this class, so formatting creates its package
+                type.method(JMod.PUBLIC, Object.class, "create").body()._return(JExpr._new(codeModel.directClass("org.example.external.External")));
+            }
+        }
+        return codeModel;
+    }
+
+    private static JCodeModel createModel() throws JClassAlreadyExistsException {
+        JCodeModel codeModel = new JCodeModel();
+        for (int i = 0; i < 100; i++) {
+            JDefinedClass a = codeModel._class("com.example.a.Type" + i);
+            a.field(JMod.PRIVATE, codeModel.ref(Map.class).narrow(String.class, Object.class), "values");
+
+            JDefinedClass b = codeModel._class("com.example.b.Type" + i);
+            b.field(JMod.PRIVATE, codeModel.ref(List.class).narrow(a), "items");
+            b.field(JMod.PRIVATE, String.class, "name", JExpr.lit("Type" + i));
+            if (i % 2 == 1) {
+                b.javadoc().add("Щд\u0001");
+            }
+            b._class(JMod.PUBLIC | JMod.STATIC, "Nested")._extends(a);
+            JMethod setter = b.method(JMod.PUBLIC, codeModel.VOID, "setItems");
+            setter.body().assign(JExpr._this().ref("items"), setter.param(codeModel.ref(List.class).narrow(a), "items"));
+        }
+        return codeModel;
+    }
+
+    private static List<Path> relativeFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .map(directory::relativize)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+public class ReferenceGraphTest {
+
+    @TempDir
+    public File root;
+
+    private List<URL> sources;
+
+    @BeforeEach
+    public void writeSchemas() throws IOException {
+        write("common/address.json", "{\"type\":\"object\",\"properties\":{\"country\":{\"$ref\":\"country.json\"}}}");
+        write("common/country.json", "{\"type\":\"string\"}");
+        write("common/definitions.json", "{\"definitions\":{\"name\":{\"type\":\"string\"},\"age\":{\"type\":\"integer\"}}}");
+        write("schemas/person.json", "{\"type\":\"object\",\"properties\":{\"address\":{\"$ref\":\"../common/address.json\"},"
+                + "\"name\":{\"$ref\":\"../common/definitions.json#/definitions/name\"},\"age\":{\"$ref\":\"../common/definitions.json#/definitions/age/\"},"
+                + "\"friend\":{\"$ref\":\"#\"}}}");
+        write("schemas/colour.json", "{\"type\":\"string\",\"enum\":[\"red\",\"green\"]}");
+
+        sources = Arrays.asList(url("schemas/person.json"), url("schemas/colour.json"));
+    }
+
+    @Test
+    public void graphContainsEveryReachableDocument() throws IOException {
+
+        ReferenceGraph graph = ReferenceGraph.build(new ContentResolver(), sources, true, null);
+
+        assertThat(graph.getDocuments(), containsInAnyOrder(id("schemas/person.json"), id("schemas/colour.json"), id("common/address.json"),
+                id("common/country.json"), id("common/definitions.json")));
+        assertThat(graph.getReferences(id("schemas/person.json")), contains(id("common/address.json"), id("common/definitions.json")));
+        assertThat(graph.getReferenceTargets(id("schemas/person.json")), containsInAnyOrder(id("common/address.json"),
+                id("common/definitions.json") + "#/definitions/name", id("common/definitions.json") + "#/definitions/age", id("schemas/person.json")));
+        assertThat(graph.getDependencies(id("schemas/person.json")), containsInAnyOrder(id("schemas/person.json"), id("common/address.json"),
+                id("common/country.json"), id("common/definitions.json")));
+        assertThat(graph.getDependencies(id("schemas/colour.json")), contains(id("schemas/colour.json")));
+    }
+
+    @Test
+    public void referencesAreNotFollowedUnlessRequested() throws IOException {
+
+        ReferenceGraph graph = ReferenceGraph.build(new ContentResolver(), sources, false, null);
+
+        assertThat(graph.getDocuments(), containsInAnyOrder(id("schemas/person.json"), id("schemas/colour.json")));
+        assertThat(graph.getDependencies(id("schemas/person.json")), contains(id("schemas/person.json")));
+    }
+
+    @Test
+    public void dependentsIncludeEveryDocumentThatReachesChange() throws IOException {
+
+        ReferenceGraph graph = ReferenceGraph.build(new ContentResolver(), sources, true, null);
+
+        assertThat(graph.getReferrers(id("common/country.json")), contains(id("common/address.json")));
+        assertThat(graph.getDependents(Collections.singleton(id("common/country.json"))),
+                containsInAnyOrder(id("common/country.json"), id("common/address.json"), id("schemas/person.json")));
+        assertThat(graph.getDependents(Collections.singleton(id("schemas/colour.json"))), contains(id("schemas/colour.json")));
+    }
+
+    @Test
+    public void documentsThatShareDependenciesAreInTheSameComponent() throws IOException {
+
+        write("schemas/company.json", "{\"type\":\"object\",\"properties\":{\"country\":{\"$ref\":\"../common/country.json\"}}}");
+        write("schemas/shape.json", "{\"type\":\"object\"}");
+        List<URL> urls = Arrays.asList(url("schemas/person.json"), url("schemas/colour.json"), url("schemas/company.json"), url("schemas/shape.json"));
+
+        ReferenceGraph graph = ReferenceGraph.build(new ContentResolver(), urls, true, null);
+
+        assertThat(graph.getComponents(Arrays.asList(id("schemas/person.json"), id("schemas/colour.json"), id("schemas/company.json"), id("schemas/shape.json"))),
+                contains(Arrays.asList(id("schemas/person.json"), id("schemas/company.json")), Collections.singletonList(id("schemas/colour.json")),
+                        Collections.singletonList(id("schemas/shape.json"))));
+        assertThat(graph.getComponents(Arrays.asList(id("schemas/shape.json"), id("common/country.json"), id("schemas/company.json"))),
+                contains(Collections.singletonList(id("schemas/shape.json")), Arrays.asList(id("common/country.json"), id("schemas/company.json"))));
+    }
+
+    @Test
+    public void unchangedFilesAreNotReadAgain() throws IOException {
+
+        ReferenceGraph previous = roundTrip(ReferenceGraph.build(new ContentResolver(), sources, true, null));
+        write("common/country.json", "{\"type\":\"string\",\"enum\":[\"FI\",\"UK\"]}");
+
+        ContentResolver contentResolver = spy(new ContentResolver());
+        ReferenceGraph graph = ReferenceGraph.build(contentResolver, sources, true, previous);
+
+        verify(contentResolver).resolve(URI.create(id("common/country.json")));
+        verifyNoMoreInteractions(contentResolver);
+        assertThat(graph.getChangedDocuments(previous), contains(id("common/country.json")));
+        assertThat(graph.getReferences(id("schemas/person.json")), is(previous.getReferences(id("schemas/person.json"))));
+    }
+
+    @Test
+    public void unresolvableReferencesAreRecordedAsUnreadable() throws IOException {
+
+        write("schemas/unused.json", "{\"type\":\"object\",\"definitions\":{\"unused\":{\"$ref\":\"missing.json\"}}}");
+        List<URL> urls = Collections.singletonList(url("schemas/unused.json"));
+
+        ReferenceGraph previous = roundTrip(ReferenceGraph.build(new ContentResolver(), urls, true, null));
+        assertThat(previous.getDependencies(id("schemas/unused.json")), containsInAnyOrder(id("schemas/unused.json"), id("schemas/missing.json")));
+
+        write("schemas/missing.json", "{\"type\":\"string\"}");
+        ReferenceGraph graph = ReferenceGraph.build(new ContentResolver(), urls, true, previous);
+
+        assertThat(graph.getChangedDocuments(previous), contains(id("schemas/missing.json")));
+    }
+
+    private ReferenceGraph roundTrip(ReferenceGraph graph) {
+        ObjectNode documents = new ObjectMapper().createObjectNode();
+        graph.write(documents);
+        return ReferenceGraph.read(documents);
+    }
+
+    private URL url(String path) throws IOException {
+        return new File(root, path).toURI().toURL();
+    }
+
+    private String id(String path) throws IOException {
+        return url(path).toString();
+    }
+
+    private void write(String path, String content) throws IOException {
+        File file = new File(root, path);
+        file.getParentFile().mkdirs();
+        Files.writeString(file.toPath(), content);
+    }
+
+}
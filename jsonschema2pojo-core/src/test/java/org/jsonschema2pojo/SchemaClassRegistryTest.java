@@ -0,0 +1,191 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+public class SchemaClassRegistryTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @TempDir
+    public File root;
+
+    @Test
+    public void classesAreGeneratedForSchema() throws Exception {
+
+        SchemaClassRegistry registry = new SchemaClassRegistry(new DefaultGenerationConfig(), 10);
+
+        Class<?> person = registry.getGeneratedClass(schema("{\"type\":\"object\",\"properties\":{\"name\":{\"type\":\"string\"},\"address\":{\"type\":\"object\",\"properties\":{\"street\":{\"type\":\"string\"}}}}}"), "Person", "com.example");
+
+        assertThat(person.getName(), is("com.example.Person"));
+        assertThat(person.getMethod("getName").getReturnType(), is(equalTo(String.class)));
+        assertThat(person.getMethod("getAddress").getReturnType(), is(equalTo(person.getClassLoader().loadClass("com.example.Address"))));
+        assertThat(person.getClassLoader(), is(not(getClass().getClassLoader())));
+    }
+
+    @Test
+    public void classesAreGeneratedForSchemaAtUri() throws Exception {
+
+        File schema = new File(root, "person.json");
+        Files.write(schema.toPath(), "{\"type\":\"object\",\"properties\":{\"name\":{\"type\":\"string\"}}}".getBytes(StandardCharsets.UTF_8));
+
+        SchemaClassRegistry registry = new SchemaClassRegistry(new DefaultGenerationConfig(), 10);
+        Class<?> person = registry.getGeneratedClass(schema.toURI(), "Person", "com.example");
+
+        assertThat(person.getMethod("getName").getReturnType(), is(equalTo(String.class)));
+        assertThat(registry.getGeneratedClass(schema.toURI(), "Person", "com.example"), is(sameInstance(person)));
+    }
+
+    @Test
+    public void changesToReferencedSchemasGenerateNewClasses() throws Exception {
+
+        File schema = new File(root, "person.json");
+        File address = new File(root, "address.json");
+        Files.write(schema.toPath(), "{\"type\":\"object\",\"properties\":{\"address\":{\"$ref\":\"address.json\"}}}".getBytes(StandardCharsets.UTF_8));
+        Files.write(address.toPath(), "{\"type\":\"object\",\"properties\":{\"street\":{\"type\":\"string\"}}}".getBytes(StandardCharsets.UTF_8));
+
+        SchemaClassRegistry registry = new SchemaClassRegistry(new DefaultGenerationConfig(), 10);
+        Class<?> person = registry.getGeneratedClass(schema.toURI(), "Person", "com.example");
+
+        Files.write(address.toPath(), "{\"type\":\"object\",\"properties\":{\"street\":{\"type\":\"string\"},\"city\":{\"type\":\"string\"}}}".getBytes(StandardCharsets.UTF_8));
+        Class<?> changed = registry.getGeneratedClass(schema.toURI(), "Person", "com.example");
+
+        assertThat(changed, is(not(sameInstance(person))));
+        assertThat(changed.getMethod("getAddress").getReturnType().getMethod("getCity").getReturnType(), is(equalTo(String.class)));
+        assertThat(registry.getGeneratedClass(schema.toURI(), "Person", "com.example"), is(sameInstance(changed)));
+    }
+
+    @Test
+    public void unchangedDocumentsAreNotReadAgain() throws Exception {
+
+        File schema = new File(root, "person.json");
+        File address = new File(root, "address.json");
+        Files.write(schema.toPath(), "{\"type\":\"object\",\"properties\":{\"address\":{\"$ref\":\"address.json\"}}}".getBytes(StandardCharsets.UTF_8));
+        Files.write(address.toPath(), "{\"type\":\"object\",\"properties\":{\"street\":{\"type\":\"string\"}}}".getBytes(StandardCharsets.UTF_8));
+        long lastModified = address.lastModified();
+
+        SchemaClassRegistry registry = new SchemaClassRegistry(new DefaultGenerationConfig(), 10);
+        Class<?> person = registry.getGeneratedClass(schema.toURI(), "Person", "com.example");
+
+        // same size and modification time, so the previous content is trusted
+        Files.write(address.toPath(), "{\"type\":\"object\",\"properties\":{\"strict\":{\"type\":\"string\"}}}".getBytes(StandardCharsets.UTF_8));
+        assertThat(address.setLastModified(lastModified), is(true));
+
+        assertThat(registry.getGeneratedClass(schema.toURI(), "Person", "com.example"), is(sameInstance(person)));
+    }
+
+    @Test
+    public void equivalentSchemasShareClasses() throws Exception {
+
+        SchemaClassRegistry registry = new SchemaClassRegistry(new DefaultGenerationConfig(), 10);
+
+        Class<?> first = registry.getGeneratedClass(schema("{\"type\":\"object\",\"properties\":{\"a\":{\"type\":\"string\"},\"b\":{\"type\":\"integer\"}}}"), "Thing", "com.example");
+        Class<?> second = registry.getGeneratedClass(schema("{\"properties\":{\"a\":{\"type\":\"string\"},\"b\":{\"type\":\"integer\"}},\"type\":\"object\"}"), "Thing", "com.example");
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(registry.size(), is(1));
+    }
+
+    @Test
+    public void differentSchemasOrNamesHaveDifferentClasses() throws Exception {
+
+        SchemaClassRegistry registry = new SchemaClassRegistry(new DefaultGenerationConfig(), 10);
+
+        Class<?> thing = registry.getGeneratedClass(schema("{\"type\":\"object\",\"properties\":{\"a\":{\"type\":\"string\"}}}"), "Thing", "com.example");
+        Class<?> otherSchema = registry.getGeneratedClass(schema("{\"type\":\"object\",\"properties\":{\"a\":{\"type\":\"integer\"}}}"), "Thing", "com.example");
+        Class<?> otherName = registry.getGeneratedClass(schema("{\"type\":\"object\",\"properties\":{\"a\":{\"type\":\"string\"}}}"), "Other", "com.example");
+
+        assertThat(otherSchema, is(not(sameInstance(thing))));
+        assertThat(otherSchema.getMethod("getA").getReturnType(), is(equalTo(Integer.class)));
+        assertThat(otherName.getName(), is("com.example.Other"));
+        assertThat(registry.size(), is(3));
+    }
+
+    @Test
+    public void leastRecentlyUsedSchemasAreEvicted() throws Exception {
+
+        SchemaClassRegistry registry = new SchemaClassRegistry(new DefaultGenerationConfig(), 2);
+        ObjectNode schema = schema("{\"type\":\"object\"}");
+
+        Class<?> a = registry.getGeneratedClass(schema, "A", "com.example");
+        Class<?> b = registry.getGeneratedClass(schema, "B", "com.example");
+        registry.getGeneratedClass(schema, "A", "com.example");
+        registry.getGeneratedClass(schema, "C", "com.example");
+
+        assertThat(registry.size(), is(2));
+        assertThat(registry.getGeneratedClass(schema, "A", "com.example"), is(sameInstance(a)));
+        assertThat(registry.getGeneratedClass(schema, "B", "com.example"), is(not(sameInstance(b))));
+    }
+
+    @Test
+    public void concurrentRequestsForSameSchemaGenerateOnce() throws Exception {
+
+        SchemaClassRegistry registry = new SchemaClassRegistry(new DefaultGenerationConfig(), 10);
+        ObjectNode schema = schema("{\"type\":\"object\",\"properties\":{\"a\":{\"type\":\"string\"}}}");
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Class<?>>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(executor.submit((Callable<Class<?>>) () -> registry.getGeneratedClass(schema, "Thing", "com.example")));
+            }
+            Set<Class<?>> generated = new HashSet<>();
+            for (Future<Class<?>> future : futures) {
+                generated.add(future.get());
+            }
+            assertThat(generated, hasSize(1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failuresAreNotCached() {
+
+        SchemaClassRegistry registry = new SchemaClassRegistry(new DefaultGenerationConfig(), 10);
+
+        assertThrows(IllegalArgumentException.class, () -> registry.getGeneratedClass(new File(root, "missing.json").toURI(), "Missing", "com.example"));
+        assertThat(registry.size(), is(0));
+    }
+
+    private static ObjectNode schema(String json) throws IOException {
+        return (ObjectNode) OBJECT_MAPPER.readTree(json);
+    }
+
+}
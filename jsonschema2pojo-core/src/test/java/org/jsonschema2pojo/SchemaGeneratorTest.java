@@ -0,0 +1,273 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+public class SchemaGeneratorTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .enable(JsonParser.Feature.ALLOW_COMMENTS)
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    @TempDir
+    public File tempDir;
+
+    @Test
+    public void schemaIsInferredFromExampleUrl() throws IOException {
+        File example = new File(tempDir, "example.json");
+        Files.writeString(example.toPath(), "// a comment\n"
+                + "{\"a\": 1, \"b\": 12345678901, \"c\": 1.5, \"d\": \"x\", \"e\": true, \"f\": null,"
+                + " \"g\": [{\"x\": 1}, {\"y\": [1]}, {\"y\": [\"z\"], \"x\": null}], \"h\": []}");
+
+        ObjectNode schema = new SchemaGenerator().schemaFromExample(example.toURI().toURL());
+
+        assertThat(schema, is(equalTo(OBJECT_MAPPER.readTree("{\"type\": \"object\", \"properties\": {"
+                + "\"a\": {\"type\": \"integer\"},"
+                + "\"b\": {\"type\": \"integer\", \"minimum\": 9223372036854775807},"
+                + "\"c\": {\"type\": \"number\"},"
+                + "\"d\": {\"type\": \"string\"},"
+                + "\"e\": {\"type\": \"boolean\"},"
+                + "\"f\": {\"type\": null},"
+                + "\"g\": {\"type\": \"array\", \"items\": {\"type\": \"object\", \"properties\": {"
+                + "  \"x\": {\"type\": \"integer\"},"
+                + "  \"y\": {\"type\": \"array\", \"items\": {\"type\": \"integer\"}}}}},"
+                + "\"h\": {\"type\": \"array\"}}}"))));
+    }
+
+    @Test
+    public void schemaIsInferredFromYamlExample() throws IOException {
+        File example = new File(tempDir, "example.yaml");
+        Files.writeString(example.toPath(), "name: x\nsizes:\n  - 1\n  - 2\nnested:\n  flag: true\n");
+
+        ObjectNode schema = new SchemaGenerator(new YAMLFactory()).schemaFromExample(example.toURI().toURL());
+
+        assertThat(schema, is(equalTo(referenceSchema(new ObjectMapper(new YAMLFactory()).readTree(example)))));
+    }
+
+    @Test
+    public void exampleContentIsNotModified() throws IOException {
+        JsonNode example = OBJECT_MAPPER.readTree("[{\"a\": [1, 2]}, {\"a\": [3]}, {\"a\": {\"b\": 1}}, {\"a\": {\"c\": 1}}]");
+        JsonNode copy = example.deepCopy();
+
+        new SchemaGenerator().schemaFromExample(example);
+
+        assertThat(example, is(equalTo(copy)));
+    }
+
+    @Test
+    public void schemaIsSameAsMergingExampleTree() throws IOException {
+        Random random = new Random(42);
+        SchemaGenerator generator = new SchemaGenerator();
+
+        for (int i = 0; i < 2000; i++) {
+            JsonNode example = randomValue(random, 0);
+            String content = OBJECT_MAPPER.writeValueAsString(example);
+            File file = new File(tempDir, "example.json");
+            Files.writeString(file.toPath(), content);
+
+            ObjectNode expected = referenceSchema(OBJECT_MAPPER.readTree(content));
+
+            assertThat(content, generator.schemaFromExample(file.toURI().toURL()), is(equalTo(expected)));
+            assertThat(content, generator.schemaFromExample(OBJECT_MAPPER.readTree(content)), is(equalTo(expected)));
+        }
+    }
+
+    @Test
+    public void schemaFromSamplesWidensTypes() throws IOException {
+        File samples = new File(tempDir, "samples.ndjson");
+        Files.writeString(samples.toPath(), "{\"id\": 1, \"size\": 1, \"name\": \"a\", \"tags\": [\"x\"], \"items\": [{\"a\": 1}]}\n"
+                + "{\"id\": 12345678901, \"size\": 1.5, \"name\": null, \"items\": [{\"b\": true}, {\"a\": 2}]}\n"
+                + "\n"
+                + "{\"id\": 3, \"size\": 2, \"tags\": [], \"items\": [], \"mixed\": 1}\n"
+                + "{\"id\": 4, \"size\": 3, \"items\": [], \"mixed\": \"1\", \"empty\": null}");
+
+        ObjectNode schema = new SchemaGenerator().schemaFromSamples(Arrays.asList(samples.toURI().toURL()));
+
+        assertThat(schema, is(equalTo(OBJECT_MAPPER.readTree("{\"type\": \"object\", \"properties\": {"
+                + "\"id\": {\"type\": \"integer\", \"minimum\": 9223372036854775807},"
+                + "\"size\": {\"type\": \"number\"},"
+                + "\"name\": {\"type\": \"string\"},"
+                + "\"tags\": {\"type\": \"array\", \"items\": {\"type\": \"string\"}},"
+                + "\"items\": {\"type\": \"array\", \"items\": {\"type\": \"object\", \"properties\": {"
+                + "  \"a\": {\"type\": \"integer\"},"
+                + "  \"b\": {\"type\": \"boolean\"}}}},"
+                + "\"mixed\": {\"type\": [\"integer\", \"string\"]},"
+                + "\"empty\": {\"type\": \"null\"}},"
+                + "\"required\": [\"id\", \"size\", \"items\"]}"))));
+    }
+
+    @Test
+    public void schemaFromSamplesMergesDocuments() throws IOException {
+        File first = new File(tempDir, "first.json");
+        File second = new File(tempDir, "second.json");
+        Files.writeString(first.toPath(), "{\"a\": 1,\n \"b\": 1}");
+        Files.writeString(second.toPath(), "{\"a\": 2,\n \"c\": 1} {\"a\": 3}");
+
+        ObjectNode schema = new SchemaGenerator().schemaFromSamples(Arrays.asList(first.toURI().toURL(), second.toURI().toURL()));
+
+        assertThat(schema.path("properties").size(), is(3));
+        assertThat(schema.path("required"), is(equalTo(OBJECT_MAPPER.readTree("[\"a\"]"))));
+    }
+
+    @Test
+    public void everyLineIsReadOnceWhenSamplesArePartitioned() throws IOException {
+        // a line that crosses the end of the first partition, and a line that starts exactly at the end
+        for (long offset : new long[] { -5, 0 }) {
+            File samples = new File(tempDir, "samples" + offset + ".jsonl");
+            String sample = "{\"a\": 1, \"b\": \"xxxxxxxxxx\"}\n";
+            String unusual = "{\"b\": \"y\", \"z\": 1}\n";
+            long unusualStart = SchemaGenerator.SAMPLE_PARTITION_SIZE + offset;
+            try (BufferedWriter writer = Files.newBufferedWriter(samples.toPath(), StandardCharsets.UTF_8)) {
+                long length = 0;
+                while (length + sample.length() <= unusualStart) {
+                    writer.write(sample);
+                    length += sample.length();
+                }
+                writer.write(" ".repeat((int) (unusualStart - length - 1)) + "\n");
+                writer.write(unusual);
+                for (int i = 0; i < 1000; i++) {
+                    writer.write(sample);
+                }
+            }
+
+            ObjectNode schema = new SchemaGenerator().schemaFromSamples(Arrays.asList(samples.toURI().toURL()));
+
+            assertThat(schema.path("properties").has("z"), is(true));
+            assertThat(schema.path("required"), is(equalTo(OBJECT_MAPPER.readTree("[\"b\"]"))));
+        }
+    }
+
+    /**
+     * Generates values with few distinct property names, so that objects in
+     * arrays often have properties in common with values of different types.
+     */
+    private static JsonNode randomValue(Random random, int depth) {
+        JsonNodeFactory factory = JsonNodeFactory.instance;
+        switch (random.nextInt(depth < 4 ? 10 : 6)) {
+            case 0: return factory.nullNode();
+            case 1: return factory.numberNode(random.nextInt(100));
+            case 2: return random.nextBoolean() ? factory.numberNode(Long.MAX_VALUE - random.nextInt(100)) : factory.numberNode(BigInteger.TEN.pow(20));
+            case 3: return factory.numberNode(new BigDecimal("1.5"));
+            case 4: return factory.textNode("x");
+            case 5: return factory.booleanNode(random.nextBoolean());
+            case 6:
+            case 7:
+                ObjectNode object = factory.objectNode();
+                for (int i = random.nextInt(4); i > 0; i--) {
+                    object.set(String.valueOf((char) ('a' + random.nextInt(4))), randomValue(random, depth + 1));
+                }
+                return object;
+            default:
+                ArrayNode array = factory.arrayNode();
+                for (int i = random.nextInt(5); i > 0; i--) {
+                    array.add(randomValue(random, depth + 1));
+                }
+                return array;
+        }
+    }
+
+    /**
+     * Infers a schema by merging the items of each array in the example tree,
+     * as SchemaGenerator did before examples were read as a stream. This
+     * modifies the given tree.
+     */
+    private static ObjectNode referenceSchema(JsonNode example) {
+        if (example.isObject()) {
+            ObjectNode schema = OBJECT_MAPPER.createObjectNode();
+            schema.put("type", "object");
+            ObjectNode properties = schema.putObject("properties");
+            for (Iterator<String> iter = example.fieldNames(); iter.hasNext(); ) {
+                String property = iter.next();
+                properties.set(property, referenceSchema(example.get(property)));
+            }
+            return schema;
+        } else if (example.isArray()) {
+            ObjectNode schema = OBJECT_MAPPER.createObjectNode();
+            schema.put("type", "array");
+            if (example.size() > 0) {
+                JsonNode item = example.get(0);
+                if (item.isObject()) {
+                    ObjectNode mergedItems = OBJECT_MAPPER.createObjectNode();
+                    for (JsonNode other : example) {
+                        if (other.isObject()) {
+                            mergeObjectNodes(mergedItems, (ObjectNode) other);
+                        }
+                    }
+                    item = mergedItems;
+                }
+                schema.set("items", referenceSchema(item));
+            }
+            return schema;
+        } else if (example.isNull()) {
+            return OBJECT_MAPPER.createObjectNode().putNull("type");
+        } else if (example.isLong()) {
+            return OBJECT_MAPPER.createObjectNode().put("type", "integer").put("minimum", Long.MAX_VALUE);
+        } else if (example.isInt()) {
+            return OBJECT_MAPPER.createObjectNode().put("type", "integer");
+        } else if (example.isTextual()) {
+            return OBJECT_MAPPER.createObjectNode().put("type", "string");
+        } else if (example.isNumber()) {
+            return OBJECT_MAPPER.createObjectNode().put("type", "number");
+        } else {
+            return OBJECT_MAPPER.createObjectNode().put("type", "boolean");
+        }
+    }
+
+    private static void mergeObjectNodes(ObjectNode targetNode, ObjectNode updateNode) {
+        for (Iterator<String> fieldNames = updateNode.fieldNames(); fieldNames.hasNext(); ) {
+            String fieldName = fieldNames.next();
+            JsonNode targetValue = targetNode.get(fieldName);
+            JsonNode updateValue = updateNode.get(fieldName);
+
+            if (targetValue == null) {
+                targetNode.set(fieldName, updateValue);
+            } else if (targetValue.isObject() && updateValue.isObject()) {
+                mergeObjectNodes((ObjectNode) targetValue, (ObjectNode) updateValue);
+            } else if (targetValue.isArray() && updateValue.isArray()) {
+                ((ArrayNode) targetValue).addAll((ArrayNode) updateValue);
+            } else if (!updateValue.isNull()) {
+                targetNode.set(fieldName, updateValue);
+            }
+        }
+    }
+
+}
@@ -18,6 +18,7 @@ package org.jsonschema2pojo;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 import java.io.File;
@@ -25,6 +26,14 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.Strings;
 import org.junit.jupiter.api.Test;
@@ -164,4 +173,83 @@ public class SchemaStoreTest {
 
     }
 
+    @Test
+    public void preloadReadsReferencedDocumentsOnce() throws URISyntaxException {
+
+        URI childUri = getClass().getResource("/schema/child.json").toURI();
+        URI parentUri = getClass().getResource("/schema/parent.json").toURI();
+
+        ContentResolver contentResolver = spy(new ContentResolver());
+        SchemaStore schemaStore = new SchemaStore(contentResolver, new NoopRuleLogger());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            schemaStore.preload(Collections.singletonList(childUri), executor);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Schema childSchema = schemaStore.create(childUri, "#/.");
+        Schema parentSchema = schemaStore.create(childSchema, "parent.json", "#/.");
+
+        assertThat(parentSchema.getId(), is(equalTo(parentUri)));
+        assertThat(parentSchema.getContent().get("javaType").asText(), is("com.example.package.GeneratedParentType"));
+        verify(contentResolver, times(1)).resolve(childUri);
+        verify(contentResolver, times(1)).resolve(parentUri);
+
+    }
+
+    @Test
+    public void concurrentCreateReadsDocumentOnceAndReturnsSameSchema() throws Exception {
+
+        URI addressUri = getClass().getResource("/schema/address.json").toURI();
+
+        CountDownLatch resolving = new CountDownLatch(1);
+        ContentResolver contentResolver = spy(new ContentResolver());
+        doAnswer(invocation -> {
+            // hold the first read open while the other threads ask for the same document
+            resolving.await(100, TimeUnit.MILLISECONDS);
+            return invocation.callRealMethod();
+        }).when(contentResolver).resolve(addressUri);
+
+        SchemaStore schemaStore = new SchemaStore(contentResolver, new NoopRuleLogger());
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Schema>> documents = new ArrayList<>();
+            List<Future<Schema>> fragments = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                documents.add(executor.submit(() -> schemaStore.create(addressUri, "#/.")));
+                fragments.add(executor.submit(() -> schemaStore.create(URI.create(addressUri + "#/properties/post-office-box"), "#/.")));
+            }
+            resolving.countDown();
+
+            Schema document = documents.get(0).get();
+            Schema fragment = fragments.get(0).get();
+            for (int i = 1; i < 8; i++) {
+                assertThat(documents.get(i).get(), is(sameInstance(document)));
+                assertThat(fragments.get(i).get(), is(sameInstance(fragment)));
+            }
+            assertThat(fragment.getParent(), is(sameInstance(document)));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(contentResolver, times(1)).resolve(addressUri);
+    }
+
+    @Test
+    public void failedReadIsRetriedOnNextCreate() throws URISyntaxException {
+
+        URI addressUri = getClass().getResource("/schema/address.json").toURI();
+
+        ContentResolver contentResolver = spy(new ContentResolver());
+        doThrow(new IllegalArgumentException("unavailable")).doCallRealMethod().when(contentResolver).resolve(addressUri);
+
+        SchemaStore schemaStore = new SchemaStore(contentResolver, new NoopRuleLogger());
+
+        assertThrows(IllegalArgumentException.class, () -> schemaStore.create(addressUri, "#/."));
+        assertThat(schemaStore.create(addressUri, "#/.").getContent().has("description"), is(true));
+    }
+
 }
@@ -20,9 +20,13 @@ import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.Mockito.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.jsonschema2pojo.Annotator;
 import org.jsonschema2pojo.RuleLogger;
 import org.jsonschema2pojo.Schema;
+import org.jsonschema2pojo.model.EnumDefinition;
 import org.jsonschema2pojo.util.NameHelper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -34,6 +38,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JFieldVar;
 import com.sun.codemodel.JPackage;
 import com.sun.codemodel.JType;
 
@@ -84,4 +90,35 @@ public class EnumRuleTest {
         assertThat(result2.fullName(), is("org.jsonschema2pojo.rules.Status_"));
     }
 
+    @Test
+    public void overriddenQuickLookupMapIsUsedForStringEnums() {
+        final Answer<?> firstArgAnswer = invocation -> invocation.getArgument(0);
+        when(nameHelper.getClassName(anyString(), ArgumentMatchers.any(JsonNode.class))).thenAnswer(firstArgAnswer);
+        when(nameHelper.replaceIllegalCharacters(anyString())).thenAnswer(firstArgAnswer);
+        when(nameHelper.normalizeName(anyString())).thenAnswer(firstArgAnswer);
+
+        JPackage jpackage = new JCodeModel()._package(getClass().getPackage().getName());
+
+        ObjectNode enumNode = new ObjectMapper().createObjectNode();
+        enumNode.put("type", "string");
+        enumNode.putArray("enum").add("open").add("closed");
+
+        when(typeRule.apply("status", enumNode, null, jpackage, schema))
+        .thenReturn(jpackage.owner()._ref(String.class));
+
+        List<JDefinedClass> lookups = new ArrayList<>();
+        EnumRule customRule = new EnumRule(ruleFactory) {
+            @Override
+            protected JFieldVar addQuickLookupMap(EnumDefinition enumDefinition, JDefinedClass _enum) {
+                lookups.add(_enum);
+                return super.addQuickLookupMap(enumDefinition, _enum);
+            }
+        };
+
+        JDefinedClass result = (JDefinedClass) customRule.apply("status", enumNode, null, jpackage, schema);
+
+        assertThat(lookups, contains(result));
+        assertThat(result.fields().get("CONSTANTS").type().erasure().fullName(), is("java.util.Map"));
+    }
+
 }
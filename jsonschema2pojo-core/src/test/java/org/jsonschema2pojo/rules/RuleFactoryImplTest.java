@@ -27,6 +27,9 @@ import org.jsonschema2pojo.RuleLogger;
 import org.jsonschema2pojo.SchemaStore;
 import org.junit.jupiter.api.Test;
 
+import com.sun.codemodel.JDocComment;
+import com.sun.codemodel.JDocCommentable;
+
 public class RuleFactoryImplTest {
 
     @Test
@@ -74,6 +77,43 @@ public class RuleFactoryImplTest {
 
     }
 
+    @Test
+    public void rulesAreReused() {
+
+        RuleFactory ruleFactory = new RuleFactory();
+
+        assertThat(ruleFactory.getObjectRule(), is(sameInstance(ruleFactory.getObjectRule())));
+        assertThat(ruleFactory.getPropertyRule(), is(sameInstance(ruleFactory.getPropertyRule())));
+        assertThat(ruleFactory.getTitleRule(), is(sameInstance(ruleFactory.getTitleRule())));
+        assertThat(ruleFactory.getSchemaRule(), is(not(sameInstance(new RuleFactory().getSchemaRule()))));
+    }
+
+    @Test
+    public void rulesAreCreatedAgainWhenGenerationConfigChanges() {
+
+        RuleFactory ruleFactory = new RuleFactory();
+        Rule<?, ?> formatRule = ruleFactory.getFormatRule();
+
+        ruleFactory.setGenerationConfig(new DefaultGenerationConfig());
+
+        assertThat(ruleFactory.getFormatRule(), is(not(sameInstance(formatRule))));
+    }
+
+    @Test
+    public void overriddenFactoryMethodsAreUsed() {
+
+        Rule<JDocCommentable, JDocComment> titleRule = new TitleRule();
+        RuleFactory ruleFactory = new RuleFactory() {
+            @Override
+            public Rule<JDocCommentable, JDocComment> getTitleRule() {
+                return titleRule;
+            }
+        };
+
+        assertThat(ruleFactory.getTitleRule(), is(sameInstance(titleRule)));
+        assertThat(ruleFactory.getDescriptionRule(), is(sameInstance(ruleFactory.getDescriptionRule())));
+    }
+
     @Test
     public void generationConfigIsReturned() {
 
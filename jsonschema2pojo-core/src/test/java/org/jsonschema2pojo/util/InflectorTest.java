@@ -16,6 +16,11 @@
 
 package org.jsonschema2pojo.util;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -69,6 +74,99 @@ public class InflectorTest {
         assertThat(Inflector.getInstance().singularize("media"), is("medium"));
     }
 
+    @Test
+    public void indexedRulesMatchEveryRuleInOrder() {
+
+        Inflector inflector = Inflector.getInstance();
+
+        for (String word : words()) {
+            assertThat(word, inflector.singularize(word), is(inflector.singularizeWithEveryRule(word)));
+            assertThat(word, inflector.pluralize(word), is(inflector.pluralizeWithEveryRule(word)));
+            // the second time is read from the cache
+            assertThat(word, inflector.singularize(word), is(inflector.singularizeWithEveryRule(word)));
+        }
+    }
+
+    @Test
+    public void rulesThatCantBeIndexedAreTriedForEveryWord() {
+
+        Inflector inflector = Inflector.builder()
+                .singular("s$", "")
+                .singular("[xyz]es$", "x")
+                .singular("(a|b(c|d)|[ef])ns$", "$1n")
+                .singular("(a|)rs$", "r")
+                .singular("\\$$", "dollar")
+                .singular("ing|ed$", "")
+                .singular("(?=.*q)qs$", "q")
+                .singular("(?i)z$", "zed")
+                .singular("\\Qts\\E$", "t")
+                .singular("abc", "xyz")
+                .build();
+
+        for (String word : words()) {
+            assertThat(word, inflector.singularize(word), is(inflector.singularizeWithEveryRule(word)));
+        }
+        for (String word : new String[] { "bens", "dns", "ens", "rs", "ars", "a$", "tinged", "qs", "Z", "ts", "abcd", "s\n" }) {
+            assertThat(word, inflector.singularize(word), is(inflector.singularizeWithEveryRule(word)));
+        }
+    }
+
+    /**
+     * @return common English nouns, their plurals, and variations on them
+     *         (case, compound names, unusual characters)
+     */
+    private static List<String> words() {
+        Inflector inflector = Inflector.getInstance();
+        Random random = new Random(42);
+        List<String> words = new ArrayList<>();
+
+        for (String noun : NOUNS) {
+            String plural = inflector.pluralizeWithEveryRule(noun);
+            for (String word : new String[] { noun, plural, noun + "s", noun + "es", noun + "List", "lineItem" + capitalize(plural) }) {
+                words.add(word);
+                words.add(word.toUpperCase(Locale.ROOT));
+                words.add(capitalize(word));
+                words.add(word + "\n");
+                words.add(word + "\u00e9");
+                words.add("_" + word + "_");
+            }
+        }
+
+        String letters = "aeiousxyzfvlrnmthcqbd$|.SIEX\u00c9\u0130\u212a_- \n";
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int length = random.nextInt(8); length > 0; length--) {
+                word.append(letters.charAt(random.nextInt(letters.length())));
+            }
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    private static String capitalize(String word) {
+        return word.isEmpty() ? word : Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static final String[] NOUNS = {
+            "account", "address", "agency", "alias", "analysis", "angle", "apple", "archive", "area", "argument",
+            "article", "attribute", "axis", "baby", "basis", "bath", "batch", "bench", "box", "branch",
+            "brush", "buffalo", "bus", "business", "buzz", "calf", "category", "cherry", "child", "church",
+            "circle", "city", "class", "client", "column", "company", "contact", "copy", "crisis", "cross",
+            "cry", "curve", "datum", "database", "day", "deer", "detail", "device", "diagnosis", "dish",
+            "dog", "domain", "dwarf", "echo", "elf", "email", "employee", "entity", "entry", "equipment",
+            "event", "fax", "field", "file", "fish", "fix", "fly", "foot", "fox", "gas",
+            "glass", "goose", "half", "hero", "hive", "house", "index", "information", "item", "job",
+            "key", "kiss", "knife", "lady", "leaf", "life", "line", "list", "loaf", "louse",
+            "man", "match", "matrix", "medium", "menu", "message", "money", "mouse", "move", "movie",
+            "news", "node", "note", "octopus", "order", "ox", "parenthesis", "party", "person", "phase",
+            "photo", "policy", "potato", "process", "product", "proof", "prognosis", "property", "quiz", "radius",
+            "record", "reply", "request", "response", "rice", "roof", "rule", "safe", "scarf", "schema",
+            "search", "sex", "sheep", "shelf", "shoe", "sky", "slave", "solo", "species", "specimen",
+            "squid", "status", "story", "strategy", "studio", "synopsis", "tax", "test", "testis", "thesis",
+            "thief", "tomato", "tooth", "topic", "tray", "user", "valley", "value", "vertex", "virus",
+            "volcano", "wharf", "wife", "wish", "witch", "wolf", "woman", "zoo"
+    };
+
     @Test
     public void testPluralize() {
         assertThat(Inflector.getInstance().pluralize("mattress"), is("mattresses"));
@@ -31,4 +31,15 @@ public class MakeUniqueClassNameTest {
         assertThat(MakeUniqueClassName.makeUnique("NodeMode__100"), equalTo("NodeMode__101"));
     }
 
+    @Test
+    public void classNameStrategyCanBeAppliedManyTimes() {
+        for (String className : new String[] { "NodeMode", "NodeMode__5", "A__", "__7", "NodeMode__2147483640" }) {
+            String expected = className;
+            for (int times = 0; times < 20; times++) {
+                assertThat(className + " " + times, MakeUniqueClassName.makeUnique(className, times), equalTo(expected));
+                expected = MakeUniqueClassName.makeUnique(expected);
+            }
+        }
+    }
+
 }
@@ -18,15 +18,27 @@ package org.jsonschema2pojo.util;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.apache.commons.lang3.StringUtils.*;
 import static org.mockito.Mockito.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.text.WordUtils;
 import org.jsonschema2pojo.DefaultGenerationConfig;
 import org.jsonschema2pojo.GenerationConfig;
 import org.junit.jupiter.api.Test;
 
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.codemodel.JClassAlreadyExistsException;
 import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JPackage;
 
 public class NameHelperTest {
 
@@ -71,6 +83,165 @@ public class NameHelperTest {
         assertThat(nameHelper.getClassName("foo", node("javaName", "bar").put("title", "abc")), is("bar"));
     }
 
+    @Test
+    public void namesAreSameAsWithRegularExpressionsAndWordUtils() {
+        String alphabet = "aZ9_$-. xYURLé\u0130\uD83D\uDE00";
+        Random random = new Random(7);
+
+        for (char[] wordDelimiters : new char[][] { { '-', ' ', '_' }, {}, null, { '_', 'Y' } }) {
+            NameHelper nameHelper = new NameHelper(new DefaultGenerationConfig() {
+                @Override
+                public char[] getPropertyWordDelimiters() {
+                    return wordDelimiters;
+                }
+            });
+
+            for (int i = 0; i < 5000; i++) {
+                StringBuilder name = new StringBuilder();
+                for (int length = 1 + random.nextInt(8); length > 0; length--) {
+                    name.appendCodePoint(alphabet.codePointAt(alphabet.offsetByCodePoints(0, random.nextInt(alphabet.codePointCount(0, alphabet.length())))));
+                }
+
+                String replaced = name.toString().replaceAll(NameHelper.ILLEGAL_CHARACTER_REGEX, "_");
+                assertThat(name.toString(), nameHelper.replaceIllegalCharacters(name.toString()), is(replaced));
+                assertThat(name.toString(), nameHelper.capitalizeTrailingWords(name.toString()), is(capitalizeTrailingWords(name.toString(), wordDelimiters)));
+                assertThat(name.toString(), nameHelper.getSetterName(name.toString(), NODE), is("set" + capitalizeAccessorName(capitalizeTrailingWords(replaced, wordDelimiters))));
+            }
+        }
+    }
+
+    @Test
+    public void cachedNamesFollowWordDelimiters() {
+        GenerationConfig config = mock(GenerationConfig.class);
+        when(config.getPropertyWordDelimiters()).thenReturn(new char[] { '_' });
+        NameHelper nameHelper = new NameHelper(config);
+
+        assertThat(nameHelper.getPropertyName("foo_bar", NODE), is("fooBar"));
+
+        when(config.getPropertyWordDelimiters()).thenReturn(new char[] { '$' });
+
+        assertThat(nameHelper.getPropertyName("foo_bar", NODE), is("foo_bar"));
+        assertThat(nameHelper.getPropertyName("foo_bar", node("javaName", "foo$baz")), is("fooBaz"));
+    }
+
+    @Test
+    public void uniqueClassNamesAreSameAsProbingEachName() throws JClassAlreadyExistsException {
+        Random random = new Random(3);
+        String[] names = { "Item", "Item__2", "Value", "value", "Data__1" };
+        JPackage _package = new JCodeModel()._package("com.example");
+        JPackage expectedPackage = new JCodeModel()._package("com.example");
+
+        for (int i = 0; i < 2000; i++) {
+            String name = names[random.nextInt(names.length)];
+            if (random.nextInt(4) == 0) {
+                // a class that is created without asking for a unique name
+                name = MakeUniqueClassName.makeUnique(name, random.nextInt(30));
+                if (!isTaken(name, expectedPackage)) {
+                    _package._class(name);
+                    expectedPackage._class(name);
+                }
+                continue;
+            }
+
+            String uniqueName = nameHelper.getUniqueClassName(name, NODE, _package);
+            String expectedName = makeUniqueByProbing(nameHelper.getClassName(name, NODE, expectedPackage), expectedPackage);
+            assertThat(uniqueName, is(expectedName));
+
+            _package._class(uniqueName);
+            expectedPackage._class(expectedName);
+        }
+    }
+
+    @Test
+    public void uniqueClassNamesCanBeFoundConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    JPackage _package = new JCodeModel()._package("com.example");
+                    List<String> classNames = new ArrayList<>();
+                    for (int j = 0; j < 500; j++) {
+                        String className = nameHelper.getUniqueClassName("Item", NODE, _package);
+                        _package._class(className);
+                        classNames.add(className);
+                    }
+                    return classNames;
+                }));
+            }
+
+            for (Future<List<String>> result : results) {
+                List<String> classNames = result.get();
+                assertThat(classNames.get(0), is("Item"));
+                assertThat(classNames.get(499), is("Item__499"));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Finds a unique class name as NameHelper did before names taken in each
+     * package were remembered.
+     */
+    private static String makeUniqueByProbing(String className, JPackage _package) {
+        return isTaken(className, _package) ? makeUniqueByProbing(MakeUniqueClassName.makeUnique(className), _package) : className;
+    }
+
+    private static boolean isTaken(String className, JPackage _package) {
+        try {
+            JDefinedClass _class = _package._class(className);
+            _package.remove(_class);
+            return false;
+        } catch (JClassAlreadyExistsException e) {
+            return true;
+        }
+    }
+
+    private static String capitalizeAccessorName(String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1))) {
+            return name.equals("Class") ? "Class_" : name;
+        }
+        return capitalize(name).equals("Class") ? "Class_" : capitalize(name);
+    }
+
+    /**
+     * Capitalizes words as NameHelper did before names were scanned in a
+     * single pass.
+     */
+    private static String capitalizeTrailingWords(String name, char[] wordDelimiters) {
+        if (name.equals("_")) {
+            return "__";
+        }
+
+        if (containsAny(name, wordDelimiters)) {
+            String capitalizedNodeName;
+            if (areAllWordsUpperCaseBesideDelimiters(name, wordDelimiters)) {
+                capitalizedNodeName = WordUtils.capitalizeFully(name, wordDelimiters);
+            } else {
+                capitalizedNodeName = WordUtils.capitalize(name, wordDelimiters);
+            }
+            name = name.charAt(0) + capitalizedNodeName.substring(1);
+
+            for (char c : wordDelimiters) {
+                name = remove(name, c);
+            }
+        } else if (areAllWordsUpperCaseBesideDelimiters(name, wordDelimiters)) {
+            name = WordUtils.capitalizeFully(name, wordDelimiters);
+        }
+
+        return name;
+    }
+
+    private static boolean areAllWordsUpperCaseBesideDelimiters(String words, char... delimiters) {
+        for (char c : words.toCharArray()) {
+            if (!containsAny("" + c, delimiters) && Character.isLowerCase(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private NameHelper helper() {
         GenerationConfig config = mock(GenerationConfig.class);
         when(config.isUseTitleAsClassname()).thenReturn(true);
@@ -0,0 +1,87 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.sun.codemodel.JClassAlreadyExistsException;
+import com.sun.codemodel.JCodeModel;
+
+public class TypeResolverTest {
+
+    @Test
+    public void classesAreResolvedByName() {
+        TypeResolver typeResolver = new TypeResolver();
+
+        assertThat(typeResolver.resolve("java.lang.String"), is(equalTo(String.class)));
+        assertThat(typeResolver.resolve("com.example.Missing"), is(nullValue()));
+        assertThat(typeResolver.resolve("java.util.List<java.lang.String>"), is(nullValue()));
+    }
+
+    @Test
+    public void referencedTypesAreResolved() {
+        JCodeModel codeModel = new JCodeModel();
+
+        assertThat(new TypeResolver().resolve(codeModel.ref(Integer.class)), is(equalTo(Integer.class)));
+    }
+
+    @Test
+    public void definedTypesAreNeverResolved() throws JClassAlreadyExistsException {
+        JCodeModel codeModel = new JCodeModel();
+
+        assertThat(new TypeResolver().resolve(codeModel._class("java.util.ArrayList")), is(nullValue()));
+    }
+
+    @Test
+    public void eachNameIsLoadedOncePerClassLoader() {
+        CountingClassLoader first = new CountingClassLoader();
+        CountingClassLoader second = new CountingClassLoader();
+        TypeResolver typeResolver = new TypeResolver();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(typeResolver.resolve("java.lang.String", first), is(equalTo(String.class)));
+            assertThat(typeResolver.resolve("com.example.Missing", first), is(nullValue()));
+            assertThat(typeResolver.resolve("com.example.Missing", second), is(nullValue()));
+        }
+
+        assertThat(first.loaded, contains("java.lang.String", "com.example.Missing"));
+        assertThat(second.loaded, contains("com.example.Missing"));
+    }
+
+    private static class CountingClassLoader extends ClassLoader {
+
+        private final List<String> loaded = new ArrayList<>();
+
+        CountingClassLoader() {
+            super(TypeResolverTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            loaded.add(name);
+            return super.loadClass(name, resolve);
+        }
+
+    }
+
+}
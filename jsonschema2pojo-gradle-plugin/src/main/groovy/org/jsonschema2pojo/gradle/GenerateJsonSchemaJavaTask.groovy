@@ -15,28 +15,110 @@
  */
 package org.jsonschema2pojo.gradle
 
+import javax.inject.Inject
+
+import org.jsonschema2pojo.AllFileFilter
 import org.jsonschema2pojo.GenerationConfig
-import org.jsonschema2pojo.Jsonschema2Pojo
+import org.jsonschema2pojo.GenerationManifest
+import org.jsonschema2pojo.OutputFormat
 
 import org.gradle.api.DefaultTask
 import org.gradle.api.GradleException
-import org.gradle.api.model.ReplacedBy
+import org.gradle.api.file.ConfigurableFileCollection
+import org.gradle.api.file.DirectoryProperty
+import org.gradle.api.file.RegularFileProperty
+import org.gradle.api.provider.ListProperty
+import org.gradle.api.provider.MapProperty
+import org.gradle.api.provider.Property
+import org.gradle.api.tasks.CacheableTask
+import org.gradle.api.tasks.Classpath
 import org.gradle.api.tasks.Input
+import org.gradle.api.tasks.InputFiles
+import org.gradle.api.tasks.Internal
+import org.gradle.api.tasks.OutputDirectory
+import org.gradle.api.tasks.PathSensitive
+import org.gradle.api.tasks.PathSensitivity
 import org.gradle.api.tasks.TaskAction
+import org.gradle.work.Incremental
+import org.gradle.work.InputChanges
+import org.gradle.workers.WorkerExecutor
 
 /**
- * A task that performs code generation.
+ * Generates Java types for the main source set. The task is configured from
+ * the <code>jsonSchema2Pojo</code> extension once the project has been
+ * evaluated, and generation runs in a worker with an isolated classloader.
+ * <p>
+ * When <code>incrementalGeneration</code> is enabled, the task records a
+ * manifest of its inputs and outputs in the target directory (see
+ * {@link GenerationManifest}). When Gradle reports that the
+ * previous outputs can be trusted, only the schemas affected by the changed
+ * files are generated again; otherwise the manifest is discarded and every
+ * schema is generated.
  *
  * @author Ben Manes (ben.manes@gmail.com)
  */
-class GenerateJsonSchemaJavaTask extends DefaultTask {
-  @ReplacedBy("configurationString")
-  GenerationConfig configuration
+@CacheableTask
+abstract class GenerateJsonSchemaJavaTask extends DefaultTask {
+
+  /**
+   * The extension this task is configured from. It is only read while the
+   * build is being configured.
+   */
+  @Internal
+  transient GenerationConfig configuration
 
+  /**
+   * The configuration options, other than sources and locations, as strings.
+   */
   @Input
-  String getConfigurationString() {
-    configuration.toString();
-  }
+  abstract MapProperty<String, String> getOptions()
+
+  /**
+   * The schema files and directories on the local file system.
+   */
+  @Incremental
+  @InputFiles
+  @PathSensitive(PathSensitivity.RELATIVE)
+  abstract ConfigurableFileCollection getSourceFiles()
+
+  /**
+   * The sources that aren't on the local file system (http, https, classpath, ...).
+   */
+  @Input
+  abstract ListProperty<String> getRemoteSources()
+
+  /**
+   * Every source, in the order given by the configuration.
+   */
+  @Internal
+  abstract ListProperty<String> getSources()
+
+  @Internal
+  abstract Property<FileFilter> getFileFilter()
+
+  @Internal
+  abstract DirectoryProperty getRemoteCacheDirectory()
+
+  /**
+   * Where a profile of the generation run is written, if profiling is
+   * enabled. The profile isn't an output of the task, so it is only written
+   * when the task runs.
+   */
+  @Internal
+  abstract RegularFileProperty getProfileReport()
+
+  /**
+   * Classes that generation may load, in addition to jsonschema2pojo itself:
+   * the build script classpath and any custom annotator or rule factory.
+   */
+  @Classpath
+  abstract ConfigurableFileCollection getClasspath()
+
+  @OutputDirectory
+  abstract DirectoryProperty getTargetDirectory()
+
+  @Inject
+  abstract WorkerExecutor getWorkerExecutor()
 
   GenerateJsonSchemaJavaTask() {
     description = 'Generates Java classes from a json schema.'
@@ -52,16 +134,31 @@ class GenerateJsonSchemaJavaTask extends DefaultTask {
       } else {
         throw new GradleException('generateJsonSchema: Java plugin is required')
       }
-      outputs.dir configuration.targetDirectory
       setTargetVersion configuration
 
-      inputs.property("configuration", configuration.toString())
-      inputs.files project.files(configuration.source.findAll { 'file'.equals(it.protocol) })
+      GenerationConfig config = configuration
+      options.set(project.provider { GenerationConfigOptions.encode(config) })
+      sources.set(project.provider { config.source.collect { it.toString() } })
+      sourceFiles.from(project.provider { config.source.findAll { 'file'.equals(it.protocol) }.collect { new File(it.toURI()) } })
+      remoteSources.set(project.provider { config.source.findAll { !'file'.equals(it.protocol) }.collect { it.toString() } })
+      fileFilter.set(project.provider { config.fileFilter })
+      remoteCacheDirectory.fileProvider(project.provider { config.remoteCacheDirectory })
+      profileReport.fileProvider(project.provider { config.profileReport })
+      targetDirectory.set(configuration.targetDirectory)
+
+      classpath.from(project.buildscript.configurations.getByName('classpath'))
+      classpath.from(project.provider { [config.customAnnotator, config.customRuleFactory].collect { codeSource(it) }.findAll() })
     }
   }
 
   def configureJava() {
-    project.sourceSets.main.java.srcDirs += [ configuration.targetDirectory ]
+    if (configuration.outputFormat == OutputFormat.SOURCES) {
+      project.sourceSets.main.java.srcDirs += [ configuration.targetDirectory ]
+    } else if (configuration.outputFormat == OutputFormat.CLASSES) {
+      project.sourceSets.main.output.dir(configuration.targetDirectory, builtBy: this)
+    } else {
+      project.dependencies.add('implementation', project.files(new File(configuration.targetDirectory, OutputFormat.JAR_FILE_NAME)).builtBy(this))
+    }
     dependsOn(project.tasks.processResources)
     project.tasks.compileJava.dependsOn(this)
 
@@ -72,10 +169,30 @@ class GenerateJsonSchemaJavaTask extends DefaultTask {
   }
 
   @TaskAction
-  def generate() {
-    logger.info 'Using this configuration:\n{}', configuration
+  def generate(InputChanges inputChanges) {
+    File target = targetDirectory.get().asFile
+
+    if (inputChanges.incremental) {
+      logger.info '{} schema file(s) changed since the previous build', inputChanges.getFileChanges(sourceFiles).size()
+    } else {
+      // the previous outputs can't be trusted, so generate every schema
+      new File(target, GenerationManifest.FILE_NAME).delete()
+    }
+
+    logger.info 'Using this configuration:\n{}', options.get()
 
-    Jsonschema2Pojo.generate(configuration, new GradleRuleLogger(logger))
+    Set<String> acceptedFiles = collectAcceptedFiles(fileFilter.getOrNull())
+    GenerateJsonSchemaJavaTask task = this
+
+    workerExecutor.classLoaderIsolation { it.classpath.from(task.classpath) }.submit(GenerateJsonSchemaWorkAction) { parameters ->
+      parameters.options.set(task.options)
+      parameters.sources.set(task.sources)
+      parameters.targetDirectory.set(target)
+      parameters.remoteCacheDirectory.set(task.remoteCacheDirectory)
+      parameters.profileReport.set(task.profileReport)
+      // collection properties default to empty, so clear this when every file is accepted
+      parameters.acceptedFiles.set((Iterable<String>) acceptedFiles)
+    }
   }
 
   void setTargetVersion(JsonSchemaExtension configuration) {
@@ -85,4 +202,35 @@ class GenerateJsonSchemaJavaTask extends DefaultTask {
       logger.info 'Using Gradle sourceCompatibility as targetVersion for jsonschema2pojo: ' + configuration.targetVersion
     }
   }
+
+  /**
+   * Applies the file filter here, since the filter itself may not be loadable
+   * by the worker. The worker then accepts exactly the files and directories
+   * that the filter accepted.
+   *
+   * @return the absolute paths of the accepted files and directories, or
+   *         <code>null</code> if every file is accepted
+   */
+  protected Set<String> collectAcceptedFiles(FileFilter filter) {
+    if (filter == null || filter instanceof AllFileFilter) {
+      return null
+    }
+
+    Set<String> acceptedFiles = new HashSet<>()
+    Deque<File> pending = new ArrayDeque<>(sourceFiles.files.findAll { it.isDirectory() })
+    while (!pending.isEmpty()) {
+      for (File file : pending.pop().listFiles(filter)) {
+        acceptedFiles.add(file.absolutePath)
+        if (file.isDirectory()) {
+          pending.add(file)
+        }
+      }
+    }
+    acceptedFiles
+  }
+
+  protected static File codeSource(Class<?> type) {
+    def location = type?.protectionDomain?.codeSource?.location
+    location ? new File(location.toURI()) : null
+  }
 }
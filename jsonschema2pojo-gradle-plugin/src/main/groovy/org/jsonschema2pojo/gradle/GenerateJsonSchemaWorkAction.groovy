@@ -0,0 +1,49 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.gradle
+
+import org.jsonschema2pojo.AllFileFilter
+import org.jsonschema2pojo.GenerationConfig
+import org.jsonschema2pojo.Jsonschema2Pojo
+
+import org.gradle.api.logging.Logging
+import org.gradle.workers.WorkAction
+
+/**
+ * Runs jsonschema2pojo for {@link GenerateJsonSchemaJavaTask}, in a worker
+ * with its own classloader.
+ */
+abstract class GenerateJsonSchemaWorkAction implements WorkAction<GenerateJsonSchemaWorkParameters> {
+
+  @Override
+  void execute() {
+    Set<String> acceptedFiles = parameters.acceptedFiles.getOrNull()
+
+    Map<String, Object> values = [
+      source: parameters.sources.get().collect { new URL(it) },
+      targetDirectory: parameters.targetDirectory.get().asFile,
+      remoteCacheDirectory: parameters.remoteCacheDirectory.asFile.getOrNull(),
+      profileReport: parameters.profileReport.asFile.getOrNull(),
+      fileFilter: acceptedFiles == null ? new AllFileFilter() : { File f -> acceptedFiles.contains(f.absolutePath) } as FileFilter
+    ]
+
+    GenerationConfig config = GenerationConfigOptions.decode(parameters.options.get(), values, getClass().classLoader)
+
+    Jsonschema2Pojo.generate(config, new GradleRuleLogger(Logging.getLogger(GenerateJsonSchemaWorkAction)))
+  }
+
+}
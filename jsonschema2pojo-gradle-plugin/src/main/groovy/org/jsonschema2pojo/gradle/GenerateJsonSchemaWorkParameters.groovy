@@ -0,0 +1,47 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.gradle
+
+import org.gradle.api.file.DirectoryProperty
+import org.gradle.api.file.RegularFileProperty
+import org.gradle.api.provider.ListProperty
+import org.gradle.api.provider.MapProperty
+import org.gradle.api.provider.SetProperty
+import org.gradle.workers.WorkParameters
+
+/**
+ * The parameters of {@link GenerateJsonSchemaWorkAction}.
+ */
+interface GenerateJsonSchemaWorkParameters extends WorkParameters {
+
+  MapProperty<String, String> getOptions()
+
+  ListProperty<String> getSources()
+
+  DirectoryProperty getTargetDirectory()
+
+  DirectoryProperty getRemoteCacheDirectory()
+
+  RegularFileProperty getProfileReport()
+
+  /**
+   * The files and directories accepted by the configured file filter (all
+   * files are accepted if this is not present).
+   */
+  SetProperty<String> getAcceptedFiles()
+
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.gradle
+
+import java.lang.reflect.InvocationHandler
+import java.lang.reflect.Method
+import java.lang.reflect.Modifier
+import java.lang.reflect.Proxy
+
+import org.jsonschema2pojo.GenerationConfig
+
+import com.fasterxml.jackson.databind.ObjectMapper
+
+/**
+ * Converts a {@link GenerationConfig} to a map of option names to strings, and
+ * back. The strings can be used as task inputs (they don't depend on the
+ * classloader, or on where the project is checked out) and passed to a worker.
+ * <p>
+ * Sources and locations aren't included, they are tracked by the task
+ * separately. A file filter is represented by its type (the filter itself
+ * can't be passed to a worker), so it must be given as a value when decoding.
+ */
+class GenerationConfigOptions {
+
+  private static final Set<String> EXCLUDED_OPTIONS = ['source', 'targetDirectory', 'remoteCacheDirectory', 'profileReport'] as Set
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+
+  /**
+   * @param config
+   *            the configuration to convert
+   * @return the value of each option that isn't <code>null</code>, sorted by name
+   */
+  static Map<String, String> encode(GenerationConfig config) {
+    Map<String, String> options = new TreeMap<>()
+    for (Method method : GenerationConfig.methods) {
+      String name = optionName(method)
+      if (name == null || EXCLUDED_OPTIONS.contains(name)) {
+        continue
+      }
+      def value = method.invoke(config)
+      if (value != null) {
+        options.put(name, encodeValue(value))
+      }
+    }
+    options
+  }
+
+  /**
+   * @param options
+   *            option values as returned by {@link #encode(GenerationConfig)}
+   * @param values
+   *            values for other options (these take precedence)
+   * @param classLoader
+   *            the classloader used to load annotator and rule factory classes
+   * @return a configuration with the given values
+   */
+  static GenerationConfig decode(Map<String, String> options, Map<String, Object> values, ClassLoader classLoader) {
+    Map<String, Object> decoded = new HashMap<>()
+    for (Method method : GenerationConfig.methods) {
+      String name = optionName(method)
+      if (name == null) {
+        continue
+      }
+      if (values.containsKey(name)) {
+        decoded.put(name, values.get(name))
+      } else if (options.containsKey(name)) {
+        decoded.put(name, decodeValue(options.get(name), method.returnType, classLoader))
+      }
+    }
+
+    InvocationHandler handler = { proxy, Method method, Object[] args ->
+      switch (method.name) {
+        case 'toString': return options.toString()
+        case 'hashCode': return System.identityHashCode(proxy)
+        case 'equals': return proxy.is(args[0])
+      }
+      String name = optionName(method)
+      if (decoded.containsKey(name)) {
+        return name == 'source' ? ((List) decoded.get(name)).iterator() : decoded.get(name)
+      }
+      method.returnType == boolean ? false : method.returnType == int ? 0 : null
+    }
+    (GenerationConfig) Proxy.newProxyInstance(GenerationConfig.classLoader, [GenerationConfig] as Class[], handler)
+  }
+
+  private static String optionName(Method method) {
+    if (method.parameterCount != 0 || Modifier.isStatic(method.modifiers)) {
+      return null
+    }
+    String name = method.name
+    if (name.startsWith('get') && name.length() > 3) {
+      return name.substring(3).uncapitalize()
+    } else if (name.startsWith('is') && name.length() > 2) {
+      return name.substring(2).uncapitalize()
+    }
+    null
+  }
+
+  private static String encodeValue(Object value) {
+    if (value instanceof Class) {
+      return ((Class) value).name
+    } else if (value instanceof char[]) {
+      return new String((char[]) value)
+    } else if (value instanceof Object[] || value instanceof Map) {
+      return OBJECT_MAPPER.writeValueAsString(value)
+    } else if (value instanceof File) {
+      return ((File) value).absolutePath
+    } else if (value instanceof FileFilter) {
+      return filterType(value.getClass())
+    } else if (value instanceof Enum) {
+      return ((Enum) value).name()
+    }
+    value.toString()
+  }
+
+  /**
+   * @return a name for the type of a filter that doesn't change between
+   *         builds (proxies and lambdas are named after what they implement)
+   */
+  private static String filterType(Class<?> type) {
+    if (Proxy.isProxyClass(type)) {
+      return type.interfaces*.name.join(',')
+    }
+    type.name.contains('$$Lambda') ? type.name.substring(0, type.name.indexOf('$$Lambda')) : type.name
+  }
+
+  private static Object decodeValue(String value, Class<?> type, ClassLoader classLoader) {
+    switch (type) {
+      case boolean: return Boolean.parseBoolean(value)
+      case int: return Integer.parseInt(value)
+      case String: return value
+      case char[]: return value.toCharArray()
+      case String[]: return OBJECT_MAPPER.readValue(value, String[])
+      case Map: return OBJECT_MAPPER.readValue(value, Map)
+      case File: return new File(value)
+      case Class: return Class.forName(value, true, classLoader)
+    }
+    if (type.isEnum()) {
+      return Enum.valueOf((Class<Enum>) type, value)
+    }
+    throw new IllegalArgumentException("Unsupported configuration option type: " + type.name)
+  }
+
+}
@@ -22,6 +22,7 @@ import org.jsonschema2pojo.Annotator
 import org.jsonschema2pojo.GenerationConfig
 import org.jsonschema2pojo.InclusionLevel
 import org.jsonschema2pojo.NoopAnnotator
+import org.jsonschema2pojo.OutputFormat
 import org.jsonschema2pojo.SourceSortOrder
 import org.jsonschema2pojo.SourceType
 import org.jsonschema2pojo.rules.RuleFactory
@@ -97,6 +98,18 @@ public class JsonSchemaExtension implements GenerationConfig {
   Map<String, String> formatTypeMapping
   boolean includeGeneratedAnnotation
   boolean useJakartaValidation
+  int parallelism
+  boolean incrementalGeneration
+  boolean writeOnlyChangedFiles
+  File remoteCacheDirectory
+  boolean offline
+  int remoteTimeout
+  File profileReport
+  boolean streamingGeneration
+  int shardCount
+  int shardIndex
+  OutputFormat outputFormat
+  boolean writeSources
 
   public JsonSchemaExtension() {
     // See DefaultGenerationConfig
@@ -156,6 +169,16 @@ public class JsonSchemaExtension implements GenerationConfig {
     formatTypeMapping = Collections.emptyMap()
     includeGeneratedAnnotation = true
     useJakartaValidation = false
+    parallelism = 1
+    incrementalGeneration = false
+    writeOnlyChangedFiles = false
+    offline = false
+    remoteTimeout = 0
+    streamingGeneration = false
+    shardCount = 1
+    shardIndex = 0
+    outputFormat = OutputFormat.SOURCES
+    writeSources = false
   }
 
   @Override
@@ -214,6 +237,10 @@ public class JsonSchemaExtension implements GenerationConfig {
     sourceSortOrder = SourceSortOrder.valueOf(sortOrder.toUpperCase())
   }
 
+  public void setOutputFormat(String format) {
+    outputFormat = OutputFormat.valueOf(format.toUpperCase())
+  }
+
   public void setTargetLangauge(String language) {
     targetLangauge = Langauge.valueOf(language.toUpperCase())
   }
@@ -290,6 +317,18 @@ public class JsonSchemaExtension implements GenerationConfig {
        |includeConstructorPropertiesAnnotation = ${includeConstructorPropertiesAnnotation}
        |includeGeneratedAnnotation = ${includeGeneratedAnnotation}
        |useJakartaValidation = ${useJakartaValidation}
+       |parallelism = ${parallelism}
+       |incrementalGeneration = ${incrementalGeneration}
+       |writeOnlyChangedFiles = ${writeOnlyChangedFiles}
+       |remoteCacheDirectory = ${remoteCacheDirectory}
+       |offline = ${offline}
+       |remoteTimeout = ${remoteTimeout}
+       |profileReport = ${profileReport}
+       |streamingGeneration = ${streamingGeneration}
+       |shardCount = ${shardCount}
+       |shardIndex = ${shardIndex}
+       |outputFormat = ${outputFormat.toString().toLowerCase()}
+       |writeSources = ${writeSources}
      """.stripMargin()
   }
 
@@ -0,0 +1,85 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.gradle
+
+import static org.hamcrest.MatcherAssert.*
+import static org.hamcrest.Matchers.*
+
+import java.lang.reflect.Method
+
+import org.jsonschema2pojo.AnnotationStyle
+import org.jsonschema2pojo.GenerationConfig
+import org.jsonschema2pojo.NoopAnnotator
+import org.jsonschema2pojo.SourceSortOrder
+import org.junit.jupiter.api.Test
+
+class GenerationConfigOptionsTest {
+
+  @Test
+  void decodedConfigurationHasSameValuesAsOriginal() {
+    JsonSchemaExtension extension = new JsonSchemaExtension()
+    extension.targetPackage = 'com.example'
+    extension.annotationStyle = AnnotationStyle.GSON
+    extension.customAnnotator = NoopAnnotator
+    extension.propertyWordDelimiters = ['_', '-'] as char[]
+    extension.toStringExcludes = ['a', 'b'] as String[]
+    extension.formatTypeMapping = [uuid: 'java.util.UUID']
+    extension.sourceSortOrder = SourceSortOrder.FILES_FIRST
+    extension.parallelism = 4
+
+    Map<String, String> options = GenerationConfigOptions.encode(extension)
+    GenerationConfig decoded = GenerationConfigOptions.decode(options, [fileFilter: extension.fileFilter], getClass().classLoader)
+
+    for (Method method : GenerationConfig.methods) {
+      if (method.parameterCount == 0 && !(method.name in ['getSource', 'getTargetDirectory', 'getRemoteCacheDirectory', 'getProfileReport'])) {
+        def expected = method.invoke(extension)
+        def actual = method.invoke(decoded)
+        if (expected instanceof char[] || expected instanceof Object[]) {
+          assertThat(method.name, actual as List, is(equalTo(expected as List)))
+        } else {
+          assertThat(method.name, actual, is(equalTo(expected)))
+        }
+      }
+    }
+  }
+
+  @Test
+  void locationsAreNotIncludedInOptions() {
+    JsonSchemaExtension extension = new JsonSchemaExtension()
+    extension.targetDirectory = new File('build/generated')
+    extension.remoteCacheDirectory = new File('build/cache')
+    extension.source = [new File('src/main/resources/json')]
+    extension.profileReport = new File('build/profile.json')
+
+    Map<String, String> options = GenerationConfigOptions.encode(extension)
+
+    assertThat(options, not(hasKey('source')))
+    assertThat(options, not(hasKey('targetDirectory')))
+    assertThat(options, not(hasKey('remoteCacheDirectory')))
+    assertThat(options, not(hasKey('profileReport')))
+    assertThat(options.values().findAll { it.contains(new File('').absolutePath) }, is(empty()))
+  }
+
+  @Test
+  void fileFiltersAreIdentifiedByType() {
+    JsonSchemaExtension extension = new JsonSchemaExtension()
+    extension.fileFilter = { File f -> f.name.endsWith('.json') } as FileFilter
+
+    assertThat(GenerationConfigOptions.encode(extension).get('fileFilter'), is('java.io.FileFilter'))
+  }
+
+}
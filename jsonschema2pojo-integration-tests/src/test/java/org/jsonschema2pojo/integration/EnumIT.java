@@ -113,6 +113,64 @@ public class EnumIT {
                 InvocationTargetException.class,
                 () -> fromValue.invoke(enumClass, "something invalid"));
         assertThat(exception.getCause(), is(instanceOf(IllegalArgumentException.class)));
+        assertThat(exception.getCause().getMessage(), is("something invalid"));
+    }
+
+    @Test
+    public void enumDeserializationMethodRejectsNull() throws NoSuchMethodException {
+
+        Method fromValue = enumClass.getMethod("fromValue", String.class);
+
+        final InvocationTargetException exception = assertThrows(
+                InvocationTargetException.class,
+                () -> fromValue.invoke(enumClass, (Object) null));
+        assertThat(exception.getCause(), is(instanceOf(IllegalArgumentException.class)));
+    }
+
+    @Test
+    public void intEnumDeserializationMethodFindsDenseAndSparseValues() throws ReflectiveOperationException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/enum/integerEnumLookup.json", "com.example");
+
+        Class<?> denseEnum = resultsClassLoader.loadClass("com.example.IntegerEnumLookup$DenseEnum");
+        assertLookup(denseEnum, Integer.class, new Object[] { 3, 1, 2, 5 }, new Object[] { 0, 4, 6, -1, Integer.MIN_VALUE, Integer.MAX_VALUE, null });
+
+        Class<?> negativeDenseEnum = resultsClassLoader.loadClass("com.example.IntegerEnumLookup$NegativeDenseEnum");
+        assertLookup(negativeDenseEnum, Integer.class, new Object[] { -3, -1, 0, 2 }, new Object[] { -4, -2, 1, 3, Integer.MIN_VALUE, Integer.MAX_VALUE, null });
+
+        Class<?> sparseEnum = resultsClassLoader.loadClass("com.example.IntegerEnumLookup$SparseEnum");
+        assertLookup(sparseEnum, Integer.class, new Object[] { 100, -7, 40000 }, new Object[] { 0, 99, 101, -8, 40001, null });
+    }
+
+    @Test
+    public void longEnumDeserializationMethodFindsDenseAndSparseValues() throws ReflectiveOperationException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/enum/integerEnumLookup.json", "com.example", config("useLongIntegers", true));
+
+        Class<?> denseEnum = resultsClassLoader.loadClass("com.example.IntegerEnumLookup$DenseEnum");
+        assertLookup(denseEnum, Long.class, new Object[] { 3L, 1L, 2L, 5L }, new Object[] { 4L, Long.MIN_VALUE, Long.MAX_VALUE, null });
+
+        Class<?> negativeDenseEnum = resultsClassLoader.loadClass("com.example.IntegerEnumLookup$NegativeDenseEnum");
+        assertLookup(negativeDenseEnum, Long.class, new Object[] { -3L, -1L, 0L, 2L }, new Object[] { -2L, 1L, Long.MIN_VALUE, Long.MAX_VALUE, null });
+
+        Class<?> sparseEnum = resultsClassLoader.loadClass("com.example.IntegerEnumLookup$SparseEnum");
+        assertLookup(sparseEnum, Long.class, new Object[] { 100L, -7L, 40000L }, new Object[] { 99L, Long.MIN_VALUE, null });
+    }
+
+    private static void assertLookup(Class<?> enumType, Class<?> valueType, Object[] values, Object[] invalidValues) throws ReflectiveOperationException {
+        Method fromValue = enumType.getMethod("fromValue", valueType);
+
+        for (int i = 0; i < values.length; i++) {
+            assertThat(fromValue.invoke(null, values[i]), is(sameInstance(enumType.getEnumConstants()[i])));
+        }
+
+        for (Object invalidValue : invalidValues) {
+            InvocationTargetException exception = assertThrows(
+                    InvocationTargetException.class,
+                    () -> fromValue.invoke(null, invalidValue));
+            assertThat(exception.getCause(), is(instanceOf(IllegalArgumentException.class)));
+            assertThat(exception.getCause().getMessage(), is(String.valueOf(invalidValue)));
+        }
     }
 
     @Test
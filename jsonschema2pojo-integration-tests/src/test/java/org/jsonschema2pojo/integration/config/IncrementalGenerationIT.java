@@ -0,0 +1,175 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.integration.config;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Map;
+
+import org.jsonschema2pojo.GenerationManifest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonatype.plexus.build.incremental.BuildContext;
+
+public class IncrementalGenerationIT {
+
+    private static final long OLD_TIMESTAMP = 1000000000000L;
+
+    @TempDir
+    public File root;
+
+    private File outputDirectory;
+    private URL source;
+    private final Map<String, Object> config = config("incrementalGeneration", true);
+
+    @BeforeEach
+    public void writeSchemas() throws IOException {
+        outputDirectory = new File(root, "output");
+
+        write("common/address.json", "{\"type\":\"object\",\"properties\":{\"street\":{\"type\":\"string\"}}}");
+        write("schemas/person.json", "{\"type\":\"object\",\"properties\":{\"address\":{\"$ref\":\"../common/address.json\"}}}");
+        write("schemas/colour.json", "{\"type\":\"object\",\"properties\":{\"name\":{\"type\":\"string\"}}}");
+
+        source = new File(root, "schemas").toURI().toURL();
+    }
+
+    @Test
+    public void unchangedSourcesAreNotGeneratedAgain() throws IOException {
+
+        generate(source, "com.example", config, outputDirectory);
+        assertThat(new File(outputDirectory, GenerationManifest.FILE_NAME).isFile(), is(true));
+        age("Person", "Address", "Colour");
+
+        generate(source, "com.example", config, outputDirectory);
+
+        assertThat(lastModified("Person"), is(OLD_TIMESTAMP));
+        assertThat(lastModified("Address"), is(OLD_TIMESTAMP));
+        assertThat(lastModified("Colour"), is(OLD_TIMESTAMP));
+    }
+
+    @Test
+    public void onlyChangedSourcesAreGeneratedAgain() throws IOException {
+
+        generate(source, "com.example", config, outputDirectory);
+        age("Person", "Address", "Colour");
+
+        write("schemas/colour.json", "{\"type\":\"object\",\"properties\":{\"name\":{\"type\":\"string\"},\"hex\":{\"type\":\"string\"}}}");
+        generate(source, "com.example", config, outputDirectory);
+
+        assertThat(lastModified("Person"), is(OLD_TIMESTAMP));
+        assertThat(lastModified("Address"), is(OLD_TIMESTAMP));
+        assertThat(lastModified("Colour"), is(not(OLD_TIMESTAMP)));
+        assertThat(read("Colour"), containsString("getHex()"));
+    }
+
+    @Test
+    public void changeToReferencedSchemaGeneratesReferringSourcesAgain() throws IOException {
+
+        generate(source, "com.example", config, outputDirectory);
+        age("Person", "Address", "Colour");
+
+        write("common/address.json", "{\"type\":\"object\",\"properties\":{\"street\":{\"type\":\"string\"},\"city\":{\"type\":\"string\"}}}");
+        generate(source, "com.example", config, outputDirectory);
+
+        assertThat(lastModified("Person"), is(not(OLD_TIMESTAMP)));
+        assertThat(lastModified("Address"), is(not(OLD_TIMESTAMP)));
+        assertThat(lastModified("Colour"), is(OLD_TIMESTAMP));
+        assertThat(read("Address"), containsString("getCity()"));
+    }
+
+    @Test
+    public void typesNoLongerGeneratedAreRemoved() throws IOException {
+
+        generate(source, "com.example", config, outputDirectory);
+        assertThat(javaFile("Address").exists(), is(true));
+
+        write("schemas/person.json", "{\"type\":\"object\",\"properties\":{\"name\":{\"type\":\"string\"}}}");
+        generate(source, "com.example", config, outputDirectory);
+
+        assertThat(javaFile("Person").exists(), is(true));
+        assertThat(javaFile("Address").exists(), is(false));
+    }
+
+    @Test
+    public void incrementalBuildWithNoChangedSchemaSkipsGeneration() throws IOException {
+
+        generate(source, "com.example", config, outputDirectory);
+        assertThat(javaFile("Colour").delete(), is(true));
+
+        BuildContext buildContext = incrementalBuildContext();
+        generate(source, "com.example", config("incrementalGeneration", true, "buildContext", buildContext), outputDirectory);
+
+        assertThat(javaFile("Colour").exists(), is(false));
+        verify(buildContext, never()).refresh(any(File.class));
+    }
+
+    @Test
+    public void incrementalBuildWithChangedReferencedSchemaGeneratesAgain() throws IOException {
+
+        generate(source, "com.example", config, outputDirectory);
+
+        write("common/address.json", "{\"type\":\"object\",\"properties\":{\"street\":{\"type\":\"string\"},\"city\":{\"type\":\"string\"}}}");
+        BuildContext buildContext = incrementalBuildContext(new File(root, "common/address.json"));
+        generate(source, "com.example", config("incrementalGeneration", true, "buildContext", buildContext), outputDirectory);
+
+        assertThat(read("Address"), containsString("getCity()"));
+        verify(buildContext).refresh(outputDirectory);
+    }
+
+    private static BuildContext incrementalBuildContext(File... changedFiles) {
+        BuildContext buildContext = mock(BuildContext.class);
+        when(buildContext.isIncremental()).thenReturn(true);
+        for (File changedFile : changedFiles) {
+            when(buildContext.hasDelta(changedFile.getAbsoluteFile())).thenReturn(true);
+        }
+        return buildContext;
+    }
+
+    private void age(String... classNames) {
+        for (String className : classNames) {
+            assertThat(javaFile(className).setLastModified(OLD_TIMESTAMP), is(true));
+        }
+    }
+
+    private long lastModified(String className) {
+        return javaFile(className).lastModified();
+    }
+
+    private String read(String className) throws IOException {
+        return Files.readString(javaFile(className).toPath());
+    }
+
+    private File javaFile(String className) {
+        return new File(outputDirectory, "com/example/" + className + ".java");
+    }
+
+    private void write(String path, String content) throws IOException {
+        File file = new File(root, path);
+        file.getParentFile().mkdirs();
+        Files.writeString(file.toPath(), content);
+    }
+
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.integration.config;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+
+import org.jsonschema2pojo.OutputFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class OutputFormatIT {
+
+    @TempDir
+    public File root;
+
+    @Test
+    public void classFilesAreWrittenInsteadOfSources() throws Exception {
+
+        File output = new File(root, "output");
+        generate(getClass().getResource("/schema/properties/primitiveProperties.json"), "com.example", config("outputFormat", "classes"), output);
+
+        assertThat(new File(output, "com/example/PrimitiveProperties.class").isFile(), is(true));
+        assertThat(new File(output, "com/example/PrimitiveProperties.java").exists(), is(false));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { output.toURI().toURL() }, getClass().getClassLoader())) {
+            Class<?> generatedType = loader.loadClass("com.example.PrimitiveProperties");
+            assertThat(generatedType.getMethod("getA").getReturnType(), is(equalTo(Integer.class)));
+        }
+    }
+
+    @Test
+    public void sourcesCanBeWrittenAlongsideClassFiles() throws IOException {
+
+        File output = new File(root, "output");
+        generate(getClass().getResource("/schema/properties/primitiveProperties.json"), "com.example", config("outputFormat", "classes", "writeSources", true), output);
+
+        assertThat(new File(output, "com/example/PrimitiveProperties.class").isFile(), is(true));
+        assertThat(new File(output, "com/example/PrimitiveProperties.java").isFile(), is(true));
+    }
+
+    @Test
+    public void jarsAreTheSameForEveryRun() throws Exception {
+
+        URL source = getClass().getResource("/schema/extends");
+        File first = new File(root, "first");
+        File second = new File(root, "second");
+        generate(source, "com.example", config("outputFormat", "jar", "writeSources", true), first);
+        generate(source, "com.example", config("outputFormat", "jar", "writeSources", true), second);
+
+        assertThat(first.list(), arrayContainingInAnyOrder(OutputFormat.JAR_FILE_NAME, OutputFormat.SOURCES_JAR_FILE_NAME));
+        for (String jar : first.list()) {
+            assertThat(Files.readAllBytes(new File(second, jar).toPath()), is(equalTo(Files.readAllBytes(new File(first, jar).toPath()))));
+        }
+
+        assertThat(entries(new File(first, OutputFormat.JAR_FILE_NAME)), hasItems(JarFile.MANIFEST_NAME, "com/example/SubtypeOfA.class"));
+        assertThat(entries(new File(first, OutputFormat.SOURCES_JAR_FILE_NAME)), hasItem("com/example/SubtypeOfA.java"));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { new File(first, OutputFormat.JAR_FILE_NAME).toURI().toURL() }, getClass().getClassLoader())) {
+            assertThat(loader.loadClass("com.example.SubtypeOfA").getSuperclass().getName(), is("com.example.A"));
+        }
+    }
+
+    private static List<String> entries(File jar) throws IOException {
+        try (JarFile jarFile = new JarFile(jar)) {
+            return Collections.list(jarFile.entries()).stream().map(JarEntry::getName).collect(Collectors.toList());
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.integration.config;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+public class ParallelismIT {
+
+    @TempDir
+    public File outputRoot;
+
+    @ParameterizedTest
+    @CsvSource({
+            "/schema/ref/subdirectory1/, jsonschema",
+            "/schema/enum/, jsonschema",
+            "/schema/extends/, jsonschema",
+            "/schema/sourceSortOrder/, jsonschema",
+            "/schema/type/, jsonschema",
+            "/schema/parallelism/clash/, jsonschema",
+            "/schema/parallelism/imports/, jsonschema",
+            "/json/, json"
+    })
+    public void parallelGenerationProducesSameOutputAsSequentialGeneration(String schemaDirectory, String sourceType) throws IOException {
+
+        File sequentialOutput = new File(outputRoot, "sequential");
+        File parallelOutput = new File(outputRoot, "parallel");
+
+        generate(getClass().getResource(schemaDirectory), "com.example", config("sourceType", sourceType, "parallelism", 1), sequentialOutput);
+        generate(getClass().getResource(schemaDirectory), "com.example", config("sourceType", sourceType, "parallelism", 4), parallelOutput);
+
+        List<Path> sequentialFiles = relativeFiles(sequentialOutput.toPath());
+        assertThat(sequentialFiles, is(not(empty())));
+        assertThat(relativeFiles(parallelOutput.toPath()), is(equalTo(sequentialFiles)));
+
+        for (Path file : sequentialFiles) {
+            assertThat(file.toString(),
+                    Files.readString(parallelOutput.toPath().resolve(file)),
+                    is(equalTo(Files.readString(sequentialOutput.toPath().resolve(file)))));
+        }
+    }
+
+    private static List<Path> relativeFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .map(directory::relativize)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.integration.config;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class ProfileReportIT {
+
+    @TempDir
+    public File outputRoot;
+
+    @Test
+    public void profileReportIsWrittenWhenConfigured() throws IOException {
+
+        File report = new File(outputRoot, "reports/profile.json");
+
+        generate(getClass().getResource("/schema/ref/fragmentRefs.json"), "com.example", config("profileReport", report), new File(outputRoot, "generated"));
+
+        JsonNode profile = new ObjectMapper().readTree(report);
+
+        assertThat(names(profile.path("phase")), hasItem("write"));
+        assertThat(names(profile.path("source")), hasItem(endsWith("/schema/ref/fragmentRefs.json")));
+        assertThat(names(profile.path("rule")), hasItems("SchemaRule", "ObjectRule", "PropertyRule"));
+        assertThat(names(profile.path("schema_store")), hasItems("SchemaStore.create", "ContentResolver.resolve (file)", "FragmentResolver.resolve"));
+
+        for (JsonNode rule : profile.path("rule")) {
+            assertThat(rule.path("count").asLong(), is(greaterThan(0L)));
+            assertThat(rule.path("selfNanos").asLong(), is(lessThanOrEqualTo(rule.path("totalNanos").asLong())));
+        }
+    }
+
+    @Test
+    public void profileReportIsNotWrittenByDefault() {
+
+        File generated = new File(outputRoot, "generated");
+
+        generate(getClass().getResource("/schema/ref/fragmentRefs.json"), "com.example", config(), generated);
+
+        assertThat(outputRoot.list(), is(arrayContaining("generated")));
+    }
+
+    private static List<String> names(JsonNode entries) {
+        List<String> names = new ArrayList<>();
+        for (JsonNode entry : entries) {
+            names.add(entry.path("name").asText());
+        }
+        return names;
+    }
+
+}
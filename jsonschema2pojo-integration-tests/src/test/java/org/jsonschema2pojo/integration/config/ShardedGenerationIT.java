@@ -0,0 +1,126 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.integration.config;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jsonschema2pojo.GenerationManifest;
+import org.jsonschema2pojo.GenerationShard;
+import org.jsonschema2pojo.exception.GenerationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ShardedGenerationIT {
+
+    @TempDir
+    public File root;
+
+    @Test
+    public void mergedShardsAreTheSameAsWhenEverySourceIsGeneratedAtOnce() throws IOException {
+
+        write("schemas/person.json", "{\"type\":\"object\",\"properties\":{\"address\":{\"$ref\":\"../common/address.json\"},\"item\":{\"type\":\"object\"}}}");
+        write("schemas/company.json", "{\"type\":\"object\",\"properties\":{\"address\":{\"$ref\":\"../common/address.json\"}}}");
+        write("schemas/colour.json", "{\"type\":\"object\",\"properties\":{\"shade\":{\"type\":\"object\",\"properties\":{\"name\":{\"type\":\"string\"}}}}}");
+        write("schemas/shape.json", "{\"type\":\"object\",\"properties\":{\"sides\":{\"type\":\"integer\"}}}");
+        write("common/address.json", "{\"type\":\"object\",\"properties\":{\"street\":{\"type\":\"string\"}}}");
+
+        URL source = new File(root, "schemas").toURI().toURL();
+        File expected = new File(root, "expected");
+        generate(source, "com.example", config(), expected);
+
+        assertSameFiles(expected, generateShards(source, 2));
+        assertSameFiles(expected, generateShards(source, 3));
+    }
+
+    @Test
+    public void mergedShardsAreTheSameForSchemasInDirectories() throws IOException {
+
+        URL source = getClass().getResource("/schema/extends");
+        File expected = new File(root, "expected");
+        generate(source, "com.example", config(), expected);
+
+        assertSameFiles(expected, generateShards(source, 4));
+    }
+
+    @Test
+    public void typesWithTheSameNameFromUnconnectedSourcesAreRejected() throws IOException {
+
+        write("schemas/colour.json", "{\"type\":\"object\",\"properties\":{\"item\":{\"type\":\"object\",\"properties\":{\"name\":{\"type\":\"string\"}}}}}");
+        write("schemas/company.json", "{\"type\":\"object\",\"properties\":{\"address\":{\"$ref\":\"../common/address.json\"}}}");
+        write("schemas/person.json", "{\"type\":\"object\",\"properties\":{\"address\":{\"$ref\":\"../common/address.json\"}}}");
+        write("schemas/shape.json", "{\"type\":\"object\",\"properties\":{\"item\":{\"type\":\"object\",\"properties\":{\"sides\":{\"type\":\"integer\"}}}}}");
+        write("common/address.json", "{\"type\":\"object\",\"properties\":{\"street\":{\"type\":\"string\"}}}");
+
+        URL source = new File(root, "schemas").toURI().toURL();
+
+        // colour and shape are generated by the same shard
+        GenerationException e = assertThrows(GenerationException.class, () -> generateShards(source, 2));
+        assertThat(e.getMessage(), containsString("com.example.Item"));
+
+        // colour and shape are generated by different shards
+        e = assertThrows(GenerationException.class, () -> generateShards(source, 3));
+        assertThat(e.getMessage(), containsString("com.example.Item"));
+    }
+
+    private File generateShards(URL source, int shardCount) throws IOException {
+        List<File> shardDirectories = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            File shardDirectory = new File(root, "shard-" + shardCount + "-" + i);
+            generate(source, "com.example", config("shardCount", shardCount, "shardIndex", i), shardDirectory);
+            shardDirectories.add(shardDirectory);
+        }
+
+        File merged = new File(root, "merged-" + shardCount);
+        GenerationShard.merge(shardDirectories, merged);
+        return merged;
+    }
+
+    private void write(String path, String content) throws IOException {
+        File file = new File(root, path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes("UTF-8"));
+    }
+
+    private static void assertSameFiles(File expected, File actual) throws IOException {
+        List<String> expectedFiles = list(expected);
+        assertThat(expectedFiles, is(not(empty())));
+        assertThat(list(actual), is(equalTo(expectedFiles)));
+        for (String file : expectedFiles) {
+            assertThat(file, Files.readString(new File(actual, file).toPath()), is(equalTo(Files.readString(new File(expected, file).toPath()))));
+        }
+    }
+
+    private static List<String> list(File directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory.toPath())) {
+            return files.filter(Files::isRegularFile).filter(f -> !f.endsWith(GenerationManifest.FILE_NAME)).map(f -> directory.toPath().relativize(f).toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.integration.config;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jsonschema2pojo.GenerationManifest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StreamingGenerationIT {
+
+    @TempDir
+    public File root;
+
+    @Test
+    public void typesAreTheSameAsWhenEverySourceIsGeneratedAtOnce() throws IOException {
+
+        write("schemas/person.json", "{\"type\":\"object\",\"properties\":{\"address\":{\"$ref\":\"../common/address.json\"},\"item\":{\"type\":\"object\"}}}");
+        write("schemas/company.json", "{\"type\":\"object\",\"properties\":{\"address\":{\"$ref\":\"../common/address.json\"}}}");
+        write("schemas/colour.json", "{\"type\":\"object\",\"properties\":{\"item\":{\"type\":\"object\",\"properties\":{\"name\":{\"type\":\"string\"}}}}}");
+        write("schemas/shape.json", "{\"type\":\"object\",\"properties\":{\"item\":{\"type\":\"object\",\"properties\":{\"sides\":{\"type\":\"integer\"}}}}}");
+        write("common/address.json", "{\"type\":\"object\",\"properties\":{\"street\":{\"type\":\"string\"}}}");
+
+        URL source = new File(root, "schemas").toURI().toURL();
+        File expected = new File(root, "expected");
+        File actual = new File(root, "actual");
+        generate(source, "com.example", config(), expected);
+        generate(source, "com.example", config("streamingGeneration", true), actual);
+
+        assertSameFiles(expected, actual);
+        assertThat(new File(actual, "com/example/Item__1.java").isFile(), is(true));
+    }
+
+    @Test
+    public void typesAreTheSameForSchemasInDirectories() throws IOException {
+
+        URL source = getClass().getResource("/schema/extends");
+        File expected = new File(root, "expected");
+        File actual = new File(root, "actual");
+        generate(source, "com.example", config(), expected);
+        generate(source, "com.example", config("streamingGeneration", true), actual);
+
+        assertSameFiles(expected, actual);
+    }
+
+    @Test
+    public void oldOutputIsRemovedWhenOnlyChangedFilesAreWritten() throws IOException {
+
+        write("schemas/person.json", "{\"type\":\"object\",\"properties\":{\"name\":{\"type\":\"string\"}}}");
+        write("output/com/example/Obsolete.java", "class Obsolete {}");
+
+        URL source = new File(root, "schemas").toURI().toURL();
+        File output = new File(root, "output");
+        generate(source, "com.example", config("streamingGeneration", true, "writeOnlyChangedFiles", true, "removeOldOutput", true), output);
+
+        assertThat(new File(output, "com/example/Person.java").isFile(), is(true));
+        assertThat(new File(output, "com/example/Obsolete.java").exists(), is(false));
+    }
+
+    private void write(String path, String content) throws IOException {
+        File file = new File(root, path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes("UTF-8"));
+    }
+
+    private static void assertSameFiles(File expected, File actual) throws IOException {
+        List<String> expectedFiles = list(expected);
+        assertThat(expectedFiles, is(not(empty())));
+        assertThat(list(actual), is(equalTo(expectedFiles)));
+        for (String file : expectedFiles) {
+            assertThat(file, Files.readString(new File(actual, file).toPath()), is(equalTo(Files.readString(new File(expected, file).toPath()))));
+        }
+    }
+
+    private static List<String> list(File directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory.toPath())) {
+            return files.filter(Files::isRegularFile).filter(f -> !f.endsWith(GenerationManifest.FILE_NAME)).map(f -> directory.toPath().relativize(f).toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+}
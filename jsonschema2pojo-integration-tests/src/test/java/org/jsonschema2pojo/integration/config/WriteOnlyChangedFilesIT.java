@@ -0,0 +1,111 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.integration.config;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class WriteOnlyChangedFilesIT {
+
+    private static final long OLD_TIMESTAMP = 1000000000000L;
+
+    @TempDir
+    public File root;
+
+    private File outputDirectory;
+    private URL source;
+
+    @BeforeEach
+    public void writeSchemas() throws IOException {
+        outputDirectory = new File(root, "output");
+
+        write("schemas/person.json", "{\"type\":\"object\",\"properties\":{\"address\":{\"type\":\"object\",\"properties\":{\"street\":{\"type\":\"string\"}}}}}");
+        write("schemas/colour.json", "{\"type\":\"object\",\"properties\":{\"name\":{\"type\":\"string\"}}}");
+
+        source = new File(root, "schemas").toURI().toURL();
+    }
+
+    @Test
+    public void unchangedFilesAreNotWritten() throws IOException {
+
+        generate(source, "com.example", config("writeOnlyChangedFiles", true), outputDirectory);
+        age("Person", "Address", "Colour");
+
+        write("schemas/colour.json", "{\"type\":\"object\",\"properties\":{\"name\":{\"type\":\"string\"},\"hex\":{\"type\":\"string\"}}}");
+        generate(source, "com.example", config("writeOnlyChangedFiles", true), outputDirectory);
+
+        assertThat(javaFile("Person").lastModified(), is(OLD_TIMESTAMP));
+        assertThat(javaFile("Address").lastModified(), is(OLD_TIMESTAMP));
+        assertThat(javaFile("Colour").lastModified(), is(not(OLD_TIMESTAMP)));
+        assertThat(Files.readString(javaFile("Colour").toPath()), containsString("getHex()"));
+    }
+
+    @Test
+    public void filesAreWrittenWhenDisabled() throws IOException {
+
+        generate(source, "com.example", config(), outputDirectory);
+        age("Person", "Address", "Colour");
+
+        generate(source, "com.example", config(), outputDirectory);
+
+        assertThat(javaFile("Person").lastModified(), is(not(OLD_TIMESTAMP)));
+        assertThat(javaFile("Colour").lastModified(), is(not(OLD_TIMESTAMP)));
+    }
+
+    @Test
+    public void onlyFilesNoLongerGeneratedAreRemoved() throws IOException {
+
+        write("output/org/example/Unrelated.java", "class Unrelated {}");
+        generate(source, "com.example", config("writeOnlyChangedFiles", true, "removeOldOutput", true), outputDirectory);
+        assertThat(new File(outputDirectory, "org").exists(), is(false));
+        age("Person", "Address", "Colour");
+
+        write("schemas/person.json", "{\"type\":\"object\",\"properties\":{\"name\":{\"type\":\"string\"}}}");
+        generate(source, "com.example", config("writeOnlyChangedFiles", true, "removeOldOutput", true), outputDirectory);
+
+        assertThat(javaFile("Person").lastModified(), is(not(OLD_TIMESTAMP)));
+        assertThat(javaFile("Address").exists(), is(false));
+        assertThat(javaFile("Colour").lastModified(), is(OLD_TIMESTAMP));
+    }
+
+    private void age(String... classNames) {
+        for (String className : classNames) {
+            assertThat(javaFile(className).setLastModified(OLD_TIMESTAMP), is(true));
+        }
+    }
+
+    private File javaFile(String className) {
+        return new File(outputDirectory, "com/example/" + className + ".java");
+    }
+
+    private void write(String path, String content) throws IOException {
+        File file = new File(root, path);
+        file.getParentFile().mkdirs();
+        Files.writeString(file.toPath(), content);
+    }
+
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.integration.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.*;
+
+import java.lang.reflect.ParameterizedType;
+import java.util.List;
+
+import javax.validation.constraints.NotNull;
+
+import org.jsonschema2pojo.integration.util.Jsonschema2PojoRule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+public class JsonSamplesIT {
+
+    @RegisterExtension
+    public Jsonschema2PojoRule schemaRule = new Jsonschema2PojoRule();
+
+    @Test
+    public void typesAreInferredFromEverySample() throws Exception {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/json/samples/events.ndjson", "com.example",
+                config("sourceType", "jsonsamples", "includeJsr303Annotations", true));
+
+        Class<?> event = resultsClassLoader.loadClass("com.example.Events");
+        Class<?> user = resultsClassLoader.loadClass("com.example.User");
+        Class<?> line = resultsClassLoader.loadClass("com.example.Line");
+
+        assertThat(event.getMethod("getId").getReturnType().getName(), is("java.lang.Integer"));
+        assertThat(event.getMethod("getAmount").getReturnType().getName(), is("java.lang.Double"));
+        assertThat(user.getMethod("getEmail").getReturnType().getName(), is("java.lang.String"));
+        assertThat(line.getMethod("getDiscount").getReturnType().getName(), is("java.lang.Double"));
+        assertThat(((ParameterizedType) event.getMethod("getTags").getGenericReturnType()).getActualTypeArguments()[0].getTypeName(), is("java.lang.String"));
+        assertThat(event.getMethod("getLines").getReturnType(), is(equalTo(List.class)));
+
+        assertThat(isRequired(event, "id"), is(true));
+        assertThat(isRequired(event, "user"), is(false));
+        assertThat(isRequired(event, "tags"), is(false));
+        assertThat(isRequired(user, "name"), is(true));
+        assertThat(isRequired(user, "email"), is(false));
+        assertThat(isRequired(line, "sku"), is(true));
+        assertThat(isRequired(line, "quantity"), is(false));
+    }
+
+    private static boolean isRequired(Class<?> type, String property) throws NoSuchFieldException {
+        return type.getDeclaredField(property).isAnnotationPresent(NotNull.class);
+    }
+
+}
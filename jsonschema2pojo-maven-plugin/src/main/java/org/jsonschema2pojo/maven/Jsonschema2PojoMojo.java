@@ -30,9 +30,12 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import javax.inject.Inject;
+
 import org.apache.commons.io.FilenameUtils;
 import org.apache.maven.artifact.DependencyResolutionRequiredException;
 import org.apache.maven.model.Plugin;
+import org.apache.maven.model.Resource;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
@@ -46,15 +49,19 @@ import org.jsonschema2pojo.AnnotationStyle;
 import org.jsonschema2pojo.Annotator;
 import org.jsonschema2pojo.AnnotatorFactory;
 import org.jsonschema2pojo.GenerationConfig;
+import org.jsonschema2pojo.GenerationManifest;
 import org.jsonschema2pojo.InclusionLevel;
 import org.jsonschema2pojo.Jsonschema2Pojo;
 import org.jsonschema2pojo.NoopAnnotator;
 import org.jsonschema2pojo.RuleLogger;
 import org.jsonschema2pojo.SourceSortOrder;
+import org.jsonschema2pojo.OutputFormat;
 import org.jsonschema2pojo.SourceType;
 import org.jsonschema2pojo.rules.RuleFactory;
 import org.jsonschema2pojo.util.JavaVersion;
 import org.jsonschema2pojo.util.URLUtil;
+import org.sonatype.plexus.build.incremental.BuildContext;
+import org.sonatype.plexus.build.incremental.DefaultBuildContext;
 
 /**
  * When invoked, this goal reads one or more
@@ -141,6 +148,9 @@ public class Jsonschema2PojoMojo extends AbstractMojo implements GenerationConfi
     /**
      * Add the output directory to the project as a source root, so that the
      * generated java types are compiled and included in the project artifact.
+     * When class files are written (see <code>outputFormat</code>), the
+     * output directory is added as a resource directory instead, so that the
+     * class files are copied to the project's output directory.
      *
      * @since 0.1.9
      */
@@ -366,6 +376,9 @@ public class Jsonschema2PojoMojo extends AbstractMojo implements GenerationConfi
      * <li><code>yamlschema</code> (JSON schema documents, represented as YAML)</li>
      * <li><code>yaml</code> (documents that represent an example of the kind of
      * YAML (or JSON) data that the generated Java types will be mapped to)</li>
+     * <li><code>jsonsamples</code> (documents that contain any number of
+     * samples, such as newline-delimited JSON, of the kind of JSON data that
+     * the generated Java types will be mapped to)</li>
      * </ul>
      *
      * @since 0.3.3
@@ -773,6 +786,163 @@ public class Jsonschema2PojoMojo extends AbstractMojo implements GenerationConfi
     @Parameter(property = "jsonschema2pojo.useJakartaValidation", defaultValue = "false")
     private boolean useJakartaValidation = false;
 
+    /**
+     * The number of threads used to read source files, generate types and
+     * write the generated source files. Sources that are connected by
+     * <code>$ref</code> are generated together, in source order, and if types
+     * generated on different threads would have the same name all sources are
+     * generated again on a single thread, so the generated code is the same
+     * for any value.
+     *
+     * @since 1.3.4
+     */
+    @Parameter(property = "jsonschema2pojo.parallelism", defaultValue = "1")
+    private int parallelism = 1;
+
+    /**
+     * Whether to keep a manifest of the inputs and outputs of each run in the
+     * target directory. On the next run, generation is skipped if no source
+     * schema (or any schema they reference) and no configuration option has
+     * changed, and when only some sources have changed only those sources are
+     * generated again.
+     * <p>
+     * In incremental IDE builds (such as m2e), the manifest is also used to
+     * skip generation when none of the schemas read by the previous run have
+     * changed.
+     *
+     * @since 1.3.4
+     */
+    @Parameter(property = "jsonschema2pojo.incrementalGeneration", defaultValue = "false")
+    private boolean incrementalGeneration = false;
+
+    /**
+     * Whether to leave generated files untouched when their content is the
+     * same as the file already present in the output directory, so that they
+     * keep their modification time and aren't recompiled.
+     * <p>
+     * When combined with <code>removeOldOutput</code>, the output directory is
+     * not emptied before generation. Instead, only the files that are no
+     * longer generated are deleted afterwards.
+     *
+     * @since 1.3.4
+     */
+    @Parameter(property = "jsonschema2pojo.writeOnlyChangedFiles", defaultValue = "false")
+    private boolean writeOnlyChangedFiles = false;
+
+    /**
+     * A directory in which documents fetched from http/https URIs (via $ref)
+     * are cached between builds. Cached documents are revalidated with a
+     * conditional request (using the ETag and Last-Modified headers returned
+     * by the server), and are used if the server can't be reached. By default,
+     * remote documents are not cached.
+     *
+     * @since 1.3.4
+     */
+    @Parameter(property = "jsonschema2pojo.remoteCacheDirectory")
+    private File remoteCacheDirectory;
+
+    /**
+     * Whether to resolve http/https documents only from the
+     * <code>remoteCacheDirectory</code>, without making any network requests.
+     * Documents that are not in the cache can't be resolved. Maven's
+     * offline mode (<code>-o</code>) doesn't enable this option.
+     *
+     * @since 1.3.4
+     */
+    @Parameter(property = "jsonschema2pojo.offline", defaultValue = "false")
+    private boolean offline = false;
+
+    /**
+     * The connect and read timeout, in milliseconds, used when fetching
+     * http/https documents. A value of 0 means no timeout.
+     *
+     * @since 1.3.4
+     */
+    @Parameter(property = "jsonschema2pojo.remoteTimeout", defaultValue = "0")
+    private int remoteTimeout = 0;
+
+    /**
+     * A file to write a profile of the generation run to, as JSON: the time
+     * spent and memory allocated by each phase, source schema, rule and
+     * schema store operation. A summary of the slowest operations is also
+     * logged. Profiling is disabled unless this is set.
+     *
+     * @since 1.3.4
+     */
+    @Parameter(property = "jsonschema2pojo.profileReport")
+    private File profileReport;
+
+    /**
+     * Whether to generate and write types for one group of sources at a time,
+     * where a group holds the sources that are connected by $ref. The types
+     * and schemas of each group are released once they have been written, so
+     * memory use is bounded by the largest group rather than by every source.
+     * <p>
+     * When unrelated sources produce types with the same name, the names
+     * chosen to keep them unique may differ from a build without this option.
+     *
+     * @since 1.3.4
+     */
+    @Parameter(property = "jsonschema2pojo.streamingGeneration", defaultValue = "false")
+    private boolean streamingGeneration = false;
+
+    /**
+     * The number of shards that the sources are divided into, where each
+     * shard is generated by a separate build with a different
+     * <code>shardIndex</code>. Sources that are connected by $ref are always
+     * generated by the same shard. The output directories of every shard can
+     * be combined using the <code>--merge-shards</code> command line option.
+     *
+     * @since 1.3.4
+     */
+    @Parameter(property = "jsonschema2pojo.shardCount", defaultValue = "1")
+    private int shardCount = 1;
+
+    /**
+     * The (zero-based) index of the shard to generate, when
+     * <code>shardCount</code> is greater than 1.
+     *
+     * @since 1.3.4
+     */
+    @Parameter(property = "jsonschema2pojo.shardIndex", defaultValue = "0")
+    private int shardIndex = 0;
+
+    /**
+     * The form in which generated types are written to the output directory.
+     * Supported values:
+     * <ul>
+     * <li><code>sources</code> (Java source files)</li>
+     * <li><code>classes</code> (class files, compiled in memory)</li>
+     * <li><code>jar</code> (a jar of class files named
+     * <code>jsonschema2pojo.jar</code>, compiled in memory)</li>
+     * </ul>
+     * With <code>classes</code>, the class files are copied to the project's
+     * output directory as resources (see <code>addCompileSourceRoot</code>).
+     * A jar isn't added to the project's class path or attached to the
+     * project, it must be added by the build if it is to be used.
+     *
+     * @since 1.3.4
+     */
+    @Parameter(property = "jsonschema2pojo.outputFormat", defaultValue = "sources")
+    private String outputFormat = "sources";
+
+    /**
+     * Whether to also write the generated sources when types are compiled:
+     * alongside the class files, or as a jar of sources named
+     * <code>jsonschema2pojo-sources.jar</code> alongside the jar of class
+     * files.
+     *
+     * @since 1.3.4
+     */
+    @Parameter(property = "jsonschema2pojo.writeSources", defaultValue = "false")
+    private boolean writeSources = false;
+
+    /**
+     * Tracks changes to files in incremental IDE builds.
+     */
+    @Inject
+    private BuildContext buildContext = new DefaultBuildContext();
+
     /**
      * Executes the plugin, to read the given source and behavioural properties
      * and generate POJOs. The current implementation acts as a wrapper around
@@ -839,8 +1009,18 @@ public class Jsonschema2PojoMojo extends AbstractMojo implements GenerationConfi
             fileFilter = createFileFilter();
         }
 
-        if (addCompileSourceRoot) {
+        if (addCompileSourceRoot && getOutputFormat() == OutputFormat.SOURCES) {
             project.addCompileSourceRoot(outputDirectory.getPath());
+        } else if (addCompileSourceRoot && getOutputFormat() == OutputFormat.CLASSES) {
+            Resource classes = new Resource();
+            classes.setDirectory(outputDirectory.getPath());
+            classes.addInclude("**/*.class");
+            project.addResource(classes);
+        }
+
+        if (buildContext.isIncremental() && !hasChangedInputs()) {
+            getLog().info("No schema has changed, skipping generation");
+            return;
         }
 
         RuleLogger logger = new MojoRuleLogger(getLog());
@@ -851,6 +1031,34 @@ public class Jsonschema2PojoMojo extends AbstractMojo implements GenerationConfi
             throw new MojoExecutionException("Error generating classes from JSON Schema file(s) " + sourceDirectory, e);
         }
 
+        buildContext.refresh(outputDirectory);
+
+    }
+
+    /**
+     * Checks whether any local schema read by the previous run has changed
+     * since then, according to the build context. Without a manifest from the
+     * previous run, the schemas that were read (via $ref) are unknown, so
+     * they are assumed to have changed.
+     */
+    private boolean hasChangedInputs() {
+
+        GenerationManifest manifest = incrementalGeneration ? GenerationManifest.read(outputDirectory) : null;
+        if (manifest == null) {
+            return true;
+        }
+
+        List<String> documents = new ArrayList<>(manifest.getDocuments());
+        for (Iterator<URL> sources = getSource(); sources.hasNext();) {
+            documents.add(sources.next().toString());
+        }
+
+        for (String document : documents) {
+            if (URLUtil.isLocalUrl(document) && buildContext.hasDelta(URLUtil.getFileFromURL(URLUtil.parseURL(document)))) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private void addProjectDependenciesToClasspath() {
@@ -1262,4 +1470,64 @@ public class Jsonschema2PojoMojo extends AbstractMojo implements GenerationConfi
     public boolean isUseJakartaValidation() {
         return useJakartaValidation;
     }
+
+    @Override
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public boolean isIncrementalGeneration() {
+        return incrementalGeneration;
+    }
+
+    @Override
+    public boolean isWriteOnlyChangedFiles() {
+        return writeOnlyChangedFiles;
+    }
+
+    @Override
+    public File getRemoteCacheDirectory() {
+        return remoteCacheDirectory;
+    }
+
+    @Override
+    public boolean isOffline() {
+        return offline;
+    }
+
+    @Override
+    public int getRemoteTimeout() {
+        return remoteTimeout;
+    }
+
+    @Override
+    public File getProfileReport() {
+        return profileReport;
+    }
+
+    @Override
+    public boolean isStreamingGeneration() {
+        return streamingGeneration;
+    }
+
+    @Override
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    @Override
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    @Override
+    public OutputFormat getOutputFormat() {
+        return OutputFormat.valueOf(outputFormat.toUpperCase());
+    }
+
+    @Override
+    public boolean isWriteSources() {
+        return writeSources;
+    }
 }